@@ -8,6 +8,8 @@ plugins {
     `java-library`
     `maven-publish`
 	id("io.freefair.lombok") version "8.11"
+    // indexes and compiles src/main/resources/langs; published for bots to apply to their own language files
+    id("dev.qixils.quasicord.translations")
 }
 
 repositories {
@@ -32,6 +34,7 @@ dependencies {
     testImplementation(libs.org.junit.jupiter.junit.jupiter)
     testImplementation(libs.ch.qos.logback.logback.classic)
     compileOnly(libs.org.jetbrains.annotations)
+    annotationProcessor(project(":processor"))
 }
 
 group = "dev.qixils.quasicolon"
@@ -50,6 +53,25 @@ publishing {
     }
 }
 
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Runs the microbenchmarks under src/test, which are excluded from the regular tests
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the microbenchmarks."
+    group = LifecycleBasePlugin.VERIFICATION_GROUP
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
+
 tasks.withType<JavaCompile>() {
     options.encoding = "UTF8"
 }
@@ -0,0 +1,41 @@
+plugins {
+    `java-gradle-plugin`
+    `maven-publish`
+}
+
+repositories {
+    mavenLocal()
+    maven {
+        url = uri("https://repo.maven.apache.org/maven2/")
+    }
+}
+
+dependencies {
+    implementation(libs.org.yaml.snakeyaml)
+    implementation(libs.net.xyzsd.plurals.cldr.plural.rules)
+}
+
+group = "dev.qixils.quasicolon"
+version = "1.0.0-SNAPSHOT"
+description = "quasicord-gradle-plugin"
+java.sourceCompatibility = JavaVersion.VERSION_21
+java.targetCompatibility = JavaVersion.VERSION_21
+
+java {
+    withSourcesJar()
+}
+
+gradlePlugin {
+    plugins {
+        create("translations") {
+            id = "dev.qixils.quasicord.translations"
+            displayName = "Quasicord translations"
+            description = "Indexes, validates and compiles Quasicord language files at build time"
+            implementationClass = "dev.qixils.quasicord.gradle.QuasicordTranslationsPlugin"
+        }
+    }
+}
+
+tasks.withType<JavaCompile>() {
+    options.encoding = "UTF8"
+}
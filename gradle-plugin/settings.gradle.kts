@@ -0,0 +1,9 @@
+rootProject.name = "quasicord-gradle-plugin"
+
+dependencyResolutionManagement {
+    versionCatalogs {
+        create("libs") {
+            from(files("../gradle/libs.versions.toml"))
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.gradle;
+
+import net.xyzsd.plurals.PluralCategory;
+import net.xyzsd.plurals.PluralRule;
+import net.xyzsd.plurals.PluralRuleType;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.*;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the language files of each translation namespace into a binary index which can be
+ * loaded without parsing YAML, validating the translations along the way.
+ * <p>
+ * The index is written to {@code langs/<namespace>/translations.bin} and has the following
+ * big-endian layout, which must be kept in sync with {@code TranslationIndex}:
+ * <pre>
+ * int    magic ("QCTI")
+ * int    version
+ * int    string count, followed by that many string end offsets
+ * int    string data length, followed by that many bytes of UTF-8 string data
+ * int    locale count, followed by that many string IDs of language tags
+ * int    key count, followed by that many string IDs of keys (sorted)
+ * int[]  for each locale, for each key: offset of the value in the value data, or -1 if absent
+ * int    value data length, followed by that many bytes of values:
+ *          byte 0 (single), int string ID
+ *          byte 1 (plural), byte mask of present plural categories, int string ID per present category
+ * </pre>
+ * Plural categories are numbered in the order zero, one, two, few, many, other.
+ */
+public abstract class CompileTranslations extends DefaultTask {
+	public static final String FILE_NAME = "translations.bin";
+	private static final int MAGIC = 0x51435449;
+	private static final int VERSION = 1;
+	private static final List<String> PLURAL_CATEGORIES = List.of("zero", "one", "two", "few", "many", "other");
+	private static final Pattern LANGUAGE_FILE = Pattern.compile("(?<languageTag>\\w{2})\\.ya?ml");
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\s*(\\d+)\\s*[,}]");
+	private static final List<String> PLURAL_OPERANDS = pluralOperands();
+
+	/**
+	 * Gets the directory containing one subdirectory of language files per namespace.
+	 *
+	 * @return language directory
+	 */
+	@InputFiles
+	@SkipWhenEmpty
+	@IgnoreEmptyDirectories
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public abstract DirectoryProperty getSource();
+
+	/**
+	 * Gets the language tag of the locale whose placeholders other locales are validated against.
+	 *
+	 * @return reference language tag
+	 */
+	@Input
+	public abstract Property<String> getReferenceLocale();
+
+	/**
+	 * Gets the resource directory to write the compiled indexes to.
+	 *
+	 * @return output directory
+	 */
+	@OutputDirectory
+	public abstract DirectoryProperty getOutput();
+
+	public CompileTranslations() {
+		getReferenceLocale().convention("en");
+	}
+
+	@TaskAction
+	public void compile() throws IOException {
+		File[] namespaces = getSource().get().getAsFile().listFiles(File::isDirectory);
+		if (namespaces == null)
+			return;
+
+		List<String> errors = new ArrayList<>();
+		for (File namespace : namespaces)
+			compileNamespace(namespace, errors);
+		if (!errors.isEmpty())
+			throw new GradleException("Invalid translations:\n - " + String.join("\n - ", errors));
+	}
+
+	private void compileNamespace(File namespace, List<String> errors) throws IOException {
+		File[] files = namespace.listFiles(file -> file.isFile() && LANGUAGE_FILE.matcher(file.getName()).find());
+		if (files == null || files.length == 0)
+			return;
+		Arrays.sort(files, Comparator.comparing(File::getName));
+
+		// language tag -> flattened translations
+		Map<String, Map<String, Object>> languages = new LinkedHashMap<>();
+		for (File file : files) {
+			Matcher matcher = LANGUAGE_FILE.matcher(file.getName());
+			if (!matcher.find())
+				continue;
+			String languageTag = matcher.group("languageTag");
+			Map<String, Object> data;
+			try (InputStream stream = new FileInputStream(file)) {
+				data = new Yaml().load(stream);
+			}
+			if (data == null)
+				data = Map.of();
+			// some language files are nested inside the language tag
+			if (data.get(languageTag) instanceof Map<?, ?> nested)
+				//noinspection unchecked
+				data = (Map<String, Object>) nested;
+			Map<String, Object> translations = new TreeMap<>();
+			flattenKeys(namespace.getName() + "/" + file.getName(), "", data, translations, errors);
+			languages.put(languageTag, translations);
+		}
+
+		validate(namespace.getName(), languages, errors);
+
+		File output = getOutput().get().dir("langs/" + namespace.getName()).getAsFile();
+		Files.createDirectories(output.toPath());
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(output, FILE_NAME))))) {
+			write(languages, out);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void flattenKeys(String file, String prefix, Map<String, ?> keys, Map<String, Object> results, List<String> errors) {
+		for (var entry : keys.entrySet()) {
+			String key = prefix + entry.getKey();
+			switch (entry.getValue()) {
+				case String single ->
+					results.put(key, single);
+				case Map<?, ?> map when PLURAL_CATEGORIES.containsAll(map.keySet()) -> {
+					Map<String, String> plural = new LinkedHashMap<>();
+					map.forEach((category, value) -> plural.put((String) category, String.valueOf(value)));
+					results.put(key, plural);
+				}
+				case Map<?, ?> map ->
+					flattenKeys(file, key + ".", (Map<String, ?>) map, results, errors);
+				case null, default ->
+					errors.add(file + ": invalid translation value for " + key + ": " + entry.getValue());
+			}
+		}
+	}
+
+	private void validate(String namespace, Map<String, Map<String, Object>> languages, List<String> errors) {
+		String referenceTag = languages.containsKey(getReferenceLocale().get())
+			? getReferenceLocale().get()
+			: languages.keySet().iterator().next();
+		Map<String, Object> reference = languages.get(referenceTag);
+
+		for (var language : languages.entrySet()) {
+			String tag = language.getKey();
+			Set<String> requiredCategories = requiredPluralCategories(Locale.forLanguageTag(tag));
+
+			for (var translation : language.getValue().entrySet()) {
+				String key = translation.getKey();
+				String where = namespace + ":" + key + " (" + tag + ")";
+				Object value = translation.getValue();
+
+				if (value instanceof Map<?, ?> plural) {
+					Set<String> missing = new TreeSet<>(requiredCategories);
+					missing.removeAll(plural.keySet());
+					if (!missing.isEmpty())
+						errors.add(where + " is missing plural categories " + missing);
+				}
+
+				Set<Integer> placeholders;
+				try {
+					placeholders = placeholders(value);
+				} catch (IllegalArgumentException e) {
+					errors.add(where + " has an invalid pattern: " + e.getMessage());
+					continue;
+				}
+
+				if (tag.equals(referenceTag) || !reference.containsKey(key))
+					continue;
+				Set<Integer> expected;
+				try {
+					expected = placeholders(reference.get(key));
+				} catch (IllegalArgumentException e) {
+					continue; // reported for the reference locale
+				}
+				if (!placeholders.equals(expected))
+					errors.add(where + " uses placeholders " + placeholders + " but " + referenceTag + " uses " + expected);
+			}
+		}
+	}
+
+	/**
+	 * Gets the cardinal plural categories which a locale's rule can select.
+	 * <p>
+	 * The plural rules do not expose their categories, so they are found by selecting a number from every class of
+	 * operands that CLDR rules distinguish: the integer part modulo {@code 10}, {@code 100}, {@code 1000} and
+	 * {@code 1000000}, combined with up to three visible fraction digits with and without trailing zeros.
+	 * This includes categories which only fractional values select, such as {@code other} in Russian.
+	 *
+	 * @param locale the locale
+	 * @return plural categories
+	 */
+	static Set<String> requiredPluralCategories(Locale locale) {
+		PluralRule rule = PluralRule.createOrDefault(locale, PluralRuleType.CARDINAL);
+		Set<String> categories = new HashSet<>();
+		for (String number : PLURAL_OPERANDS) {
+			PluralCategory category = rule.select(number);
+			categories.add(category.name().toLowerCase(Locale.ROOT));
+		}
+		return categories;
+	}
+
+	private static List<String> pluralOperands() {
+		List<String> numbers = new ArrayList<>();
+		// integers: every value of the integer part modulo 1000, and the multiples of a million
+		for (int i = 0; i < 1000; i++)
+			numbers.add(Integer.toString(i));
+		for (int i = 1; i <= 10; i++)
+			numbers.add(i + "000000");
+		numbers.add("1000000000");
+		// decimals: rules compare the fraction digits (f, t) and their count (v, w) against small values
+		for (int i = 0; i <= 120; i++) {
+			for (int f = 0; f < 100; f++) {
+				if (f < 10)
+					numbers.add(i + "." + f);
+				numbers.add(i + "." + (f < 10 ? "0" : "") + f);
+			}
+			for (String fraction : List.of("000", "001", "010", "100", "500"))
+				numbers.add(i + "." + fraction);
+		}
+		numbers.add("1000000.0");
+		return List.copyOf(numbers);
+	}
+
+	private static Set<Integer> placeholders(Object value) throws IllegalArgumentException {
+		Set<Integer> placeholders = new TreeSet<>();
+		if (value instanceof Map<?, ?> plural) {
+			for (Object pattern : plural.values())
+				placeholders.addAll(placeholders(pattern));
+			return placeholders;
+		}
+		// normalizes quoting so that literal braces are not mistaken for placeholders
+		String pattern = new MessageFormat((String) value, Locale.ROOT).toPattern();
+		Matcher matcher = PLACEHOLDER.matcher(pattern);
+		while (matcher.find())
+			placeholders.add(Integer.parseInt(matcher.group(1)));
+		return placeholders;
+	}
+
+	private static void write(Map<String, Map<String, Object>> languages, DataOutputStream out) throws IOException {
+		List<String> strings = new ArrayList<>();
+		Map<String, Integer> stringIds = new HashMap<>();
+		List<String> locales = new ArrayList<>(languages.keySet());
+		List<String> keys = languages.values().stream()
+			.flatMap(translations -> translations.keySet().stream())
+			.distinct()
+			.sorted()
+			.toList();
+
+		// values
+		int[][] offsets = new int[locales.size()][keys.size()];
+		ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+		DataOutputStream values = new DataOutputStream(valueBytes);
+		for (int l = 0; l < locales.size(); l++) {
+			Map<String, Object> translations = languages.get(locales.get(l));
+			for (int k = 0; k < keys.size(); k++) {
+				Object value = translations.get(keys.get(k));
+				if (value == null) {
+					offsets[l][k] = -1;
+					continue;
+				}
+				offsets[l][k] = values.size();
+				if (value instanceof Map<?, ?> plural) {
+					int mask = 0;
+					for (int c = 0; c < PLURAL_CATEGORIES.size(); c++) {
+						if (plural.containsKey(PLURAL_CATEGORIES.get(c)))
+							mask |= 1 << c;
+					}
+					values.writeByte(1);
+					values.writeByte(mask);
+					for (String category : PLURAL_CATEGORIES) {
+						if (plural.containsKey(category))
+							values.writeInt(intern((String) plural.get(category), strings, stringIds));
+					}
+				} else {
+					values.writeByte(0);
+					values.writeInt(intern((String) value, strings, stringIds));
+				}
+			}
+		}
+		int[] localeIds = locales.stream().mapToInt(tag -> intern(tag, strings, stringIds)).toArray();
+		int[] keyIds = keys.stream().mapToInt(key -> intern(key, strings, stringIds)).toArray();
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		// string pool
+		ByteArrayOutputStream stringData = new ByteArrayOutputStream();
+		out.writeInt(strings.size());
+		for (String string : strings) {
+			stringData.writeBytes(string.getBytes(StandardCharsets.UTF_8));
+			out.writeInt(stringData.size());
+		}
+		out.writeInt(stringData.size());
+		stringData.writeTo(out);
+
+		out.writeInt(localeIds.length);
+		for (int id : localeIds)
+			out.writeInt(id);
+		out.writeInt(keyIds.length);
+		for (int id : keyIds)
+			out.writeInt(id);
+		for (int[] localeOffsets : offsets) {
+			for (int offset : localeOffsets)
+				out.writeInt(offset);
+		}
+		out.writeInt(values.size());
+		valueBytes.writeTo(out);
+	}
+
+	private static int intern(String string, List<String> strings, Map<String, Integer> stringIds) {
+		return stringIds.computeIfAbsent(string, s -> {
+			strings.add(s);
+			return strings.size() - 1;
+		});
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.gradle;
+
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.tasks.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the language files of each translation namespace in {@code langs/<namespace>/index}
+ * so that they can be found without scanning the jar.
+ */
+public abstract class GenerateLanguageIndex extends DefaultTask {
+	public static final String FILE_NAME = "index";
+
+	/**
+	 * Gets the directory containing one subdirectory of language files per namespace.
+	 *
+	 * @return language directory
+	 */
+	@InputFiles
+	@SkipWhenEmpty
+	@IgnoreEmptyDirectories
+	@PathSensitive(PathSensitivity.RELATIVE)
+	public abstract DirectoryProperty getSource();
+
+	/**
+	 * Gets the resource directory to write the indexes to.
+	 *
+	 * @return output directory
+	 */
+	@OutputDirectory
+	public abstract DirectoryProperty getOutput();
+
+	@TaskAction
+	public void generate() throws IOException {
+		File[] namespaces = getSource().get().getAsFile().listFiles(File::isDirectory);
+		if (namespaces == null)
+			return;
+
+		for (File namespace : namespaces) {
+			File[] files = namespace.listFiles(file -> file.isFile() && !file.getName().equals(FILE_NAME));
+			String index = files == null ? "" : Arrays.stream(files)
+				.map(file -> file.getName() + "\n")
+				.sorted()
+				.collect(Collectors.joining());
+			File output = getOutput().get().file("langs/" + namespace.getName() + "/" + FILE_NAME).getAsFile();
+			Files.createDirectories(output.getParentFile().toPath());
+			Files.writeString(output.toPath(), index, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.gradle;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+
+/**
+ * Prepares the language files of a bot so that they can be loaded at startup without scanning the jar
+ * or parsing YAML.
+ * <p>
+ * Once the {@code java} plugin is applied, this registers the {@code generateLanguageIndex} and
+ * {@code compileTranslations} tasks, which read the namespaces under {@code src/main/resources/langs}
+ * and add their outputs to the main resources:
+ * <pre>
+ * plugins {
+ *     java
+ *     id("dev.qixils.quasicord.translations") version "&lt;quasicord version&gt;"
+ * }
+ *
+ * // optional: validate placeholders against a locale other than English
+ * tasks.compileTranslations {
+ *     referenceLocale = "fr"
+ * }
+ * </pre>
+ * Invalid translations, such as plural translations missing one of their locale's categories,
+ * fail the build.
+ */
+public class QuasicordTranslationsPlugin implements Plugin<Project> {
+	public static final String LANGUAGE_DIRECTORY = "src/main/resources/langs";
+
+	@Override
+	public void apply(Project project) {
+		project.getPlugins().withType(JavaPlugin.class, $ -> {
+			var langs = project.getLayout().getProjectDirectory().dir(LANGUAGE_DIRECTORY);
+			var generated = project.getLayout().getBuildDirectory().dir("generated/resources");
+
+			var index = project.getTasks().register("generateLanguageIndex", GenerateLanguageIndex.class, task -> {
+				task.setDescription("Lists the language files of each translation namespace.");
+				task.getSource().convention(langs);
+				task.getOutput().convention(generated.map(dir -> dir.dir("languageIndex")));
+			});
+			var compile = project.getTasks().register("compileTranslations", CompileTranslations.class, task -> {
+				task.setDescription("Validates and compiles the language files of each translation namespace.");
+				task.getSource().convention(langs);
+				task.getOutput().convention(generated.map(dir -> dir.dir("translations")));
+			});
+
+			SourceSet main = project.getExtensions().getByType(SourceSetContainer.class).getByName(SourceSet.MAIN_SOURCE_SET_NAME);
+			main.getResources().srcDir(index);
+			main.getResources().srcDir(compile);
+		});
+	}
+}
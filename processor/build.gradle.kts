@@ -0,0 +1,32 @@
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+repositories {
+    mavenLocal()
+    maven {
+        url = uri("https://repo.maven.apache.org/maven2/")
+    }
+}
+
+group = "dev.qixils.quasicolon"
+version = "1.0.0-SNAPSHOT"
+description = "quasicord-processor"
+java.sourceCompatibility = JavaVersion.VERSION_21
+java.targetCompatibility = JavaVersion.VERSION_21
+
+java {
+    withSourcesJar()
+}
+
+publishing {
+    publications.create<MavenPublication>("maven") {
+        artifactId = "quasicord-processor"
+        from(components["java"])
+    }
+}
+
+tasks.withType<JavaCompile>() {
+    options.encoding = "UTF8"
+}
@@ -0,0 +1,449 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Validates annotated command methods at compile time and generates a {@code <Class>$QuasicordCommands}
+ * class for each command class, which describes the annotations of its command methods and their parameters
+ * and invokes them directly, so that neither needs reflection at runtime.
+ * <p>
+ * Names and descriptions are still read at runtime, as they depend on the translations loaded by the bot.
+ */
+@SupportedAnnotationTypes({
+	CommandProcessor.SLASH_COMMAND,
+	CommandProcessor.SLASH_SUB_COMMAND,
+	CommandProcessor.CONTEXT_COMMAND
+})
+public final class CommandProcessor extends AbstractProcessor {
+	static final String SLASH_COMMAND = "dev.qixils.quasicord.decorators.slash.SlashCommand";
+	static final String SLASH_SUB_COMMAND = "dev.qixils.quasicord.decorators.slash.SlashSubCommand";
+	static final String CONTEXT_COMMAND = "dev.qixils.quasicord.decorators.ContextCommand";
+	private static final String GUILD = "dev.qixils.quasicord.decorators.Guild";
+	private static final String NAMESPACE = "dev.qixils.quasicord.decorators.Namespace";
+	private static final String DEFAULT_PERMISSIONS = "dev.qixils.quasicord.decorators.slash.DefaultPermissions";
+	private static final String OPTION = "dev.qixils.quasicord.decorators.option.Option";
+	private static final String CONTEXTUAL = "dev.qixils.quasicord.decorators.option.Contextual";
+	private static final String CONVERT_WITH = "dev.qixils.quasicord.decorators.option.ConvertWith";
+	private static final String RANGE = "dev.qixils.quasicord.decorators.option.Range";
+	private static final String CHANNEL_TYPES = "dev.qixils.quasicord.decorators.option.ChannelTypes";
+	private static final String CHOICE = "dev.qixils.quasicord.decorators.option.Choice";
+	private static final String CHOICES = "dev.qixils.quasicord.decorators.option.Choices";
+	private static final String AUTO_COMPLETE_WITH = "dev.qixils.quasicord.decorators.option.AutoCompleteWith";
+	private static final String AUTO_COMPLETE_FROM = "dev.qixils.quasicord.decorators.option.AutoCompleteFrom";
+	private static final String GENERATED_COMMANDS = "dev.qixils.quasicord.decorators.GeneratedCommands";
+	private static final String COMMAND_INVOKER = "dev.qixils.quasicord.decorators.CommandInvoker";
+	private static final String COMMAND_DESCRIPTOR = "dev.qixils.quasicord.decorators.CommandDescriptor";
+	private static final String PERMISSION = "net.dv8tion.jda.api.Permission";
+	private static final String CHANNEL_TYPE = "net.dv8tion.jda.api.entities.channel.ChannelType";
+	private static final String SUFFIX = "$QuasicordCommands";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<TypeElement, Set<ExecutableElement>> commandClasses = new LinkedHashMap<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.METHOD)
+					continue;
+				commandClasses.computeIfAbsent((TypeElement) element.getEnclosingElement(), $ -> new LinkedHashSet<>())
+					.add((ExecutableElement) element);
+			}
+		}
+
+		commandClasses.forEach((type, methods) -> {
+			boolean valid = true;
+			for (ExecutableElement method : methods)
+				valid &= validate(type, method);
+			if (valid && isAccessible(type))
+				generate(type, methods);
+		});
+		// other processors may also be interested in these annotations
+		return false;
+	}
+
+	/**
+	 * Reports the errors that {@code AnnotationParser} would otherwise only report at runtime.
+	 *
+	 * @param type   the class declaring the method
+	 * @param method the command method
+	 * @return true if the method is valid
+	 */
+	private boolean validate(TypeElement type, ExecutableElement method) {
+		long commandAnnotations = Stream.of(SLASH_COMMAND, SLASH_SUB_COMMAND, CONTEXT_COMMAND)
+			.filter(annotation -> hasAnnotation(method, annotation))
+			.count();
+		if (commandAnnotations > 1)
+			return error(method, "Cannot have multiple of @ContextCommand, @SlashCommand, and @SlashSubCommand on the same method");
+		if (!method.getModifiers().contains(Modifier.PUBLIC))
+			return error(method, "Command method must be public");
+		if (method.getModifiers().contains(Modifier.STATIC))
+			return error(method, "Decorator methods must not be static");
+		if (hasAnnotation(method, SLASH_SUB_COMMAND) && inheritedAnnotation(type, SLASH_COMMAND) == null)
+			return error(method, "@SlashSubCommand was applied to method " + method.getSimpleName() + ", but owning class " + type.getQualifiedName() + " lacks @SlashCommand");
+		boolean valid = true;
+		for (VariableElement parameter : method.getParameters()) {
+			boolean contextual = hasAnnotation(parameter, CONTEXTUAL);
+			boolean option = hasAnnotation(parameter, OPTION);
+			if (contextual && option)
+				valid = error(parameter, "Cannot have both @Contextual and @Option on the same parameter");
+			else if (!contextual && !option && !hasAnnotation(method, CONTEXT_COMMAND))
+				valid = error(parameter, "Parameters must be annotated with @Contextual or @Option");
+			if (hasAnnotation(parameter, AUTO_COMPLETE_WITH) && hasAnnotation(parameter, AUTO_COMPLETE_FROM))
+				valid = error(parameter, "Cannot have both @AutoCompleteWith and @AutoCompleteFrom on the same command");
+		}
+		return valid;
+	}
+
+	private boolean error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+		return false;
+	}
+
+	/**
+	 * Determines whether a generated class in the same package can refer to a class.
+	 *
+	 * @param type the command class
+	 * @return true if the class is accessible
+	 */
+	private boolean isAccessible(TypeElement type) {
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+			TypeElement enclosing = (TypeElement) element;
+			NestingKind nesting = enclosing.getNestingKind();
+			if (enclosing.getModifiers().contains(Modifier.PRIVATE) || nesting == NestingKind.LOCAL || nesting == NestingKind.ANONYMOUS) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+					"Command class " + type.getQualifiedName() + " is not accessible from its package; its commands will be invoked reflectively", type);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasAnnotation(Element element, String annotation) {
+		return annotation(element.getAnnotationMirrors(), annotation) != null;
+	}
+
+	private static AnnotationMirror annotation(List<? extends AnnotationMirror> mirrors, String annotation) {
+		for (AnnotationMirror mirror : mirrors) {
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation))
+				return mirror;
+		}
+		return null;
+	}
+
+	/**
+	 * Gets an annotation of a class, including those inherited from its superclasses,
+	 * as returned by {@link Class#getAnnotation(Class)}.
+	 *
+	 * @param type       the class
+	 * @param annotation the name of the annotation
+	 * @return annotation, or {@code null} if absent
+	 */
+	private AnnotationMirror inheritedAnnotation(TypeElement type, String annotation) {
+		return annotation(processingEnv.getElementUtils().getAllAnnotationMirrors(type), annotation);
+	}
+
+	private Object value(AnnotationMirror mirror, String name) {
+		for (var entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(name))
+				return entry.getValue().getValue();
+		}
+		throw new IllegalArgumentException("Annotation " + mirror + " has no value " + name);
+	}
+
+	// generation
+
+	private void generate(TypeElement type, Collection<ExecutableElement> methods) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+		String typeName = type.getQualifiedName().toString();
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty())
+			source.append("package ").append(packageName).append(";\n\n");
+		source.append("@javax.annotation.processing.Generated(\"").append(CommandProcessor.class.getName()).append("\")\n");
+		source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		source.append("public final class ").append(simpleName).append(" implements ").append(GENERATED_COMMANDS).append(" {\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic ").append(COMMAND_INVOKER).append(" invoker(Object target, String signature) {\n");
+		source.append("\t\t").append(typeName).append(" command = (").append(typeName).append(") target;\n");
+		source.append("\t\treturn switch (signature) {\n");
+		for (ExecutableElement method : methods) {
+			List<? extends VariableElement> parameters = method.getParameters();
+			String signature = signature(method);
+			StringBuilder call = new StringBuilder("command.").append(method.getSimpleName()).append('(');
+			for (int i = 0; i < parameters.size(); i++) {
+				if (i > 0)
+					call.append(", ");
+				call.append(argument(parameters.get(i).asType(), i));
+			}
+			call.append(')');
+
+			source.append("\t\t\tcase \"").append(signature).append("\" -> (args, primitives) -> ");
+			if (method.getReturnType().getKind() == TypeKind.VOID)
+				source.append("{\n\t\t\t\t").append(call).append(";\n\t\t\t\treturn null;\n\t\t\t};\n");
+			else
+				source.append(call).append(";\n");
+		}
+		source.append("\t\t\tdefault -> null;\n");
+		source.append("\t\t};\n");
+		source.append("\t}\n");
+
+		// descriptors
+		AnnotationMirror parent = inheritedAnnotation(type, SLASH_COMMAND);
+		source.append("\n\t@Override\n");
+		source.append("\tpublic ").append(COMMAND_DESCRIPTOR).append(" parent() {\n");
+		source.append("\t\treturn ");
+		if (parent == null) {
+			source.append("null");
+		} else {
+			source.append(descriptor("", "SLASH", parent, null,
+				inheritedAnnotation(type, DEFAULT_PERMISSIONS),
+				inheritedAnnotation(type, NAMESPACE),
+				inheritedAnnotation(type, GUILD),
+				"java.util.List.of()"));
+		}
+		source.append(";\n");
+		source.append("\t}\n");
+
+		source.append("\n\t@Override\n");
+		source.append("\tpublic java.util.List<").append(COMMAND_DESCRIPTOR).append("> commands() {\n");
+		source.append("\t\treturn java.util.List.of(");
+		boolean first = true;
+		for (ExecutableElement method : methods) {
+			source.append(first ? "\n" : ",\n").append("\t\t\t").append(descriptor(type, method));
+			first = false;
+		}
+		source.append(first ? ");\n" : "\n\t\t);\n");
+		source.append("\t}\n");
+		source.append("}\n");
+
+		String generatedName = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+		try (Writer writer = processingEnv.getFiler().createSourceFile(generatedName, type).openWriter()) {
+			writer.write(source.toString());
+		} catch (IOException e) {
+			error(type, "Failed to generate " + generatedName + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets the signature of a method as returned by {@code GeneratedCommands#signature(Method)}.
+	 *
+	 * @param method the method
+	 * @return method signature
+	 */
+	private String signature(ExecutableElement method) {
+		return method.getSimpleName() + method.getParameters().stream()
+			.map(parameter -> binaryName(parameter.asType()))
+			.collect(Collectors.joining(",", "(", ")"));
+	}
+
+	/**
+	 * Gets the expression which constructs the {@code CommandDescriptor} of a command method.
+	 *
+	 * @param type   the class declaring the method
+	 * @param method the command method
+	 * @return descriptor expression
+	 */
+	private String descriptor(TypeElement type, ExecutableElement method) {
+		List<? extends AnnotationMirror> annotations = method.getAnnotationMirrors();
+		AnnotationMirror command;
+		String kind;
+		if ((command = annotation(annotations, CONTEXT_COMMAND)) != null)
+			kind = "CONTEXT";
+		else if ((command = annotation(annotations, SLASH_COMMAND)) != null)
+			kind = "SLASH";
+		else {
+			command = annotation(annotations, SLASH_SUB_COMMAND);
+			kind = "SUBCOMMAND";
+		}
+
+		AnnotationMirror namespace = annotation(annotations, NAMESPACE);
+		if (namespace == null)
+			namespace = inheritedAnnotation(type, NAMESPACE);
+		AnnotationMirror guild = annotation(annotations, GUILD);
+		if (guild == null)
+			guild = inheritedAnnotation(type, GUILD);
+
+		String parameters = method.getParameters().stream()
+			.map(this::parameterDescriptor)
+			.collect(Collectors.joining(", ", "java.util.List.of(", ")"));
+		return descriptor(signature(method), kind, command, kind.equals("CONTEXT") ? enumConstant(value(command, "type")) : null,
+			annotation(annotations, DEFAULT_PERMISSIONS), namespace, guild, parameters);
+	}
+
+	private String descriptor(String signature, String kind, AnnotationMirror command, String contextType,
+		AnnotationMirror permissions, AnnotationMirror namespace, AnnotationMirror guild, String parameters) {
+		boolean subcommand = kind.equals("SUBCOMMAND");
+		return "new " + COMMAND_DESCRIPTOR + "(" + String.join(", ",
+			constant(signature),
+			COMMAND_DESCRIPTOR + ".Kind." + kind,
+			constant(value(command, "value")),
+			contextType == null ? "null" : contextType,
+			subcommand ? "false" : constant(value(command, "guildOnly")),
+			subcommand ? "false" : constant(value(command, "ageRestricted")),
+			permissions == null ? "null" : enumArray(PERMISSION, value(permissions, "value")),
+			namespace == null ? "null" : constant(value(namespace, "value")),
+			guild == null ? "null" : constant(value(guild, "value")),
+			parameters
+		) + ")";
+	}
+
+	private String parameterDescriptor(VariableElement parameter) {
+		List<? extends AnnotationMirror> annotations = parameter.getAnnotationMirrors();
+		AnnotationMirror option = annotation(annotations, OPTION);
+		AnnotationMirror convertWith = annotation(annotations, CONVERT_WITH);
+		return "new " + COMMAND_DESCRIPTOR + ".ParameterDescriptor(" + String.join(", ",
+			sourceName(parameter.asType()) + ".class",
+			constant(parameter.getSimpleName().toString()),
+			Boolean.toString(annotation(annotations, CONTEXTUAL) != null),
+			option == null ? "null" : optionDescriptor(option, annotations),
+			convertWith == null ? "null" : classLiteral(value(convertWith, "value"))
+		) + ")";
+	}
+
+	private String optionDescriptor(AnnotationMirror option, List<? extends AnnotationMirror> annotations) {
+		AnnotationMirror range = annotation(annotations, RANGE);
+		AnnotationMirror channelTypes = annotation(annotations, CHANNEL_TYPES);
+		AnnotationMirror autoCompleteWith = annotation(annotations, AUTO_COMPLETE_WITH);
+		AnnotationMirror autoCompleteFrom = annotation(annotations, AUTO_COMPLETE_FROM);
+		// a single @Choice is not wrapped in its container
+		List<Object> choices = new ArrayList<>();
+		AnnotationMirror choice = annotation(annotations, CHOICE);
+		if (choice != null)
+			choices.add(choice);
+		AnnotationMirror container = annotation(annotations, CHOICES);
+		if (container != null)
+			choices.addAll(arrayValues(value(container, "value")));
+		return "new " + COMMAND_DESCRIPTOR + ".OptionDescriptor(" + String.join(", ",
+			constant(value(option, "value")),
+			constant(value(option, "required")),
+			enumConstant(value(option, "type")),
+			range == null ? "null" : "new " + COMMAND_DESCRIPTOR + ".RangeDescriptor(" + constant(value(range, "min")) + ", " + constant(value(range, "max")) + ")",
+			channelTypes == null ? "null" : enumArray(CHANNEL_TYPE, value(channelTypes, "value")),
+			choiceDescriptors(choices),
+			autoCompleteWith == null ? "null" : classLiteral(value(autoCompleteWith, "value")),
+			autoCompleteFrom == null ? "null" : choiceDescriptors(arrayValues(value(autoCompleteFrom, "value")))
+		) + ")";
+	}
+
+	private String choiceDescriptors(List<?> choices) {
+		return choices.stream()
+			.map(choice -> (AnnotationMirror) choice)
+			.map(choice -> "new " + COMMAND_DESCRIPTOR + ".ChoiceDescriptor(" + String.join(", ",
+				constant(value(choice, "value")),
+				constant(value(choice, "intValue")),
+				constant(value(choice, "numberValue")),
+				constant(value(choice, "stringValue"))
+			) + ")")
+			.collect(Collectors.joining(", ", "java.util.List.of(", ")"));
+	}
+
+	/**
+	 * Gets the values of an array annotation value.
+	 *
+	 * @param value the array value
+	 * @return element values
+	 */
+	private static List<Object> arrayValues(Object value) {
+		List<Object> values = new ArrayList<>();
+		for (Object element : (List<?>) value)
+			values.add(((AnnotationValue) element).getValue());
+		return values;
+	}
+
+	private String constant(Object value) {
+		return processingEnv.getElementUtils().getConstantExpression(value);
+	}
+
+	private static String enumConstant(Object value) {
+		VariableElement constant = (VariableElement) value;
+		return ((TypeElement) constant.getEnclosingElement()).getQualifiedName() + "." + constant.getSimpleName();
+	}
+
+	private static String enumArray(String type, Object value) {
+		return arrayValues(value).stream()
+			.map(CommandProcessor::enumConstant)
+			.collect(Collectors.joining(", ", "new " + type + "[]{", "}"));
+	}
+
+	private String classLiteral(Object value) {
+		return "(Class) " + sourceName((TypeMirror) value) + ".class";
+	}
+
+	/**
+	 * Gets the expression which reads an argument as a parameter's type.
+	 * Primitive arguments are read from the primitive argument array without boxing,
+	 * as encoded by {@code CommandInvoker#toBits(Object)}.
+	 *
+	 * @param type  the parameter type
+	 * @param index the index of the argument
+	 * @return argument expression
+	 */
+	private String argument(TypeMirror type, int index) {
+		if (!type.getKind().isPrimitive())
+			return "(" + sourceName(type) + ") args[" + index + "]";
+		String primitive = "primitives[" + index + "]";
+		return switch (type.getKind()) {
+			case BOOLEAN -> "(" + primitive + " != 0)";
+			case DOUBLE -> "java.lang.Double.longBitsToDouble(" + primitive + ")";
+			case FLOAT -> "java.lang.Float.intBitsToFloat((int) " + primitive + ")";
+			case LONG -> primitive;
+			default -> "(" + type.getKind().name().toLowerCase(Locale.ROOT) + ") " + primitive;
+		};
+	}
+
+	/**
+	 * Gets the name of a type's erasure as it is written in source code.
+	 *
+	 * @param type the type
+	 * @return source name
+	 */
+	private String sourceName(TypeMirror type) {
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		return switch (erasure.getKind()) {
+			case ARRAY -> sourceName(((ArrayType) erasure).getComponentType()) + "[]";
+			case DECLARED -> ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+			default -> erasure.getKind().name().toLowerCase(Locale.ROOT);
+		};
+	}
+
+	/**
+	 * Gets the name of a type's erasure as returned by {@link Class#getTypeName()}.
+	 *
+	 * @param type the type
+	 * @return binary name
+	 */
+	private String binaryName(TypeMirror type) {
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		return switch (erasure.getKind()) {
+			case ARRAY -> binaryName(((ArrayType) erasure).getComponentType()) + "[]";
+			case DECLARED -> processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) erasure).asElement()).toString();
+			default -> erasure.getKind().name().toLowerCase(Locale.ROOT);
+		};
+	}
+}
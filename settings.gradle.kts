@@ -4,4 +4,12 @@
  * This project uses @Incubating APIs which are subject to change.
  */
 
+pluginManagement {
+    // indexes and compiles language files; also published for bots to apply
+    includeBuild("gradle-plugin")
+}
+
 rootProject.name = "quasicord"
+
+// generates direct invokers for annotated commands at compile time
+include("processor")
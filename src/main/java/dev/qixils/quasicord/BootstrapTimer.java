@@ -0,0 +1,134 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Records how long each stage of startup took.
+ * Stages may overlap, in which case their durations add up to more than the total startup time.
+ */
+final class BootstrapTimer {
+	private final long start = System.nanoTime();
+	private final @NonNull Map<String, Duration> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+	/**
+	 * Starts timing a stage, which is recorded once the returned stage is closed.
+	 *
+	 * @param name the name of the stage
+	 * @return the running stage
+	 */
+	@NonNull Stage stage(@NonNull String name) {
+		return new Stage(name, System.nanoTime());
+	}
+
+	/**
+	 * Runs a stage in the background.
+	 *
+	 * @param name     the name of the stage
+	 * @param executor the executor to run the stage on
+	 * @param task     the stage's work
+	 * @param <T>      the type of the stage's result
+	 * @return a future that completes with the stage's result
+	 */
+	<T> @NonNull CompletableFuture<T> async(@NonNull String name, @NonNull Executor executor, @NonNull Callable<T> task) {
+		return CompletableFuture.supplyAsync(() -> {
+			try (Stage ignored = stage(name)) {
+				return task.call();
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	/**
+	 * Waits for a background stage to complete, rethrowing its failure.
+	 *
+	 * @param future the stage's future
+	 * @param <T>    the type of the stage's result
+	 * @return the stage's result
+	 * @throws IOException          if the stage failed to read a file
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	static <T> T join(@NonNull CompletableFuture<T> future) throws IOException, InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CompletionException && cause.getCause() != null)
+				cause = cause.getCause();
+			if (cause instanceof IOException io)
+				throw io;
+			if (cause instanceof RuntimeException runtime)
+				throw runtime;
+			if (cause instanceof Error error)
+				throw error;
+			throw new IllegalStateException("Startup stage failed", cause);
+		}
+	}
+
+	/**
+	 * Gets the recorded stage timings in the order the stages finished.
+	 *
+	 * @return stage timings
+	 */
+	@NonNull Map<String, Duration> getTimings() {
+		synchronized (timings) {
+			return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+		}
+	}
+
+	/**
+	 * Logs the recorded stage timings along with the total startup time.
+	 *
+	 * @param logger the logger to log to
+	 */
+	void log(@NonNull Logger logger) {
+		String stages = getTimings().entrySet().stream()
+			.map(entry -> entry.getKey() + " " + entry.getValue().toMillis() + "ms")
+			.collect(Collectors.joining(", "));
+		logger.info("Started in {}ms ({})", Duration.ofNanos(System.nanoTime() - start).toMillis(), stages);
+	}
+
+	/**
+	 * A running stage.
+	 */
+	final class Stage implements AutoCloseable {
+		private final @NonNull String name;
+		private final long start;
+
+		private Stage(@NonNull String name, long start) {
+			this.name = name;
+			this.start = start;
+		}
+
+		/**
+		 * Records the duration of this stage.
+		 *
+		 * @return stage duration
+		 */
+		@NonNull Duration stop() {
+			Duration duration = Duration.ofNanos(System.nanoTime() - start);
+			timings.put(name, duration);
+			return duration;
+		}
+
+		@Override
+		public void close() {
+			stop();
+		}
+	}
+}
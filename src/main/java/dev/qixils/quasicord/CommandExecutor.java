@@ -0,0 +1,227 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Executes commands according to the configured {@link ExecutionMode}.
+ * <p>
+ * In {@link ExecutionMode#VIRTUAL virtual} mode, each command runs on its own virtual thread and the number of
+ * commands queued or executing at once is bounded. Commands may optionally be ordered by a key (such as their guild),
+ * in which case commands sharing a key run one at a time in the order they were submitted.
+ */
+public final class CommandExecutor {
+	private final @NonNull ExecutionMode mode;
+	private final int maxInFlight;
+	private final boolean ordered;
+	private final @Nullable ExecutorService executor;
+	private final @NonNull Semaphore permits;
+	private final @NonNull Map<Long, ArrayDeque<Runnable>> queues = new ConcurrentHashMap<>();
+
+	private final @NonNull AtomicInteger queued = new AtomicInteger();
+	private final @NonNull LongAdder executed = new LongAdder();
+	private final @NonNull LongAdder rejected = new LongAdder();
+	private final @NonNull LongAdder executionNanos = new LongAdder();
+	private final @NonNull AtomicLong longestExecution = new AtomicLong();
+
+	/**
+	 * Creates a new command executor.
+	 *
+	 * @param mode        the thread to execute commands on
+	 * @param maxInFlight the maximum number of commands queued or executing at once in virtual mode
+	 * @param ordered     whether commands sharing a key should run one at a time
+	 * @throws IllegalArgumentException if {@code maxInFlight} is not positive
+	 */
+	CommandExecutor(@NonNull ExecutionMode mode, int maxInFlight, boolean ordered) throws IllegalArgumentException {
+		if (maxInFlight <= 0)
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		this.mode = mode;
+		this.maxInFlight = maxInFlight;
+		this.ordered = ordered && mode == ExecutionMode.VIRTUAL;
+		this.executor = mode == ExecutionMode.VIRTUAL
+			? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quasicord-command-", 0).factory())
+			: null;
+		this.permits = new Semaphore(maxInFlight);
+	}
+
+	/**
+	 * Executes a command.
+	 *
+	 * The command is considered to be executing until the future returned by the task completes.
+	 * In virtual mode, the command's thread waits for the future, so that commands finishing asynchronously
+	 * still count towards the in-flight limit and hold back later commands with the same key.
+	 *
+	 * @param key  the key to order the command by, such as the ID of its guild
+	 * @param task the command to execute, which returns a future that completes once the command has finished
+	 * @return {@code false} if the command was rejected because too many commands are in flight
+	 */
+	boolean execute(long key, @NonNull Supplier<? extends CompletionStage<?>> task) {
+		if (executor == null) {
+			long start = System.nanoTime();
+			CompletionStage<?> completion;
+			try {
+				completion = task.get();
+			} catch (Throwable throwable) {
+				record(start);
+				throw throwable;
+			}
+			completion.whenComplete(($, $$) -> record(start));
+			return true;
+		}
+		if (!permits.tryAcquire()) {
+			rejected.increment();
+			return false;
+		}
+		Runnable command = () -> {
+			try {
+				run(task);
+			} finally {
+				permits.release();
+			}
+		};
+
+		if (!ordered) {
+			executor.execute(command);
+			return true;
+		}
+
+		// a queue exists for as long as a thread is draining it
+		boolean[] start = {false};
+		queues.compute(key, ($, queue) -> {
+			if (queue == null) {
+				start[0] = true;
+				return new ArrayDeque<>();
+			}
+			queue.add(command);
+			queued.incrementAndGet();
+			return queue;
+		});
+		if (start[0])
+			executor.execute(() -> drain(key, command));
+		return true;
+	}
+
+	private void drain(long key, @NonNull Runnable first) {
+		Runnable next = first;
+		while (next != null) {
+			try {
+				next.run();
+			} catch (Throwable throwable) {
+				// keep draining so later commands with this key are not stranded
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, throwable);
+			}
+			Runnable[] polled = {null};
+			queues.computeIfPresent(key, ($, queue) -> {
+				polled[0] = queue.poll();
+				if (polled[0] == null)
+					return null;
+				queued.decrementAndGet();
+				return queue;
+			});
+			next = polled[0];
+		}
+	}
+
+	private void run(@NonNull Supplier<? extends CompletionStage<?>> task) {
+		long start = System.nanoTime();
+		try {
+			task.get().toCompletableFuture().join();
+		} finally {
+			record(start);
+		}
+	}
+
+	private void record(long start) {
+		long elapsed = System.nanoTime() - start;
+		executed.increment();
+		executionNanos.add(elapsed);
+		longestExecution.accumulateAndGet(elapsed, Math::max);
+	}
+
+	// metrics
+
+	/**
+	 * Returns the mode that commands are executed in.
+	 *
+	 * @return execution mode
+	 */
+	public @NonNull ExecutionMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the number of commands which are currently queued or executing.
+	 * This is always {@code 0} when executing on the event thread.
+	 *
+	 * @return in-flight command count
+	 */
+	public int getInFlightCount() {
+		return maxInFlight - permits.availablePermits();
+	}
+
+	/**
+	 * Returns the number of commands waiting for an earlier command with the same key to finish.
+	 *
+	 * @return queue depth
+	 */
+	public int getQueueDepth() {
+		return queued.get();
+	}
+
+	/**
+	 * Returns the number of commands which have finished executing.
+	 *
+	 * @return executed command count
+	 */
+	public long getExecutedCount() {
+		return executed.sum();
+	}
+
+	/**
+	 * Returns the number of commands which were rejected because too many commands were in flight.
+	 *
+	 * @return rejected command count
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	/**
+	 * Returns the average time taken to execute a command.
+	 *
+	 * @return average execution time
+	 */
+	public @NonNull Duration getAverageExecutionTime() {
+		long count = executed.sum();
+		return count == 0 ? Duration.ZERO : Duration.ofNanos(executionNanos.sum() / count);
+	}
+
+	/**
+	 * Returns the longest time taken to execute a command.
+	 *
+	 * @return longest execution time
+	 */
+	public @NonNull Duration getLongestExecutionTime() {
+		return Duration.ofNanos(longestExecution.get());
+	}
+}
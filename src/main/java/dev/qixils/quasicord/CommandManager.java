@@ -10,145 +10,435 @@ import dev.qixils.quasicord.cogs.Command;
 import dev.qixils.quasicord.cogs.SlashCommand;
 import dev.qixils.quasicord.decorators.AnnotationParser;
 import dev.qixils.quasicord.error.UserError;
+import dev.qixils.quasicord.locale.TranslationProvider;
 import dev.qixils.quasicord.text.Text;
+import dev.qixils.quasicord.utils.LongObjectMap;
 import lombok.Getter;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.events.interaction.command.GenericCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
 import net.dv8tion.jda.api.interactions.callbacks.IReplyCallback;
+import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
+import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
-import net.dv8tion.jda.api.requests.RestAction;
-import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static dev.qixils.quasicord.Key.library;
 import static dev.qixils.quasicord.locale.Context.fromInteraction;
 import static dev.qixils.quasicord.text.Text.single;
 
 public class CommandManager {
+	/**
+	 * The scope of global commands in the routing table, as snowflakes are never zero.
+	 */
+	private static final long GLOBAL = 0;
+	private static final int MAX_DEBOUNCES = 8;
 	@Getter
 	private final @NonNull Quasicord library;
 	private final Logger logger = LoggerFactory.getLogger(getClass());
-	protected final @NonNull Map<@Nullable String, Map<String, Command<?>>> commands = new HashMap<>();
+	private final @NonNull Object lock = new Object();
+	private volatile @NonNull Routes routes = new Routes(LongObjectMap.empty(), LongObjectMap.empty());
+	private final @NonNull Map<RootKey, Long> commandIds = new HashMap<>(); // guarded by lock
 	private final AnnotationParser parser;
-	private boolean initialUpsertDone = false;
+	@Getter
+	private final @NonNull CommandExecutor executor;
+	private final @NonNull CommandSynchronizer synchronizer;
+	private final @NonNull Duration debounce;
+	private final @NonNull Map<Long, PendingFlush> pendingFlushes = new HashMap<>(); // guarded by lock
+	private boolean initialUpsertDone = false; // guarded by lock
 
 	public CommandManager(@NonNull Quasicord library) {
-		commands.put(null, new HashMap<>());
 		this.library = library;
 		this.parser = new AnnotationParser(this);
+		QuasicordConfig.CommandOptions options = library.getConfig().commands();
+		this.executor = new CommandExecutor(options.execution(), options.maxInFlight(), options.orderByGuild());
+		this.synchronizer = new CommandSynchronizer(options.sync(), library.getConfigRoot(), library::getGuildById);
+		this.debounce = Duration.ofMillis(options.debounce());
 	}
 
 	private static void sendEphemeral(@NonNull IReplyCallback event, @NonNull Text text) {
 		text.asString(fromInteraction(event)).subscribe(string -> event.reply(string).setEphemeral(true).queue());
 	}
 
+	private static long scope(@Nullable String guildId) {
+		return guildId == null ? GLOBAL : Long.parseLong(guildId);
+	}
+
+	private static @NonNull String rootName(@NonNull Command<?> command) {
+		if (command instanceof SlashCommand slashCommand)
+			return slashCommand.getBranch().root().getName();
+		CommandData commandData = command.getCommandData();
+		return commandData == null ? command.getDiscordName() : commandData.getName();
+	}
+
 	@Nullable
 	public Command<?> getCommand(String discordName, @Nullable String guildId) {
-		if (guildId != null && commands.containsKey(guildId)) {
-			Command<?> command = commands.get(guildId).get(discordName);
+		return getCommand(discordName, scope(guildId));
+	}
+
+	@Nullable
+	private Command<?> getCommand(@NonNull String discordName, long guildId) {
+		LongObjectMap<Map<String, Command<?>>> scopes = routes.scopes();
+		if (guildId != GLOBAL) {
+			Map<String, Command<?>> guildCommands = scopes.get(guildId);
+			Command<?> command = guildCommands == null ? null : guildCommands.get(discordName);
 			if (command != null) return command;
 		}
-		return commands.get(null).get(discordName);
+		Map<String, Command<?>> globalCommands = scopes.get(GLOBAL);
+		return globalCommands == null ? null : globalCommands.get(discordName);
+	}
+
+	/**
+	 * Gets the command which should handle an interaction.
+	 * Commands are looked up by the Discord ID of the invoked command once it is known,
+	 * falling back to the command's name in the interaction's guild and then globally.
+	 *
+	 * @param interaction the command or autocomplete interaction
+	 * @return the matching command, or {@code null} if none was found
+	 */
+	@Nullable
+	public Command<?> getCommand(@NonNull CommandInteractionPayload interaction) {
+		String discordName = interaction.getFullCommandName();
+		CommandRoute route = routes.byId().get(interaction.getCommandIdLong());
+		if (route != null) {
+			Command<?> single = route.single();
+			Command<?> command = single != null && single.getDiscordName().equals(discordName)
+				? single
+				: route.byName().get(discordName);
+			if (command != null)
+				return command;
+		}
+		Guild guild = interaction.getGuild();
+		return getCommand(discordName, guild == null ? GLOBAL : guild.getIdLong());
 	}
 
 	public void upsertCommands(JDA jda) {
-		if (initialUpsertDone) return;
-		initialUpsertDone = true;
+		LongObjectMap<Map<String, Command<?>>> snapshot;
+		synchronized (lock) {
+			if (initialUpsertDone) return;
+			initialUpsertDone = true;
+			snapshot = routes.scopes();
+		}
 		logger.info("Upserting commands");
-		for (Map.Entry<String, Map<String, Command<?>>> entry : commands.entrySet()) {
-			String guildId = entry.getKey();
-			Map<String, Command<?>> guildCommands = entry.getValue();
+		Map<Long, List<CommandData>> scopes = new LinkedHashMap<>();
+		snapshot.forEach((scope, scopeCommands) -> scopes.put(scope, commandData(scopeCommands)));
+		if (!library.isPrimary()) {
+			// global commands are pushed by the process running shard 0; only learn their IDs here
+			jda.retrieveCommands().queue(
+				created -> registerIds(GLOBAL, created),
+				error -> logger.warn("Failed to retrieve global commands", error)
+			);
+		}
+		synchronizer.sync(jda, scopes, this::registerIds, library.isPrimary());
+	}
 
-			CommandListUpdateAction updater;
-			if (guildId == null) {
-				updater = jda.updateCommands();
-			} else {
-				Guild guild = jda.getGuildById(guildId);
-				if (guild == null)
+	/**
+	 * Collects the data of the root commands to push for a scope.
+	 *
+	 * @param scopeCommands the registered commands of the scope
+	 * @return root command data
+	 */
+	private static @NonNull List<CommandData> commandData(@NonNull Map<String, Command<?>> scopeCommands) {
+		List<CommandData> scopeData = new ArrayList<>();
+		Set<String> rootSlashCommands = new HashSet<>();
+
+		for (Command<?> command : scopeCommands.values()) {
+			CommandData commandData;
+			if (command instanceof SlashCommand slashCommand) {
+				commandData = slashCommand.getBranch().root();
+				if (rootSlashCommands.contains(commandData.getName()))
 					continue;
-				updater = guild.updateCommands();
+				rootSlashCommands.add(commandData.getName());
+			} else {
+				commandData = command.getCommandData();
 			}
 
-			Set<String> rootSlashCommands = new HashSet<>();
-
-			for (Command<?> command : guildCommands.values()) {
-				CommandData commandData;
-				if (command instanceof SlashCommand slashCommand) {
-					commandData = slashCommand.getBranch().root();
-					if (rootSlashCommands.contains(commandData.getName()))
-						continue;
-					rootSlashCommands.add(commandData.getName());
-				} else {
-					commandData = command.getCommandData();
-				}
-
-				if (commandData == null)
-					continue; // i don't think this should happen but just in case
-				logger.debug("Upserting command {} to guild {}", commandData.getName(), guildId);
-				//noinspection ResultOfMethodCallIgnored
-				updater.addCommands(commandData);
+			if (commandData == null)
+				continue; // i don't think this should happen but just in case
+			scopeData.add(commandData);
+		}
+		return scopeData;
+	}
+
+	/**
+	 * Registers a command.
+	 * Commands registered after the initial upsert are pushed to Discord along with any other
+	 * commands registered to the same scope within the configured debounce.
+	 *
+	 * @param command the command to register
+	 * @return a future that completes once the command has been pushed to Discord,
+	 * or immediately if the initial upsert has not yet happened
+	 */
+	public @NonNull CompletableFuture<Void> registerCommand(@NonNull Command<?> command) {
+		return registerCommands(List.of(command));
+	}
+
+	/**
+	 * Registers a batch of commands, publishing them to the routing table in a single update.
+	 *
+	 * @param commands the commands to register
+	 * @return a future that completes once every scope of the commands has been pushed to Discord,
+	 * or immediately if the initial upsert has not yet happened
+	 */
+	public @NonNull CompletableFuture<Void> registerCommands(@NonNull Collection<? extends Command<?>> commands) {
+		if (commands.isEmpty())
+			return CompletableFuture.completedFuture(null);
+		List<CompletableFuture<Void>> flushes = new ArrayList<>();
+		synchronized (lock) {
+			Routes routes = this.routes;
+			Map<Long, Map<String, Command<?>>> scopeUpdates = new HashMap<>();
+			for (Command<?> command : commands) {
+				long scope = scope(command.getGuildId());
+				scopeUpdates.computeIfAbsent(scope, $ -> {
+					Map<String, Command<?>> existing = routes.scopes().get(scope);
+					return existing == null ? new HashMap<>() : new HashMap<>(existing);
+				}).put(command.getDiscordName(), command);
+			}
+			Map<Long, Map<String, Command<?>>> frozen = new HashMap<>(scopeUpdates.size());
+			scopeUpdates.forEach((scope, scopeCommands) -> frozen.put(scope, Map.copyOf(scopeCommands)));
+			LongObjectMap<Map<String, Command<?>>> scopes = routes.scopes().withAll(frozen);
+
+			// refresh the routes of any already upserted roots that gained commands
+			Map<Long, CommandRoute> routeUpdates = new HashMap<>();
+			for (Command<?> command : commands) {
+				long scope = scope(command.getGuildId());
+				String root = rootName(command);
+				Long id = commandIds.get(new RootKey(scope, root));
+				if (id != null)
+					routeUpdates.put(id, route(scopes, scope, root));
 			}
+			this.routes = new Routes(scopes, routes.byId().withAll(routeUpdates));
 
-			updater.queue();
+			if (initialUpsertDone) {
+				for (long scope : scopeUpdates.keySet())
+					flushes.add(scheduleFlush(scope));
+			}
 		}
+		return CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new));
 	}
 
-	public void registerCommand(@NonNull Command<?> command) {
-		String guildId = command.getGuildId();
-		commands.computeIfAbsent(guildId, $ -> new HashMap<>()).put(command.getDiscordName(), command);
-		if (!initialUpsertDone)
-			return;
+	/**
+	 * Schedules a scope to be pushed once no further commands have been registered to it for the debounce duration.
+	 * Must be called while holding the lock.
+	 *
+	 * @param scope the scope to push
+	 * @return a future that completes once the scope has been pushed
+	 */
+	private @NonNull CompletableFuture<Void> scheduleFlush(long scope) {
+		long now = System.nanoTime();
+		PendingFlush pending = pendingFlushes.get(scope);
+		if (pending == null) {
+			pending = new PendingFlush(now);
+			pendingFlushes.put(scope, pending);
+			CompletableFuture.delayedExecutor(debounce.toNanos(), TimeUnit.NANOSECONDS).execute(() -> flush(scope));
+		}
+		pending.lastRegistration = now;
+		return pending.future;
+	}
+
+	private void flush(long scope) {
+		PendingFlush pending;
+		List<CommandData> commandData;
+		synchronized (lock) {
+			pending = pendingFlushes.get(scope);
+			if (pending == null)
+				return;
+			long now = System.nanoTime();
+			long quietFor = now - pending.lastRegistration;
+			// keep waiting while registrations keep arriving, but never for more than a few debounces
+			if (quietFor < debounce.toNanos() && now - pending.firstRegistration < debounce.toNanos() * MAX_DEBOUNCES) {
+				CompletableFuture.delayedExecutor(debounce.toNanos() - quietFor, TimeUnit.NANOSECONDS).execute(() -> flush(scope));
+				return;
+			}
+			pendingFlushes.remove(scope);
+			Map<String, Command<?>> scopeCommands = routes.scopes().get(scope);
+			commandData = scopeCommands == null ? List.of() : commandData(scopeCommands);
+		}
 
-		CommandData cmd = command.getCommandData();
-		if (cmd == null)
+		if (scope == GLOBAL && !library.isPrimary()) {
+			logger.debug("Not pushing global commands as shard 0 is run by another process");
+			pending.future.complete(null);
 			return;
+		}
+		if (scope != GLOBAL && library.getGuildById(scope) == null) {
+			// the guild belongs to a shard run by another process, which pushes its commands
+			logger.debug("Skipping commands of unknown guild {}", scope);
+			pending.future.complete(null);
+			return;
+		}
 
-		JDA jda = library.getJDA();
-		RestAction<net.dv8tion.jda.api.interactions.commands.Command> upsert;
+		logger.info("Pushing {} commands to {}", commandData.size(), scope == GLOBAL ? "global scope" : "guild " + scope);
+		synchronizer.push(library.getJDA(), scope, commandData).whenComplete((created, error) -> {
+			if (error != null) {
+				logger.error("Failed to push commands to {}", scope == GLOBAL ? "global scope" : "guild " + scope, error);
+				pending.future.completeExceptionally(error);
+			} else {
+				registerIds(scope, created);
+				pending.future.complete(null);
+			}
+		});
+	}
 
-		if (guildId == null) {
-			upsert = jda.upsertCommand(cmd);
-		} else {
-			Guild guild = jda.getGuildById(guildId);
-			if (guild == null)
-				return;
-			upsert = guild.upsertCommand(cmd);
+	/**
+	 * Records the Discord IDs of upserted commands so that their interactions can be routed by ID.
+	 *
+	 * @param scope   the guild the commands were upserted to, or {@link #GLOBAL}
+	 * @param created the commands returned by Discord
+	 */
+	private void registerIds(long scope, @NonNull Collection<net.dv8tion.jda.api.interactions.commands.Command> created) {
+		synchronized (lock) {
+			Routes routes = this.routes;
+			Map<Long, CommandRoute> routeUpdates = new HashMap<>(created.size());
+			for (net.dv8tion.jda.api.interactions.commands.Command command : created) {
+				commandIds.put(new RootKey(scope, command.getName()), command.getIdLong());
+				routeUpdates.put(command.getIdLong(), route(routes.scopes(), scope, command.getName()));
+			}
+			this.routes = new Routes(routes.scopes(), routes.byId().withAll(routeUpdates));
 		}
+	}
+
+	private static @NonNull CommandRoute route(@NonNull LongObjectMap<Map<String, Command<?>>> scopes, long scope, @NonNull String root) {
+		Map<String, Command<?>> scopeCommands = scopes.get(scope);
+		Map<String, Command<?>> byName = new HashMap<>();
+		if (scopeCommands != null) {
+			for (Command<?> command : scopeCommands.values()) {
+				if (rootName(command).equals(root))
+					byName.put(command.getDiscordName(), command);
+			}
+		}
+		Command<?> single = byName.size() == 1 ? byName.values().iterator().next() : null;
+		return new CommandRoute(single, Map.copyOf(byName));
+	}
 
-		upsert.queue();
+	/**
+	 * Re-applies reloaded Discord translations to the commands which use them.
+	 * Scopes containing updated commands are pushed to Discord along with any other
+	 * changes to the same scope within the configured debounce.
+	 * <p>
+	 * Only localizations are updated; the names and descriptions of commands in the default locale
+	 * are fixed when they are registered.
+	 *
+	 * @param i18n the reloaded translation provider
+	 * @param keys the keys whose Discord translations changed
+	 * @return a future that completes once every affected scope has been pushed to Discord,
+	 * or immediately if the initial upsert has not yet happened
+	 * @see TranslationProvider#addReloadListener(java.util.function.Consumer)
+	 */
+	public @NonNull CompletableFuture<Void> refreshLocalizations(@NonNull TranslationProvider i18n, @NonNull Set<String> keys) {
+		if (keys.isEmpty())
+			return CompletableFuture.completedFuture(null);
+		List<CompletableFuture<Void>> flushes = new ArrayList<>();
+		synchronized (lock) {
+			Set<CommandData> roots = parser.relocalize(i18n, keys);
+			if (!roots.isEmpty() && initialUpsertDone) {
+				routes.scopes().forEach((scope, scopeCommands) -> {
+					for (CommandData commandData : commandData(scopeCommands)) {
+						if (roots.contains(commandData)) {
+							flushes.add(scheduleFlush(scope));
+							break;
+						}
+					}
+				});
+			}
+			logger.info("Refreshed localizations of {} commands", roots.size());
+		}
+		return CompletableFuture.allOf(flushes.toArray(CompletableFuture[]::new));
 	}
 
-	public void discoverCommands(@NonNull Object object) {
-		parser.parse(object).forEach(this::registerCommand);
+	public @NonNull CompletableFuture<Void> discoverCommands(@NonNull Object object) {
+		return registerCommands(parser.parse(object));
 	}
 
 	@SuppressWarnings({"unchecked", "rawtypes"})
 	@SubscribeEvent
 	public void onCommandInteraction(@NonNull GenericCommandInteractionEvent event) {
-		String guildId = event.getGuild() == null ? event.getGuild().getId() : null;
-		Command command = getCommand(event.getFullCommandName(), guildId);
+		Command command = getCommand(event);
 		if (command == null) {
 			library.getLogger().error("Could not find an executor for command " + event.getFullCommandName());
 			sendEphemeral(event, single(library("exception.command_error")));
 			return;
 		}
+		library.getMemberCache().recordCommandUser(event.getUser());
+		long orderingKey = event.getGuild() != null ? event.getGuild().getIdLong() : event.getUser().getIdLong();
+		if (!executor.execute(orderingKey, () -> execute(command, event)))
+			sendEphemeral(event, single(library("exception.command_busy")));
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private @NonNull CompletableFuture<?> execute(@NonNull Command command, @NonNull GenericCommandInteractionEvent event) {
 		try {
-			command.accept(event);
-		} catch (UserError e) {
-			sendEphemeral(event, e);
+			return command.acceptAsync(event).exceptionally(error -> {
+				handleException(event, error instanceof CompletionException ? error.getCause() : error);
+				return null;
+			});
 		} catch (Exception e) {
-			library.getLogger().error("Failed to execute command " + event.getFullCommandName(), e);
-			sendEphemeral(event, single(library("exception.command_error")));
+			handleException(event, e);
+			return CompletableFuture.completedFuture(null);
+		}
+	}
+
+	/**
+	 * Reports an exception thrown while executing a command to the user who invoked it.
+	 * This is called for exceptions thrown by {@link Command#accept(Object)} as well as
+	 * for errors emitted by commands which complete asynchronously.
+	 *
+	 * @param interaction the command interaction
+	 * @param error       the exception
+	 */
+	public void handleException(@NonNull CommandInteraction interaction, @NonNull Throwable error) {
+		if (error instanceof UserError e) {
+			sendEphemeral(interaction, e);
+		} else {
+			library.getLogger().error("Failed to execute command " + interaction.getFullCommandName(), error);
+			sendEphemeral(interaction, single(library("exception.command_error")));
+		}
+	}
+
+	/**
+	 * An immutable snapshot of the routing table.
+	 *
+	 * @param scopes commands by guild ID (or {@link #GLOBAL}) and then by full Discord name
+	 * @param byId   commands by the Discord ID of their root command
+	 */
+	private record Routes(
+		@NonNull LongObjectMap<Map<String, Command<?>>> scopes,
+		@NonNull LongObjectMap<CommandRoute> byId
+	) {
+	}
+
+	/**
+	 * The commands sharing a root command.
+	 *
+	 * @param single the command if the root has only one, else {@code null}
+	 * @param byName the commands by full Discord name
+	 */
+	private record CommandRoute(@Nullable Command<?> single, @NonNull Map<String, Command<?>> byName) {
+	}
+
+	private record RootKey(long scope, @NonNull String root) {
+	}
+
+	/**
+	 * Registrations to a scope which are waiting to be pushed.
+	 */
+	private static final class PendingFlush {
+		private final @NonNull CompletableFuture<Void> future = new CompletableFuture<>();
+		private final long firstRegistration;
+		private long lastRegistration; // guarded by lock
+
+		private PendingFlush(long firstRegistration) {
+			this.firstRegistration = firstRegistration;
+			this.lastRegistration = firstRegistration;
 		}
 	}
 }
@@ -0,0 +1,27 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+/**
+ * Determines how commands are synchronized with Discord at startup.
+ */
+public enum CommandSyncMode {
+	/**
+	 * Every command scope is overwritten on every startup.
+	 */
+	ALWAYS,
+	/**
+	 * Command scopes are only overwritten if they differ from the fingerprints
+	 * recorded in a local manifest by the last successful synchronization.
+	 */
+	MANIFEST,
+	/**
+	 * Command scopes are only overwritten if they differ from the commands
+	 * retrieved from Discord.
+	 */
+	REMOTE,
+}
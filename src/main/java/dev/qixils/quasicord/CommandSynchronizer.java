@@ -0,0 +1,304 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes command scopes (the global commands and each guild's commands) to Discord according to a
+ * {@link CommandSyncMode}, skipping scopes whose commands are unchanged.
+ * <p>
+ * Commands are compared by the SHA-256 fingerprint of their serialized {@link CommandData}.
+ * In {@link CommandSyncMode#MANIFEST MANIFEST} mode, the fingerprints of the last successful push are
+ * persisted to {@value #MANIFEST_FILE} in the configuration directory.
+ */
+final class CommandSynchronizer {
+	static final @NonNull String MANIFEST_FILE = "command-manifest.yml";
+	private static final @NonNull String GLOBAL_SCOPE = "global";
+	private static final @NonNull Logger logger = LoggerFactory.getLogger(CommandSynchronizer.class);
+	private final @NonNull CommandSyncMode mode;
+	private final @NonNull Path manifestPath;
+	private final @NonNull LongFunction<@Nullable Guild> guilds;
+	private final @NonNull Object manifestLock = new Object();
+	private @Nullable Map<String, Map<String, String>> manifest; // guarded by manifestLock
+	private @Nullable String application; // guarded by manifestLock
+
+	CommandSynchronizer(@NonNull CommandSyncMode mode, @NonNull Path configRoot, @NonNull LongFunction<@Nullable Guild> guilds) {
+		this.mode = mode;
+		this.manifestPath = configRoot.resolve(MANIFEST_FILE);
+		this.guilds = guilds;
+	}
+
+	/**
+	 * Synchronizes command scopes with Discord.
+	 *
+	 * @param jda      the JDA instance to push global commands with
+	 * @param scopes   the commands of each scope, keyed by guild ID or {@code 0} for global commands
+	 * @param onSynced called with the commands Discord holds for a scope once they are known
+	 * @param global   whether to synchronize the global scope, which should only be done by one process
+	 */
+	void sync(@NonNull JDA jda, @NonNull Map<Long, List<CommandData>> scopes, @NonNull BiConsumer<Long, List<Command>> onSynced, boolean global) {
+		if (!global) {
+			scopes = new LinkedHashMap<>(scopes);
+			scopes.remove(0L);
+		}
+		if (mode == CommandSyncMode.ALWAYS) {
+			scopes.forEach((scope, commands) -> {
+				logger.info("Overwriting {} commands in {}", commands.size(), scopeName(scope));
+				push(jda, scope, commands, onSynced);
+			});
+			return;
+		}
+
+		String application = Long.toUnsignedString(jda.getSelfUser().getApplicationIdLong());
+		Map<Long, List<CommandData>> allScopes = new LinkedHashMap<>(scopes);
+		if (mode == CommandSyncMode.MANIFEST) {
+			// scopes which were pushed before but no longer have any commands must be cleared
+			for (String scope : loadManifest(application).keySet()) {
+				if (global || !scope.equals(GLOBAL_SCOPE))
+					allScopes.putIfAbsent(parseScope(scope), List.of());
+			}
+		}
+
+		allScopes.forEach((scope, commands) -> {
+			Map<String, String> local = fingerprints(commands);
+			if (mode == CommandSyncMode.MANIFEST) {
+				Map<String, String> previous;
+				synchronized (manifestLock) {
+					previous = Objects.requireNonNull(manifest).getOrDefault(scopeKey(scope), Map.of());
+				}
+				if (diff(scope, previous, local))
+					push(jda, scope, commands, onSynced);
+				return;
+			}
+
+			// REMOTE
+			var retrieve = scope == 0 ? jda.retrieveCommands(true) : Optional.ofNullable(guilds.apply(scope)).map(guild -> guild.retrieveCommands(true)).orElse(null);
+			if (retrieve == null) {
+				logger.debug("Skipping commands of unknown guild {}", scope);
+				return;
+			}
+			retrieve.queue(remote -> {
+				Map<String, String> remoteFingerprints = fingerprints(remote.stream().map(CommandData::fromCommand).toList());
+				if (diff(scope, remoteFingerprints, local))
+					push(jda, scope, commands, onSynced);
+				else
+					onSynced.accept(scope, remote);
+			}, error -> {
+				logger.warn("Failed to retrieve commands in {}; overwriting them", scopeName(scope), error);
+				push(jda, scope, commands, onSynced);
+			});
+		});
+	}
+
+	/**
+	 * Overwrites the commands of a scope.
+	 *
+	 * @param jda      the JDA instance to push global commands with
+	 * @param scope    the guild ID, or {@code 0} for global commands
+	 * @param commands the commands of the scope
+	 * @return a future that completes with the commands Discord holds for the scope
+	 */
+	@NonNull CompletableFuture<List<Command>> push(@NonNull JDA jda, long scope, @NonNull List<CommandData> commands) {
+		CommandListUpdateAction updater;
+		if (scope == 0) {
+			updater = jda.updateCommands();
+		} else {
+			Guild guild = guilds.apply(scope);
+			if (guild == null)
+				return CompletableFuture.failedFuture(new IllegalStateException("Unknown guild " + Long.toUnsignedString(scope)));
+			updater = guild.updateCommands();
+		}
+
+		for (CommandData command : commands)
+			logger.debug("Upserting command {} to {}", command.getName(), scopeName(scope));
+		return updater.addCommands(commands).submit().thenApply(created -> {
+			if (mode == CommandSyncMode.MANIFEST)
+				updateManifest(scope, fingerprints(commands));
+			return created;
+		});
+	}
+
+	private void push(@NonNull JDA jda, long scope, @NonNull List<CommandData> commands, @NonNull BiConsumer<Long, List<Command>> onSynced) {
+		if (scope != 0 && guilds.apply(scope) == null) {
+			logger.debug("Skipping commands of unknown guild {}", scope);
+			return;
+		}
+		push(jda, scope, commands).whenComplete((created, error) -> {
+			if (error != null)
+				logger.error("Failed to update commands in {}", scopeName(scope), error);
+			else
+				onSynced.accept(scope, created);
+		});
+	}
+
+	/**
+	 * Logs the differences between the previous and current commands of a scope.
+	 *
+	 * @param scope    the scope being compared
+	 * @param previous the previous fingerprints by command name
+	 * @param current  the current fingerprints by command name
+	 * @return {@code true} if the scope has changed
+	 */
+	private static boolean diff(long scope, @NonNull Map<String, String> previous, @NonNull Map<String, String> current) {
+		List<String> added = new ArrayList<>();
+		List<String> updated = new ArrayList<>();
+		List<String> deleted = new ArrayList<>();
+		int unchanged = 0;
+		for (var entry : current.entrySet()) {
+			String old = previous.get(entry.getKey());
+			if (old == null)
+				added.add(entry.getKey());
+			else if (!old.equals(entry.getValue()))
+				updated.add(entry.getKey());
+			else
+				unchanged++;
+		}
+		for (String name : previous.keySet()) {
+			if (!current.containsKey(name))
+				deleted.add(name);
+		}
+
+		boolean changed = !added.isEmpty() || !updated.isEmpty() || !deleted.isEmpty();
+		logger.info("Commands in {}: {} added {}, {} updated {}, {} deleted {}, {} unchanged{}",
+			scopeName(scope), added.size(), added, updated.size(), updated, deleted.size(), deleted, unchanged,
+			changed ? "" : "; skipping update");
+		return changed;
+	}
+
+	private static @NonNull Map<String, String> fingerprints(@NonNull Collection<? extends CommandData> commands) {
+		Map<String, String> fingerprints = new TreeMap<>();
+		for (CommandData command : commands)
+			fingerprints.put(command.getType() + ":" + command.getName(), fingerprint(command));
+		return fingerprints;
+	}
+
+	private static @NonNull String fingerprint(@NonNull CommandData command) {
+		// serialized keys are unordered, so sort them before hashing
+		String canonical = String.valueOf(canonicalize(command.toData()));
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported", e);
+		}
+	}
+
+	private static @Nullable Object canonicalize(@Nullable Object value) {
+		return switch (value) {
+			case DataObject object -> canonicalize(object.toMap());
+			case DataArray array -> canonicalize(array.toList());
+			case Map<?, ?> map -> {
+				Map<String, Object> sorted = new TreeMap<>();
+				map.forEach((key, child) -> sorted.put(String.valueOf(key), canonicalize(child)));
+				yield sorted;
+			}
+			case List<?> list -> {
+				List<Object> canonical = new ArrayList<>(list.size());
+				for (Object child : list)
+					canonical.add(canonicalize(child));
+				yield canonical;
+			}
+			case null, default -> value;
+		};
+	}
+
+	// manifest
+
+	@SuppressWarnings("unchecked")
+	private @NonNull Map<String, Map<String, String>> loadManifest(@NonNull String application) {
+		synchronized (manifestLock) {
+			this.application = application;
+			manifest = new TreeMap<>();
+			if (!Files.exists(manifestPath))
+				return manifest;
+			try (Reader reader = Files.newBufferedReader(manifestPath)) {
+				Map<String, Object> data = new Yaml().load(reader);
+				if (data == null || !application.equals(String.valueOf(data.get("application")))) {
+					logger.info("Command manifest belongs to a different application; ignoring it");
+					return manifest;
+				}
+				if (data.get("scopes") instanceof Map<?, ?> scopes) {
+					scopes.forEach((scope, commands) -> {
+						String key = String.valueOf(scope);
+						if (commands instanceof Map<?, ?> map && (key.equals(GLOBAL_SCOPE) || key.matches("\\d+")))
+							manifest.put(key, new TreeMap<>((Map<String, String>) map));
+					});
+				}
+			} catch (IOException | RuntimeException e) {
+				logger.warn("Failed to read command manifest; all commands will be updated", e);
+				manifest.clear();
+			}
+			return manifest;
+		}
+	}
+
+	private void updateManifest(long scope, @NonNull Map<String, String> fingerprints) {
+		synchronized (manifestLock) {
+			Map<String, Map<String, String>> manifest = this.manifest;
+			if (manifest == null)
+				return;
+			if (fingerprints.isEmpty())
+				manifest.remove(scopeKey(scope));
+			else
+				manifest.put(scopeKey(scope), fingerprints);
+
+			Map<String, Object> data = new LinkedHashMap<>();
+			data.put("application", application);
+			data.put("scopes", manifest);
+			DumperOptions options = new DumperOptions();
+			options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+			try {
+				Path temp = manifestPath.resolveSibling(MANIFEST_FILE + ".tmp");
+				try (Writer writer = Files.newBufferedWriter(temp)) {
+					new Yaml(options).dump(data, writer);
+				}
+				Files.move(temp, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				logger.warn("Failed to write command manifest", e);
+			}
+		}
+	}
+
+	private static @NonNull String scopeKey(long scope) {
+		return scope == 0 ? GLOBAL_SCOPE : Long.toUnsignedString(scope);
+	}
+
+	private static long parseScope(@NonNull String key) {
+		return key.equals(GLOBAL_SCOPE) ? 0 : Long.parseUnsignedLong(key);
+	}
+
+	private static @NonNull String scopeName(long scope) {
+		return scope == 0 ? "global scope" : "guild " + Long.toUnsignedString(scope);
+	}
+}
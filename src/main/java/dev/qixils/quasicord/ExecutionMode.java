@@ -0,0 +1,21 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+/**
+ * Determines which thread commands are executed on.
+ */
+public enum ExecutionMode {
+	/**
+	 * Commands are executed on the JDA event thread which received them.
+	 */
+	EVENT_THREAD,
+	/**
+	 * Commands are executed on virtual threads, so blocking calls do not stall event processing.
+	 */
+	VIRTUAL,
+}
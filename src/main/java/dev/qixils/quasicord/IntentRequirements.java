@@ -0,0 +1,147 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import dev.qixils.quasicord.decorators.RequiresIntents;
+import dev.qixils.quasicord.events.EventListener;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.jetbrains.annotations.Contract;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the gateway intents required by a bot along with the reasons they are required,
+ * from which the minimal intents and cache flags to start JDA with are computed.
+ */
+public final class IntentRequirements {
+	private final @NonNull Map<GatewayIntent, Set<String>> reasons = new EnumMap<>(GatewayIntent.class);
+
+	/**
+	 * Requires an intent.
+	 *
+	 * @param intent the required intent
+	 * @param reason why the intent is required
+	 * @return this object
+	 */
+	@Contract("_, _ -> this")
+	public @NonNull IntentRequirements require(@NonNull GatewayIntent intent, @NonNull String reason) {
+		reasons.computeIfAbsent(intent, $ -> new LinkedHashSet<>()).add(reason);
+		return this;
+	}
+
+	/**
+	 * Requires several intents.
+	 *
+	 * @param intents the required intents
+	 * @param reason  why the intents are required
+	 * @return this object
+	 */
+	@Contract("_, _ -> this")
+	public @NonNull IntentRequirements require(@NonNull Collection<GatewayIntent> intents, @NonNull String reason) {
+		for (GatewayIntent intent : intents)
+			require(intent, reason);
+		return this;
+	}
+
+	/**
+	 * Requires the intents needed to receive the provided events.
+	 * Classes which are not JDA events are ignored.
+	 *
+	 * @param eventClasses the events being listened to
+	 * @param source       the name of the listener
+	 * @return this object
+	 */
+	@SuppressWarnings("unchecked")
+	@Contract("_, _ -> this")
+	public @NonNull IntentRequirements requireEvents(@NonNull Collection<? extends Class<?>> eventClasses, @NonNull String source) {
+		for (Class<?> eventClass : eventClasses) {
+			if (!GenericEvent.class.isAssignableFrom(eventClass))
+				continue;
+			require(GatewayIntent.fromEvents((Class<? extends GenericEvent>) eventClass), source + " listens to " + eventClass.getSimpleName());
+		}
+		return this;
+	}
+
+	/**
+	 * Requires the intents declared by an object through {@link RequiresIntents} and needed by the events that its
+	 * {@link EventListener} and {@link SubscribeEvent} methods listen to.
+	 *
+	 * @param listener the command, cog or event handler
+	 * @return this object
+	 */
+	@Contract("_ -> this")
+	public @NonNull IntentRequirements requireListener(@NonNull Object listener) {
+		Class<?> clazz = listener.getClass();
+		String source = clazz.getName();
+		RequiresIntents declared = clazz.getAnnotation(RequiresIntents.class);
+		if (declared != null)
+			require(Arrays.asList(declared.value()), source + " declares it");
+
+		List<Class<?>> events = new ArrayList<>();
+		for (Method method : clazz.getMethods()) {
+			declared = method.getAnnotation(RequiresIntents.class);
+			if (declared != null)
+				require(Arrays.asList(declared.value()), source + "#" + method.getName() + " declares it");
+			if (method.getParameterCount() == 1 && (method.isAnnotationPresent(EventListener.class) || method.isAnnotationPresent(SubscribeEvent.class)))
+				events.add(method.getParameterTypes()[0]);
+		}
+		return requireEvents(events, source);
+	}
+
+	/**
+	 * Gets the required intents.
+	 *
+	 * @return required intents
+	 */
+	public @NonNull EnumSet<GatewayIntent> getIntents() {
+		return reasons.isEmpty() ? EnumSet.noneOf(GatewayIntent.class) : EnumSet.copyOf(reasons.keySet());
+	}
+
+	/**
+	 * Gets the required intents which are absent from a set of enabled intents.
+	 *
+	 * @param enabled the enabled intents
+	 * @return missing intents
+	 */
+	public @NonNull EnumSet<GatewayIntent> getMissing(@NonNull Collection<GatewayIntent> enabled) {
+		EnumSet<GatewayIntent> missing = getIntents();
+		missing.removeAll(enabled);
+		return missing;
+	}
+
+	/**
+	 * Gets the cache flags which can be populated with the required intents.
+	 *
+	 * @return supported cache flags
+	 */
+	public @NonNull EnumSet<CacheFlag> getCacheFlags() {
+		EnumSet<CacheFlag> flags = EnumSet.noneOf(CacheFlag.class);
+		for (CacheFlag flag : CacheFlag.values()) {
+			if (flag.getRequiredIntent() == null || reasons.containsKey(flag.getRequiredIntent()))
+				flags.add(flag);
+		}
+		return flags;
+	}
+
+	/**
+	 * Describes why each of the provided intents is required.
+	 *
+	 * @param intents the intents to describe
+	 * @return human-readable description
+	 */
+	public @NonNull String describe(@NonNull Collection<GatewayIntent> intents) {
+		return intents.stream()
+			.map(intent -> intent + " (" + String.join("; ", reasons.getOrDefault(intent, Set.of())) + ")")
+			.collect(Collectors.joining(", "));
+	}
+}
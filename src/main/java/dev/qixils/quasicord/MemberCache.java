@@ -0,0 +1,275 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.interactions.Interaction;
+import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the guild members held in memory according to a {@link MemberCacheMode}
+ * and lazily loads members which are not cached.
+ * <p>
+ * Lookups are served from, in order, the JDA member cache, the members resolved by the interaction,
+ * and finally a {@link Guild#retrieveMemberById(long) retrieval} from Discord.
+ * Concurrent retrievals of the same member are coalesced into a single request.
+ */
+public final class MemberCache {
+	private final @NonNull MemberCacheMode mode;
+	private final int maxSize;
+	private final @NonNull Supplier<? extends Iterable<Guild>> guilds;
+	private final @NonNull Map<MemberKey, CompletableFuture<Member>> inFlight = new ConcurrentHashMap<>();
+	// guarded by itself
+	private final @NonNull Set<Long> commandUsers;
+
+	private final @NonNull LongAdder cacheHits = new LongAdder();
+	private final @NonNull LongAdder resolvedHits = new LongAdder();
+	private final @NonNull LongAdder retrievals = new LongAdder();
+	private final @NonNull LongAdder coalesced = new LongAdder();
+	private final @NonNull LongAdder failures = new LongAdder();
+
+	/**
+	 * Creates a new member cache.
+	 *
+	 * @param mode    which members to cache
+	 * @param maxSize the maximum number of members to cache in the
+	 *                {@link MemberCacheMode#RECENT RECENT} and {@link MemberCacheMode#COMMAND_USERS COMMAND_USERS} modes
+	 * @param guilds  the guilds to count cached members of
+	 * @throws IllegalArgumentException if {@code maxSize} is not positive
+	 */
+	MemberCache(@NonNull MemberCacheMode mode, int maxSize, @NonNull Supplier<? extends Iterable<Guild>> guilds) throws IllegalArgumentException {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize must be positive");
+		this.mode = mode;
+		this.maxSize = maxSize;
+		this.guilds = guilds;
+		this.commandUsers = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/**
+	 * Gets the intents which this cache's mode depends on.
+	 * Modes which keep members cached need member update and removal events to not go stale,
+	 * and JDA refuses to cache every member without them.
+	 *
+	 * @return required intents
+	 */
+	@NonNull Set<GatewayIntent> getRequiredIntents() {
+		return switch (mode) {
+			case ALL, RECENT, COMMAND_USERS -> EnumSet.of(GatewayIntent.GUILD_MEMBERS);
+			case ONLINE -> EnumSet.of(GatewayIntent.GUILD_PRESENCES);
+			case DEFAULT, NONE -> EnumSet.noneOf(GatewayIntent.class);
+		};
+	}
+
+	/**
+	 * Creates the JDA member cache policy for this cache's mode.
+	 *
+	 * @param intents the enabled intents
+	 * @return member cache policy
+	 */
+	@NonNull MemberCachePolicy createPolicy(@NonNull Set<GatewayIntent> intents) {
+		MemberCachePolicy policy = switch (mode) {
+			case DEFAULT -> intents.contains(GatewayIntent.GUILD_MEMBERS) ? MemberCachePolicy.ALL : MemberCachePolicy.DEFAULT;
+			case ALL -> MemberCachePolicy.ALL;
+			case ONLINE -> MemberCachePolicy.ONLINE;
+			case RECENT -> MemberCachePolicy.lru(maxSize);
+			case COMMAND_USERS -> ((MemberCachePolicy) this::isCommandUser).and(MemberCachePolicy.lru(maxSize));
+			case NONE -> MemberCachePolicy.NONE;
+		};
+		// voice states are tracked through their members
+		if (mode != MemberCacheMode.NONE && intents.contains(GatewayIntent.GUILD_VOICE_STATES))
+			policy = policy.or(MemberCachePolicy.VOICE);
+		return policy;
+	}
+
+	private boolean isCommandUser(@NonNull Member member) {
+		synchronized (commandUsers) {
+			return commandUsers.contains(member.getIdLong());
+		}
+	}
+
+	/**
+	 * Records that a user has invoked a command, making them eligible for caching
+	 * in the {@link MemberCacheMode#COMMAND_USERS COMMAND_USERS} mode.
+	 *
+	 * @param user the user who invoked a command
+	 */
+	void recordCommandUser(@NonNull User user) {
+		if (mode != MemberCacheMode.COMMAND_USERS)
+			return;
+		synchronized (commandUsers) {
+			commandUsers.add(user.getIdLong());
+		}
+	}
+
+	/**
+	 * Gets the member of an interaction's guild corresponding to a user,
+	 * retrieving them from Discord if they are not cached.
+	 *
+	 * @param interaction the interaction
+	 * @param user        the user
+	 * @return the member, or an error if the interaction was not sent from a guild or the user is not a member of it
+	 */
+	public @NonNull Mono<Member> getMember(@NonNull Interaction interaction, @NonNull User user) {
+		Guild guild = interaction.getGuild();
+		if (guild == null)
+			return Mono.error(new IllegalStateException("Interaction was not sent from a guild"));
+
+		Member member = guild.getMember(user);
+		if (member == null)
+			member = getResolvedMember(interaction, user);
+		else
+			cacheHits.increment();
+		if (member != null)
+			return Mono.just(member);
+		return Mono.fromFuture(() -> retrieve(guild, user.getIdLong()));
+	}
+
+	private @Nullable Member getResolvedMember(@NonNull Interaction interaction, @NonNull User user) {
+		Member member = null;
+		if (interaction.getUser().getIdLong() == user.getIdLong()) {
+			member = interaction.getMember();
+		} else if (interaction instanceof CommandInteractionPayload payload) {
+			for (OptionMapping option : payload.getOptions()) {
+				if (option.getType() == OptionType.USER && option.getAsUser().getIdLong() == user.getIdLong()) {
+					member = option.getAsMember();
+					break;
+				}
+			}
+		}
+		if (member != null)
+			resolvedHits.increment();
+		return member;
+	}
+
+	private @NonNull CompletableFuture<Member> retrieve(@NonNull Guild guild, long userId) {
+		MemberKey key = new MemberKey(guild.getIdLong(), userId);
+		boolean[] started = {false};
+		CompletableFuture<Member> future = inFlight.computeIfAbsent(key, $ -> {
+			started[0] = true;
+			return new CompletableFuture<>();
+		});
+		if (!started[0]) {
+			coalesced.increment();
+			return future;
+		}
+
+		retrievals.increment();
+		guild.retrieveMemberById(userId).submit().whenComplete((member, error) -> {
+			inFlight.remove(key);
+			if (error != null) {
+				failures.increment();
+				future.completeExceptionally(error);
+			} else {
+				future.complete(member);
+			}
+		});
+		return future;
+	}
+
+	private record MemberKey(long guildId, long userId) {
+	}
+
+	// metrics
+
+	/**
+	 * Returns the mode that determines which members are cached.
+	 *
+	 * @return member cache mode
+	 */
+	public @NonNull MemberCacheMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Returns the number of members currently cached across all guilds.
+	 *
+	 * @return cached member count
+	 */
+	public long getCachedMemberCount() {
+		long count = 0;
+		for (Guild guild : guilds.get())
+			count += guild.getMemberCache().size();
+		return count;
+	}
+
+	/**
+	 * Returns the number of lookups served by the member cache.
+	 *
+	 * @return cache hit count
+	 */
+	public long getCacheHitCount() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups served by the members resolved by an interaction.
+	 *
+	 * @return resolved hit count
+	 */
+	public long getResolvedHitCount() {
+		return resolvedHits.sum();
+	}
+
+	/**
+	 * Returns the number of members which were retrieved from Discord.
+	 *
+	 * @return retrieval count
+	 */
+	public long getRetrievalCount() {
+		return retrievals.sum();
+	}
+
+	/**
+	 * Returns the number of lookups which joined a retrieval that was already in progress.
+	 *
+	 * @return coalesced lookup count
+	 */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the number of retrievals which failed, such as because the user is not a member of the guild.
+	 *
+	 * @return failed retrieval count
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * Returns the fraction of lookups which did not require a request to Discord.
+	 *
+	 * @return hit rate between {@code 0} and {@code 1}, or {@code 1} if no lookups have been made
+	 */
+	public double getHitRate() {
+		long hits = cacheHits.sum() + resolvedHits.sum();
+		long total = hits + retrievals.sum() + coalesced.sum();
+		return total == 0 ? 1 : (double) hits / total;
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+/**
+ * Determines which guild members are held in memory.
+ * Members which are not cached are retrieved from Discord when needed by a {@link MemberCache}.
+ */
+public enum MemberCacheMode {
+	/**
+	 * Every member is cached if the {@code GUILD_MEMBERS} intent is enabled,
+	 * else only members in voice channels and guild owners are cached.
+	 */
+	DEFAULT,
+	/**
+	 * Every member is cached.
+	 * This uses memory proportional to the members of every guild
+	 * and enables the privileged {@code GUILD_MEMBERS} intent.
+	 */
+	ALL,
+	/**
+	 * Only online members are cached.
+	 * This enables the privileged {@code GUILD_PRESENCES} intent.
+	 */
+	ONLINE,
+	/**
+	 * The most recently active members are cached, up to the configured maximum size.
+	 * This enables the privileged {@code GUILD_MEMBERS} intent.
+	 */
+	RECENT,
+	/**
+	 * Only members who recently used a command are cached, up to the configured maximum size.
+	 * This enables the privileged {@code GUILD_MEMBERS} intent.
+	 */
+	COMMAND_USERS,
+	/**
+	 * No members are cached.
+	 */
+	NONE,
+}
@@ -16,10 +16,15 @@ import dev.qixils.quasicord.registry.core.RegistryRegistry;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.ApplicationInfo;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.hooks.AnnotatedEventManager;
 import net.dv8tion.jda.api.requests.GatewayIntent;
-import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.cache.SnowflakeCacheView;
 import net.dv8tion.jda.api.utils.messages.MessageRequest;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -34,7 +39,12 @@ import javax.security.auth.login.LoginException;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Managing class for a <a href="https://discord.com/">Discord</a> bot which utilizes a
@@ -44,7 +54,10 @@ import java.util.*;
  */
 public class Quasicord {
 	protected final @NonNull JDA jda;
+	protected final @Nullable ShardManager shardManager;
+	protected final @NonNull ShardMonitor shardMonitor = new ShardMonitor();
 	protected final @NotNull QuasicordConfig config;
+	protected final @NonNull Path configRoot;
 	protected final @NonNull Logger logger = LoggerFactory.getLogger(getClass());
 	protected final @NonNull DatabaseManager database;
 	protected final @NonNull RegistryRegistry rootRegistry;
@@ -56,6 +69,11 @@ public class Quasicord {
 	protected final @NonNull TranslationProvider translationProvider;
 	protected final @NonNull LocaleProvider localeProvider;
 	protected final @NonNull CommandManager commandManager;
+	protected final @NonNull IntentRequirements intents = new IntentRequirements();
+	protected final @NonNull MemberCache memberCache;
+	private final @NonNull Set<Class<?>> intentCheckedEvents = ConcurrentHashMap.newKeySet();
+	private final @NonNull BootstrapTimer timer = new BootstrapTimer();
+	private final @NonNull List<Object> cogs;
 
 	/**
 	 *
@@ -69,82 +87,265 @@ public class Quasicord {
 	 * @throws IOException
 	 */
 	public Quasicord(@NonNull String namespace, @NonNull Locale defaultLocale, @NonNull Path configRoot, @Nullable Activity activity, @Nullable Object eventHandler) throws LoginException, InterruptedException, IOException {
+		this(namespace, defaultLocale, configRoot, activity, eventHandler, Collections.emptySet());
+	}
+
+	/**
+	 *
+	 * @param namespace
+	 * @param defaultLocale   The default locale
+	 * @param configRoot
+	 * @param activity
+	 * @param eventHandler
+	 * @param requiredIntents Gateway intents to enable in addition to those required by the event handler
+	 * @throws LoginException
+	 * @throws InterruptedException
+	 * @throws IOException
+	 */
+	public Quasicord(@NonNull String namespace, @NonNull Locale defaultLocale, @NonNull Path configRoot, @Nullable Activity activity, @Nullable Object eventHandler, @NonNull Collection<GatewayIntent> requiredIntents) throws LoginException, InterruptedException, IOException {
+		this(namespace, defaultLocale, configRoot, activity, eventHandler, requiredIntents, Collections.emptyList(), false);
+	}
+
+	/**
+	 *
+	 * @param namespace
+	 * @param defaultLocale   The default locale
+	 * @param configRoot
+	 * @param activity
+	 * @param eventHandler
+	 * @param requiredIntents Gateway intents to enable in addition to those required by the event handler
+	 * @param cogs            Objects whose commands and listeners are registered at startup
+	 * @param minimizeIntents Whether to only enable the intents required by the event handler, cogs and builder
+	 *                        instead of the default intents
+	 * @throws LoginException
+	 * @throws InterruptedException
+	 * @throws IOException
+	 */
+	public Quasicord(@NonNull String namespace, @NonNull Locale defaultLocale, @NonNull Path configRoot, @Nullable Activity activity, @Nullable Object eventHandler, @NonNull Collection<GatewayIntent> requiredIntents, @NonNull Collection<?> cogs, boolean minimizeIntents) throws LoginException, InterruptedException, IOException {
 
 		// misc initialization
+		ExecutorService bootstrap = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("quasicord-bootstrap-", 0).factory());
 		this.namespace = namespace;
+		this.configRoot = configRoot;
+		this.cogs = List.copyOf(cogs);
+		intents.require(GatewayIntent.GUILDS, "required by Quasicord to resolve guilds");
+		if (!minimizeIntents)
+			intents.require(defaultIntents(), "enabled by default; see Quasicord.Builder#minimizeIntents");
+		intents.require(requiredIntents, "required by the builder");
 		// register default event handler
-		if (eventHandler != null)
+		if (eventHandler != null) {
 			eventDispatcher.registerListeners(eventHandler);
+			intents.requireListener(eventHandler);
+		}
+		// cogs are registered once commands can be parsed, but their intents must be known before logging in
+		for (Object cog : this.cogs)
+			intents.requireListener(cog);
+
+		try {
+			// register translation providers in the background; they are first needed when parsing commands
+			CompletableFuture<TranslationProvider> translations = timer.async("translations", bootstrap, () -> {
+				TranslationProvider provider = new TranslationProvider(namespace, defaultLocale);
+				TranslationProvider.registerInstance(provider);
+				TranslationProvider.registerInstance(new TranslationProvider(Key.LIBRARY_NAMESPACE, Locale.ENGLISH));
+				return provider;
+			});
+
+			// load configuration
+			try (var ignored = timer.stage("config")) {
+				YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
+						.path(configRoot.resolve("config.yml"))
+						// TODO: default config options
+						.build();
+				var rootConfigNode = loader.load();
+				config = Objects.requireNonNull(rootConfigNode.get(QuasicordConfig.class), "config.yml is missing or invalid");
+			}
+
+			memberCache = new MemberCache(config.members().cache(), config.members().maxSize(), this::getGuildCache);
+			intents.require(memberCache.getRequiredIntents(), "required by the " + memberCache.getMode() + " member cache");
+
+			// load database and locale provider, connecting to the database in the background
+			try (var ignored = timer.stage("database")) {
+				database = new DatabaseManager(namespace, config.environment());
+				localeProvider = new LocaleProvider(
+					defaultLocale,
+					database,
+					config.locale().cacheSize(),
+					Duration.ofMillis(config.locale().batchWindow()),
+					config.locale().batchSize()
+				);
+				localeProvider.watchChanges();
+				LocaleProvider.setInstance(localeProvider);
+			}
+			// the connection is established in the background and logged whenever it finishes, which may be after startup
+			BootstrapTimer.Stage databaseStage = timer.stage("database connection");
+			database.ping().toFuture().whenComplete(($, error) -> {
+				Duration duration = databaseStage.stop();
+				if (error != null)
+					logger.warn("Failed to connect to the database", error);
+				else
+					logger.info("Connected to the database in {}ms", duration.toMillis());
+			});
+
+			// start logging in; the gateway connects while commands are parsed
+			BootstrapTimer.Stage gateway = timer.stage("gateway");
+			try (var ignored = timer.stage("login")) {
+				if (config.shards().enabled()) {
+					shardManager = initShardManager(activity);
+					jda = shardManager.getShards().stream()
+						.min(Comparator.comparingInt(shard -> shard.getShardInfo().getShardId()))
+						.orElseThrow(() -> new IllegalStateException("No shards were started"));
+				} else {
+					shardManager = null;
+					jda = initJDA(activity);
+				}
+			}
+			CompletableFuture<ApplicationInfo> applicationInfo = jda.retrieveApplicationInfo().submit();
+
+			translationProvider = BootstrapTimer.join(translations);
+			if (config.watchTranslations()) {
+				try {
+					translationProvider.watch();
+					translationProvider.addReloadListener(keys -> {
+						// commands which are not yet parsed pick up the reloaded translations when they are
+						CommandManager manager = this.commandManager;
+						if (manager != null)
+							manager.refreshLocalizations(translationProvider, keys);
+					});
+				} catch (UnsupportedOperationException e) {
+					logger.warn("Unable to watch translations for changes: {}", e.getMessage());
+				}
+			}
+
+			// parse commands (does not need the gateway to be ready)
+			try (var ignored = timer.stage("commands")) {
+				rootRegistry = new RegistryRegistry(this);
+				this.commandManager = new CommandManager(this);
+				addEventListener(commandManager);
+				registerCommands();
+				for (Object cog : this.cogs)
+					commandManager.discoverCommands(cog);
+			}
+
+			awaitReady();
+			gateway.close();
+			botId = jda.getSelfUser().getIdLong();
+			ownerId = BootstrapTimer.join(applicationInfo).getOwner().getIdLong();
+
+			try (var ignored = timer.stage("upsert")) {
+				commandManager.upsertCommands(jda);
+			}
+		} finally {
+			bootstrap.shutdown();
+		}
+		shardMonitor.start();
+		timer.log(logger);
+	}
 
-		// register translation providers
-		translationProvider = new TranslationProvider(namespace, defaultLocale);
-		TranslationProvider.registerInstance(translationProvider);
-		TranslationProvider.registerInstance(new TranslationProvider(Key.LIBRARY_NAMESPACE, Locale.ENGLISH));
-
-		// load configuration
-		YamlConfigurationLoader loader = YamlConfigurationLoader.builder()
-				.path(configRoot.resolve("config.yml"))
-				// TODO: default config options
-				.build();
-		var rootConfigNode = loader.load();
-		config = Objects.requireNonNull(rootConfigNode.get(QuasicordConfig.class), "config.yml is missing or invalid");
-
-		// load database and locale provider
-		database = new DatabaseManager(namespace, config.environment());
-		localeProvider = new LocaleProvider(defaultLocale, database);
-		LocaleProvider.setInstance(localeProvider);
-
-		// initialize JDA and relevant data
-		jda = initJDA(activity); // should be executed last-ish
-		botId = jda.getSelfUser().getIdLong();
-		ownerId = jda.retrieveApplicationInfo().complete().getOwner().getIdLong();
-
-		// late initialize (depends on JDA)
-		rootRegistry = new RegistryRegistry(this);
-		this.commandManager = new CommandManager(this);
-		jda.addEventListener(commandManager);
-		registerCommands();
-		commandManager.upsertCommands(jda);
+	/**
+	 * Waits for every shard of this process to finish connecting to the gateway.
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	private void awaitReady() throws InterruptedException {
+		if (shardManager == null) {
+			jda.awaitReady();
+			return;
+		}
+		// shards are started one at a time in the background
+		QuasicordConfig.ShardOptions options = config.shards();
+		int localShards = options.maxShard() >= 0 && options.total() >= 0
+			? options.maxShard() - options.minShard() + 1
+			: shardManager.getShardsTotal();
+		shardMonitor.awaitReady(localShards);
+		for (JDA shard : shardManager.getShards())
+			shard.setRequiredScopes("applications.commands");
+		logger.info("Started {} of {} shards", shardManager.getShardsRunning(), shardManager.getShardsTotal());
+	}
+
+	/**
+	 * Gets the intents which are enabled unless intents are {@link Builder#minimizeIntents(boolean) minimized}.
+	 * These cover the events used by most bots, including message and reaction events.
+	 *
+	 * @return default intents
+	 */
+	private static @NonNull EnumSet<GatewayIntent> defaultIntents() {
+		EnumSet<GatewayIntent> defaults = GatewayIntent.getIntents(GatewayIntent.DEFAULT);
+		defaults.removeAll(EnumSet.of(
+			GatewayIntent.DIRECT_MESSAGE_TYPING,
+			GatewayIntent.GUILD_MESSAGE_TYPING,
+			GatewayIntent.GUILD_WEBHOOKS,
+			GatewayIntent.GUILD_INVITES,
+			GatewayIntent.GUILD_VOICE_STATES
+		));
+		defaults.addAll(EnumSet.of(GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_MESSAGES, GatewayIntent.MESSAGE_CONTENT));
+		return defaults;
 	}
 
 	@NonNull
 	protected JDA initJDA(@Nullable Activity activity) {
-		JDABuilder builder = JDABuilder.createDefault(config.token())
-				.disableIntents(GatewayIntent.DIRECT_MESSAGE_TYPING,
-						GatewayIntent.GUILD_MESSAGE_TYPING,
-						// GatewayIntent.GUILD_INTEGRATIONS, // unused, apparently
-						GatewayIntent.GUILD_WEBHOOKS,
-						GatewayIntent.GUILD_INVITES,
-						GatewayIntent.GUILD_VOICE_STATES)
-				.enableIntents(GatewayIntent.GUILD_MEMBERS)
-				// TODO:
-				//	1. register cogs before initJDA() is called
-				//  2. implement getRequiredIntents() in Cog
-				//  3. use that result here to compute minimum required intents
-				//  4. late-loaded cogs, if any/ever, can decline when their required intents weren't met at startup
-				//  5. except wait, cogs need jda to be constructed (and probably should), that's a problem
-				.enableIntents(GatewayIntent.GUILD_MESSAGES)
-				.enableIntents(GatewayIntent.MESSAGE_CONTENT)
-				.setMemberCachePolicy(MemberCachePolicy.ALL)
-				.setEventManager(new AnnotatedEventManager())
-				.disableCache(CacheFlag.ACTIVITY, CacheFlag.VOICE_STATE);
+		EnumSet<GatewayIntent> enabledIntents = intents.getIntents();
+		EnumSet<CacheFlag> disabledCache = logIntents(enabledIntents);
+		JDABuilder builder = JDABuilder.create(config.token(), enabledIntents)
+				.disableCache(disabledCache)
+				.setMemberCachePolicy(memberCache.createPolicy(enabledIntents))
+				.setChunkingFilter(ChunkingFilter.NONE)
+				.setLargeThreshold(250)
+				.setEventManager(new AnnotatedEventManager());
 		if (activity != null)
 			builder.setActivity(activity);
 		MessageRequest.setDefaultMentions(Collections.emptySet());
 		JDA jda = builder.build();
 		jda.setRequiredScopes("applications.commands");
-		jda.addEventListener(tempListenerExecutor);
-		jda.addEventListener(new Object() {
+		jda.addEventListener(createCoreListeners());
+		return jda;
+	}
+
+	@NonNull
+	protected ShardManager initShardManager(@Nullable Activity activity) {
+		QuasicordConfig.ShardOptions options = config.shards();
+		EnumSet<GatewayIntent> enabledIntents = intents.getIntents();
+		EnumSet<CacheFlag> disabledCache = logIntents(enabledIntents);
+		DefaultShardManagerBuilder builder = DefaultShardManagerBuilder.create(config.token(), enabledIntents)
+				.disableCache(disabledCache)
+				.setMemberCachePolicy(memberCache.createPolicy(enabledIntents))
+				.setChunkingFilter(ChunkingFilter.NONE)
+				.setLargeThreshold(250)
+				.setEventManagerProvider($ -> new AnnotatedEventManager())
+				.setShardsTotal(options.total())
+				.addEventListeners(createCoreListeners());
+		if (options.maxShard() >= 0) {
+			if (options.total() < 0)
+				logger.warn("Ignoring configured shard range as the total shard count is not set");
+			else
+				builder.setShards(options.minShard(), options.maxShard());
+		}
+		if (activity != null)
+			builder.setActivity(activity);
+		MessageRequest.setDefaultMentions(Collections.emptySet());
+		return builder.build();
+	}
+
+	private @NonNull EnumSet<CacheFlag> logIntents(@NonNull EnumSet<GatewayIntent> enabledIntents) {
+		EnumSet<CacheFlag> disabledCache = EnumSet.complementOf(intents.getCacheFlags());
+		logger.info("Enabling gateway intents: {}", intents.describe(enabledIntents));
+		if (!disabledCache.isEmpty())
+			logger.info("Disabling cache flags whose intents are not enabled: {}", disabledCache);
+		logger.info("Using {} member cache", memberCache.getMode());
+		return disabledCache;
+	}
+
+	/**
+	 * Creates the listeners which must receive the events of every shard.
+	 *
+	 * @return core listeners
+	 */
+	private Object @NonNull [] createCoreListeners() {
+		return new Object[]{tempListenerExecutor, shardMonitor, new Object() {
 			@net.dv8tion.jda.api.hooks.SubscribeEvent
 			public void on(net.dv8tion.jda.api.events.Event event) {
 				eventDispatcher.dispatch(event);
 			}
-		});
-		try {
-			jda.awaitReady();
-		} catch (InterruptedException ignored) {
-		}
-		return jda;
+		}};
 	}
 
 	/**
@@ -154,7 +355,26 @@ public class Quasicord {
 	 */
 	// we don't expose the raw executor in a getter because objects could abuse the #onEvent method
 	public void register(@NonNull TemporaryListener<?> listener) {
-		tempListenerExecutor.register(Objects.requireNonNull(listener, "listener cannot be null"));
+		Objects.requireNonNull(listener, "listener cannot be null");
+		if (intentCheckedEvents.add(listener.getEventClass()))
+			warnMissingIntents(new IntentRequirements().requireEvents(List.of(listener.getEventClass()), "temporary listener"));
+		tempListenerExecutor.register(listener);
+	}
+
+	/**
+	 * Logs a warning if an object registered after startup requires gateway intents which were not enabled,
+	 * as the events it listens to will never be received.
+	 *
+	 * @param listener the command, cog or event handler
+	 */
+	public void checkIntents(@NonNull Object listener) {
+		warnMissingIntents(new IntentRequirements().requireListener(listener));
+	}
+
+	private void warnMissingIntents(@NonNull IntentRequirements requirements) {
+		EnumSet<GatewayIntent> missing = requirements.getMissing(jda.getGatewayIntents());
+		if (!missing.isEmpty())
+			logger.warn("Gateway intents were not enabled at startup and must be declared via Quasicord.Builder#requireIntents or by registering the listener as a cog: {}", requirements.describe(missing));
 	}
 
 	/**
@@ -169,18 +389,32 @@ public class Quasicord {
 	 * Shuts down the bot as soon as pending tasks have finished execution.
 	 */
 	public void shutdown() {
-		jda.shutdown();
+		if (shardManager != null)
+			shardManager.shutdown();
+		else
+			jda.shutdown();
+		shardMonitor.shutdown();
 	}
 
 	/**
 	 * Shuts down the bot immediately.
 	 */
 	public void shutdownNow() {
-		jda.shutdownNow();
+		if (shardManager != null) {
+			// the shard manager only shuts its shards down gracefully
+			for (JDA shard : shardManager.getShards())
+				shard.shutdownNow();
+			shardManager.shutdown();
+		} else {
+			jda.shutdownNow();
+		}
+		shardMonitor.shutdown();
 	}
 
 	/**
 	 * Returns the {@link JDA} API for interacting with Discord.
+	 * When {@link #getShardManager() sharded}, this is the lowest shard run by this process,
+	 * which only holds the entities of its own guilds.
 	 *
 	 * @return the JDA API
 	 */
@@ -188,6 +422,74 @@ public class Quasicord {
 		return jda;
 	}
 
+	/**
+	 * Returns the {@link ShardManager} which manages this process's shards.
+	 *
+	 * @return the shard manager, or {@code null} if the bot is not sharded
+	 */
+	public @Nullable ShardManager getShardManager() {
+		return shardManager;
+	}
+
+	/**
+	 * Returns the shards run by this process.
+	 *
+	 * @return running shards
+	 */
+	public @NonNull List<JDA> getShards() {
+		return shardManager != null ? shardManager.getShards() : List.of(jda);
+	}
+
+	/**
+	 * Determines whether this process runs shard 0, which is responsible for process-wide tasks
+	 * such as pushing global commands.
+	 *
+	 * @return true if this process runs shard 0
+	 */
+	public boolean isPrimary() {
+		return shardManager == null || shardManager.getShardById(0) != null;
+	}
+
+	/**
+	 * Gets the guilds cached by all shards of this process.
+	 *
+	 * @return cached guilds
+	 */
+	public @NonNull SnowflakeCacheView<Guild> getGuildCache() {
+		return shardManager != null ? shardManager.getGuildCache() : jda.getGuildCache();
+	}
+
+	/**
+	 * Gets a guild from any shard of this process.
+	 *
+	 * @param id the ID of the guild
+	 * @return the guild, or {@code null} if it is not served by this process
+	 */
+	public @Nullable Guild getGuildById(long id) {
+		return shardManager != null ? shardManager.getGuildById(id) : jda.getGuildById(id);
+	}
+
+	/**
+	 * Adds listeners to every shard of this process.
+	 *
+	 * @param listeners the listeners to add
+	 */
+	public void addEventListener(@NonNull Object @NonNull ... listeners) {
+		if (shardManager != null)
+			shardManager.addEventListener(listeners);
+		else
+			jda.addEventListener(listeners);
+	}
+
+	/**
+	 * Gets the health of each shard run by this process.
+	 *
+	 * @return stats ordered by shard ID
+	 */
+	public @NonNull List<ShardStats> getShardStats() {
+		return shardMonitor.getStats(getShards());
+	}
+
 	// boilerplate
 
 	/**
@@ -199,6 +501,15 @@ public class Quasicord {
 		return config;
 	}
 
+	/**
+	 * Returns the directory containing {@code config.yml} and other local state.
+	 *
+	 * @return configuration directory
+	 */
+	public @NonNull Path getConfigRoot() {
+		return configRoot;
+	}
+
 	/**
 	 * Returns the {@link Logger} for this bot.
 	 *
@@ -271,6 +582,34 @@ public class Quasicord {
 		return rootRegistry;
 	}
 
+	/**
+	 * Gets the member cache, which lazily loads members that are not held in memory.
+	 *
+	 * @return member cache
+	 */
+	public @NonNull MemberCache getMemberCache() {
+		return memberCache;
+	}
+
+	/**
+	 * Gets how long each stage of startup took, in the order the stages finished.
+	 * Stages which ran in the background may finish after the constructor returns.
+	 *
+	 * @return stage timings
+	 */
+	public @NonNull Map<String, Duration> getStartupTimings() {
+		return timer.getTimings();
+	}
+
+	/**
+	 * Gets the gateway intents that the bot was started with and the reasons they were required.
+	 *
+	 * @return intent requirements
+	 */
+	public @NonNull IntentRequirements getIntentRequirements() {
+		return intents;
+	}
+
 	/**
 	 * Gets the bot's namespace which is used for fetching translation strings.
 	 *
@@ -289,6 +628,9 @@ public class Quasicord {
 		protected @NonNull Path configRoot = Paths.get(".").toAbsolutePath();
 		protected @Nullable Activity activity;
 		protected @Nullable Object eventHandler;
+		protected final @NonNull Set<GatewayIntent> requiredIntents = EnumSet.noneOf(GatewayIntent.class);
+		protected final @NonNull List<Object> cogs = new ArrayList<>();
+		protected boolean minimizeIntents;
 
 		/**
 		 * Creates a new builder.
@@ -358,6 +700,55 @@ public class Quasicord {
 			return this;
 		}
 
+		/**
+		 * Adds gateway intents to enable in addition to those required by the default event handler and cogs,
+		 * such as those required by cogs registered after startup or by library features like
+		 * {@link dev.qixils.quasicord.utils.MessageUtil#setupReactionMenu reaction menus}.
+		 * <p>
+		 * Intents can also be declared on the event handler and cogs using
+		 * {@link dev.qixils.quasicord.decorators.RequiresIntents RequiresIntents}.
+		 *
+		 * @param intents the required intents
+		 * @return this builder
+		 */
+		@Contract("_ -> this")
+		public Builder requireIntents(@NonNull GatewayIntent @NonNull ... intents) {
+			this.requiredIntents.addAll(Arrays.asList(intents));
+			return this;
+		}
+
+		/**
+		 * Adds cogs whose commands and event listeners are registered at startup.
+		 * Unlike cogs registered later through {@link CommandManager#discoverCommands(Object)},
+		 * the intents required by these cogs are enabled.
+		 *
+		 * @param cogs the cogs to register
+		 * @return this builder
+		 */
+		@Contract("_ -> this")
+		public Builder cogs(@NonNull Object @NonNull ... cogs) {
+			this.cogs.addAll(Arrays.asList(cogs));
+			return this;
+		}
+
+		/**
+		 * Sets whether to only enable the gateway intents required by the default event handler, cogs,
+		 * {@link #requireIntents(GatewayIntent...) declared intents} and member cache.
+		 * Otherwise, the default intents used by most bots are also enabled, such as those for messages and reactions.
+		 * <p>
+		 * Minimizing intents reduces the events received from Discord, but any listener or library feature
+		 * whose intents were not declared before startup will silently receive no events.
+		 * Defaults to {@code false}.
+		 *
+		 * @param minimizeIntents whether to minimize intents
+		 * @return this builder
+		 */
+		@Contract("_ -> this")
+		public Builder minimizeIntents(boolean minimizeIntents) {
+			this.minimizeIntents = minimizeIntents;
+			return this;
+		}
+
 		/**
 		 * Builds a new {@link Quasicord} instance.
 		 *
@@ -370,7 +761,7 @@ public class Quasicord {
 		public @NonNull Quasicord build() throws IllegalStateException, LoginException, InterruptedException, IOException {
 			if (namespace == null)
 				throw new IllegalStateException("namespace must be set");
-			return new Quasicord(namespace, locale, configRoot, activity, eventHandler);
+			return new Quasicord(namespace, locale, configRoot, activity, eventHandler, requiredIntents, cogs, minimizeIntents);
 		}
 	}
 }
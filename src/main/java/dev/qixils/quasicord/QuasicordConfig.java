@@ -6,15 +6,119 @@
 
 package dev.qixils.quasicord;
 
+import dev.qixils.quasicord.locale.LocaleCache;
 import org.spongepowered.configurate.objectmapping.ConfigSerializable;
 import org.spongepowered.configurate.objectmapping.meta.Required;
 
 @ConfigSerializable
 record QuasicordConfig(
 		@Required String token,
-		Environment environment
+		Environment environment,
+		LocaleOptions locale,
+		Boolean watchTranslations,
+		CommandOptions commands,
+		MemberCacheOptions members,
+		ShardOptions shards
 ) {
 	public QuasicordConfig {
 		if (environment == null) environment = Environment.TEST;
+		if (locale == null) locale = new LocaleOptions(null, null, null);
+		if (watchTranslations == null) watchTranslations = false;
+		if (commands == null) commands = new CommandOptions(null, null, null, null, null);
+		if (members == null) members = new MemberCacheOptions(null, null);
+		if (shards == null) shards = new ShardOptions(null, null, null, null);
+	}
+
+	/**
+	 * Options for the caching and batching of configured locales.
+	 *
+	 * @param cacheSize   the maximum number of configured locales to hold in memory
+	 * @param batchWindow how many milliseconds to collect locale lookups for before querying them,
+	 *                    or {@code 0} to disable batching
+	 * @param batchSize   the maximum number of locale lookups to send in one query
+	 */
+	@ConfigSerializable
+	record LocaleOptions(
+			Integer cacheSize,
+			Long batchWindow,
+			Integer batchSize
+	) {
+		public LocaleOptions {
+			if (cacheSize == null) cacheSize = LocaleCache.DEFAULT_MAXIMUM_SIZE;
+			if (batchWindow == null) batchWindow = 5L;
+			if (batchSize == null) batchSize = 100;
+		}
+	}
+
+	/**
+	 * Options for the execution of commands.
+	 *
+	 * @param execution    the thread that commands are executed on
+	 * @param maxInFlight  the maximum number of commands which may be queued or executing at once
+	 *                     when using {@link ExecutionMode#VIRTUAL virtual threads}
+	 * @param orderByGuild whether commands from the same guild (or the same user in direct messages)
+	 *                     are executed one at a time in the order they were received
+	 * @param sync         how commands are synchronized with Discord at startup
+	 * @param debounce     how many milliseconds to wait for further registrations to the same scope
+	 *                     before pushing commands registered after startup
+	 */
+	@ConfigSerializable
+	record CommandOptions(
+			ExecutionMode execution,
+			Integer maxInFlight,
+			Boolean orderByGuild,
+			CommandSyncMode sync,
+			Long debounce
+	) {
+		public CommandOptions {
+			if (execution == null) execution = ExecutionMode.EVENT_THREAD;
+			if (maxInFlight == null) maxInFlight = 256;
+			if (orderByGuild == null) orderByGuild = false;
+			if (sync == null) sync = CommandSyncMode.ALWAYS;
+			if (debounce == null) debounce = 250L;
+		}
+	}
+
+	/**
+	 * Options for the caching of guild members.
+	 *
+	 * @param cache   which members to hold in memory
+	 * @param maxSize the maximum number of members to cache when only caching
+	 *                {@link MemberCacheMode#RECENT recent members} or {@link MemberCacheMode#COMMAND_USERS command users}
+	 */
+	@ConfigSerializable
+	record MemberCacheOptions(
+			MemberCacheMode cache,
+			Integer maxSize
+	) {
+		public MemberCacheOptions {
+			if (cache == null) cache = MemberCacheMode.DEFAULT;
+			if (maxSize == null) maxSize = 10_000;
+		}
+	}
+
+	/**
+	 * Options for splitting the bot's gateway connection into shards.
+	 *
+	 * @param enabled  whether to connect using a {@link net.dv8tion.jda.api.sharding.ShardManager ShardManager}
+	 * @param total    the total number of shards across all processes, or {@code -1} to use the amount
+	 *                 recommended by Discord
+	 * @param minShard the lowest shard ID to run in this process
+	 * @param maxShard the highest shard ID to run in this process, or {@code -1} to run every shard;
+	 *                 only applies if {@code total} is set
+	 */
+	@ConfigSerializable
+	record ShardOptions(
+			Boolean enabled,
+			Integer total,
+			Integer minShard,
+			Integer maxShard
+	) {
+		public ShardOptions {
+			if (enabled == null) enabled = false;
+			if (total == null) total = -1;
+			if (minShard == null) minShard = 0;
+			if (maxShard == null) maxShard = -1;
+		}
 	}
 }
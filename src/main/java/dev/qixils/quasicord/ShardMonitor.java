@@ -0,0 +1,128 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the events received by each shard and periodically samples their event rate.
+ * Also tracks which shards have finished connecting so that startup can wait for them.
+ */
+final class ShardMonitor {
+	private static final @NonNull Duration SAMPLE_INTERVAL = Duration.ofSeconds(10);
+	private final @NonNull Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+	private final @NonNull ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(
+		Thread.ofPlatform().name("Quasicord Shard Monitor").daemon().factory()
+	);
+	private final @NonNull Set<Integer> readyShards = new HashSet<>(); // guarded by this
+	private @Nullable CountDownLatch readyLatch; // guarded by this
+
+	/**
+	 * Starts periodically sampling the event rate of each shard.
+	 * This is not done on construction so that a bot which fails to start does not leave the sampler running.
+	 */
+	void start() {
+		long interval = SAMPLE_INTERVAL.toMillis();
+		sampler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	@SubscribeEvent
+	public void onEvent(@NonNull GenericEvent event) {
+		counters.computeIfAbsent(event.getJDA().getShardInfo().getShardId(), $ -> new Counter()).events.increment();
+	}
+
+	@SubscribeEvent
+	public void onReady(@NonNull ReadyEvent event) {
+		CountDownLatch latch;
+		synchronized (this) {
+			// restarted shards become ready again
+			if (!readyShards.add(event.getJDA().getShardInfo().getShardId()))
+				return;
+			latch = readyLatch;
+		}
+		if (latch != null)
+			latch.countDown();
+	}
+
+	/**
+	 * Waits for the provided number of distinct shards to become ready,
+	 * including shards which became ready before this method was called.
+	 *
+	 * @param shards the number of shards to wait for
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	void awaitReady(int shards) throws InterruptedException {
+		CountDownLatch latch;
+		synchronized (this) {
+			latch = readyLatch = new CountDownLatch(Math.max(0, shards - readyShards.size()));
+		}
+		latch.await();
+	}
+
+	private void sample() {
+		double seconds = SAMPLE_INTERVAL.toMillis() / 1000d;
+		for (Counter counter : counters.values()) {
+			long events = counter.events.sum();
+			counter.rate = (events - counter.lastSample) / seconds;
+			counter.lastSample = events;
+		}
+	}
+
+	/**
+	 * Gets the stats of the provided shards.
+	 *
+	 * @param shards the shards to get the stats of
+	 * @return stats ordered by shard ID
+	 */
+	@NonNull List<ShardStats> getStats(@NonNull Collection<JDA> shards) {
+		List<ShardStats> stats = new ArrayList<>(shards.size());
+		for (JDA shard : shards) {
+			int shardId = shard.getShardInfo().getShardId();
+			Counter counter = counters.get(shardId);
+			stats.add(new ShardStats(
+				shardId,
+				shard.getStatus(),
+				shard.getGatewayPing(),
+				shard.getGuildCache().size(),
+				counter == null ? 0 : counter.events.sum(),
+				counter == null ? 0 : counter.rate
+			));
+		}
+		stats.sort(Comparator.comparingInt(ShardStats::shardId));
+		return stats;
+	}
+
+	void shutdown() {
+		sampler.shutdownNow();
+	}
+
+	private static final class Counter {
+		private final @NonNull LongAdder events = new LongAdder();
+		private long lastSample; // only accessed by the sampler
+		private volatile double rate;
+	}
+}
@@ -0,0 +1,30 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.JDA;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+/**
+ * A snapshot of the health of a single shard.
+ *
+ * @param shardId      the ID of the shard
+ * @param status       the status of the shard's gateway connection
+ * @param gatewayPing  the latency of the shard's last gateway heartbeat in milliseconds
+ * @param guilds       the number of guilds served by the shard
+ * @param events       the number of events received by the shard since startup
+ * @param eventRate    the number of events per second received by the shard over the last sampling interval
+ */
+public record ShardStats(
+		int shardId,
+		JDA.@NonNull Status status,
+		long gatewayPing,
+		long guilds,
+		long events,
+		double eventRate
+) {
+}
@@ -34,6 +34,8 @@ public class TemporaryListener<T extends GenericEvent> {
 	private final @NonNull Consumer<T> callback;
 	private final @NonNull Runnable onTimeout;
 	private final long length;
+	private final long messageId;
+	private final long userId;
 	private final @NonNull String ID = ULID.nextULID();
 
 	/**
@@ -47,6 +49,25 @@ public class TemporaryListener<T extends GenericEvent> {
 	 */
 	@CheckReturnValue
 	public TemporaryListener(@NotNull Class<T> eventClass, @Nullable Predicate<T> predicate, @NotNull Consumer<T> callback, @Nullable Runnable onTimeout, long length) {
+		this(eventClass, predicate, callback, onTimeout, length, 0, 0);
+	}
+
+	/**
+	 * Constructs a temporary listener which listens for the first event specified by the {@code eventClass} which
+	 * concerns the provided message and user, checks it against the optional {@code predicate}, then calls the
+	 * {@code callback} if the predicate passes.
+	 *
+	 * @param eventClass class of event that this object is listening for
+	 * @param callback   method that will be called with the event
+	 * @param length     how long the temporary listener will exist until it is discarded, in milliseconds
+	 * @param predicate  optional predicate which the event must pass
+	 * @param messageId  ID of the message the event must concern, or {@code 0} for any message
+	 * @param userId     ID of the user the event must concern, or {@code 0} for any user
+	 */
+	@CheckReturnValue
+	public TemporaryListener(@NotNull Class<T> eventClass, @Nullable Predicate<T> predicate, @NotNull Consumer<T> callback, @Nullable Runnable onTimeout, long length, long messageId, long userId) {
+		this.messageId = messageId;
+		this.userId = userId;
 		this.eventClass = Objects.requireNonNull(eventClass, "eventClass cannot be null");
 		this.callback = Objects.requireNonNull(callback, "callback cannot be null");
 		this.length = length;
@@ -105,6 +126,28 @@ public class TemporaryListener<T extends GenericEvent> {
 		return length;
 	}
 
+	/**
+	 * Gets the ID of the message which events must concern.
+	 * Events which do not concern a message will never match if this is set.
+	 *
+	 * @return message ID, or {@code 0} if events may concern any message
+	 */
+	@CheckReturnValue
+	public long getMessageId() {
+		return messageId;
+	}
+
+	/**
+	 * Gets the ID of the user which events must concern.
+	 * Events which do not concern a user will never match if this is set.
+	 *
+	 * @return user ID, or {@code 0} if events may concern any user
+	 */
+	@CheckReturnValue
+	public long getUserId() {
+		return userId;
+	}
+
 	/**
 	 * Gets the unique identifier for this temporary listener.
 	 *
@@ -122,7 +165,7 @@ public class TemporaryListener<T extends GenericEvent> {
 	 */
 	@CheckReturnValue
 	public @NonNull Builder<T> toBuilder() {
-		return new Builder<T>().eventClass(eventClass).predicate(predicate).callback(callback).onTimeout(onTimeout).length(length);
+		return new Builder<T>().eventClass(eventClass).predicate(predicate).callback(callback).onTimeout(onTimeout).length(length).messageId(messageId).userId(userId);
 	}
 
 	/**
@@ -145,6 +188,8 @@ public class TemporaryListener<T extends GenericEvent> {
 		private @Nullable Consumer<T> callback = null;
 		private @Nullable Runnable onTimeout = null;
 		private long length = 0;
+		private long messageId = 0;
+		private long userId = 0;
 
 		public Builder() {
 		}
@@ -227,6 +272,34 @@ public class TemporaryListener<T extends GenericEvent> {
 			return length(Objects.requireNonNull(length, "length cannot be null").toMillis());
 		}
 
+		/**
+		 * Sets the ID of the message which events must concern, such as the message being reacted to.
+		 * Unlike a {@link #predicate(Predicate) predicate}, this allows the listener to be looked up directly
+		 * instead of being tested against every event.
+		 *
+		 * @param messageId message ID, or {@code 0} for any message
+		 * @return this builder
+		 */
+		@Contract(value = "_ -> this", mutates = "this")
+		public @NonNull Builder<T> messageId(long messageId) {
+			this.messageId = messageId;
+			return this;
+		}
+
+		/**
+		 * Sets the ID of the user which events must concern, such as the user adding a reaction.
+		 * Unlike a {@link #predicate(Predicate) predicate}, this allows the listener to be looked up directly
+		 * instead of being tested against every event.
+		 *
+		 * @param userId user ID, or {@code 0} for any user
+		 * @return this builder
+		 */
+		@Contract(value = "_ -> this", mutates = "this")
+		public @NonNull Builder<T> userId(long userId) {
+			this.userId = userId;
+			return this;
+		}
+
 		/**
 		 * Creates a new {@link TemporaryListener}.
 		 *
@@ -238,7 +311,7 @@ public class TemporaryListener<T extends GenericEvent> {
 			if (eventClass == null) throw new IllegalStateException("eventClass must be set");
 			if (callback == null) throw new IllegalStateException("callback must be set");
 			if (length <= 0) throw new IllegalStateException("length must be positive");
-			return new TemporaryListener<>(eventClass, predicate, callback, onTimeout, length);
+			return new TemporaryListener<>(eventClass, predicate, callback, onTimeout, length, messageId, userId);
 		}
 	}
 }
@@ -7,25 +7,54 @@
 package dev.qixils.quasicord;
 
 import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.GenericInteractionCreateEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
+import net.dv8tion.jda.api.events.message.GenericMessageEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.message.react.GenericMessageReactionEvent;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
-import java.util.Objects;
+import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+/**
+ * Dispatches events to {@link TemporaryListener temporary listeners}.
+ * <p>
+ * Listeners are bucketed by their event class and, within each bucket, indexed by the
+ * {@link TemporaryListener#getMessageId() message ID} or {@link TemporaryListener#getUserId() user ID}
+ * they are restricted to, so an event is only tested against listeners which could match it.
+ * Expiry is handled in bulk by a {@link TimingWheel}.
+ */
 class TemporaryListenerExecutor {
-	private final @NonNull ConcurrentHashMap<String, TemporaryListener<?>> listeners = new ConcurrentHashMap<>();
-	private final @NonNull ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+	private static final @NonNull Duration TICK = Duration.ofMillis(100);
+	private static final int WHEEL_SIZE = 1024;
+	private final @NonNull Map<Class<?>, Bucket> buckets = new ConcurrentHashMap<>();
+	private final @NonNull Map<Class<?>, Class<?> @NonNull []> hierarchies = new ConcurrentHashMap<>();
+	private final @NonNull TimingWheel timingWheel;
 	private final @NonNull Logger logger = LoggerFactory.getLogger(getClass());
 
+	TemporaryListenerExecutor() {
+		this(new TimingWheel(TICK, WHEEL_SIZE, "Quasicord Temporary Listener Expiry"));
+	}
+
+	/**
+	 * Creates an executor which expires listeners using the provided timing wheel.
+	 *
+	 * @param timingWheel the timing wheel
+	 */
+	TemporaryListenerExecutor(@NonNull TimingWheel timingWheel) {
+		this.timingWheel = timingWheel;
+	}
+
 	/**
 	 * Registers a temporary listener.
 	 *
@@ -34,28 +63,177 @@ class TemporaryListenerExecutor {
 	public void register(@NonNull TemporaryListener<?> listener) {
 		Objects.requireNonNull(listener, "listener cannot be null");
 
-		final String ID = listener.getID();
-		listeners.put(ID, listener);
-		executor.schedule(() -> listeners.remove(ID), listener.expiresAfter(), TimeUnit.MILLISECONDS);
+		Entry entry = new Entry(listener, buckets.computeIfAbsent(listener.getEventClass(), $ -> new Bucket()));
+		entry.bucket.add(entry);
+		entry.timeout = timingWheel.schedule(() -> expire(entry), listener.expiresAfter(), TimeUnit.MILLISECONDS);
+	}
+
+	private void expire(@NonNull Entry entry) {
+		if (!entry.claim())
+			return;
+		try {
+			entry.listener.getTimeoutCallback().run();
+		} catch (Throwable throwable) {
+			logger.error("Temporary listener for '" + entry.listener.getEventClass().getSimpleName() + "' threw an exception on timeout", throwable);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
 	@SubscribeEvent
 	public void onEvent(@NonNull GenericEvent event) {
-		Iterator<TemporaryListener<?>> iterator = listeners.values().iterator();
-		while (iterator.hasNext()) {
-			TemporaryListener<?> listener = iterator.next();
-			Class<?> eventClass = listener.getEventClass();
-			if (eventClass.isInstance(event)) {
+		if (buckets.isEmpty())
+			return;
+		long messageId = getMessageId(event);
+		long userId = getUserId(event);
+		for (Class<?> eventClass : hierarchies.computeIfAbsent(event.getClass(), TemporaryListenerExecutor::hierarchy)) {
+			Bucket bucket = buckets.get(eventClass);
+			if (bucket == null)
+				continue;
+			for (Entry entry : bucket.candidates(messageId, userId)) {
+				TemporaryListener<?> listener = entry.listener;
+				if (listener.getMessageId() != 0 && listener.getMessageId() != messageId)
+					continue;
+				if (listener.getUserId() != 0 && listener.getUserId() != userId)
+					continue;
 				try {
 					if (!((Predicate<GenericEvent>) listener.getPredicate()).test(event))
 						continue;
+					if (!entry.claim())
+						continue;
 					((Consumer<GenericEvent>) listener.getCallback()).accept(event);
 				} catch (Throwable throwable) {
 					logger.error("Temporary listener for '" + eventClass.getSimpleName() + "' threw an exception", throwable);
+					entry.claim();
 				}
-				iterator.remove();
 			}
 		}
 	}
+
+	/**
+	 * Gets the classes and interfaces which an event class is assignable to.
+	 *
+	 * @param eventClass the event class
+	 * @return event class hierarchy
+	 */
+	private static Class<?> @NonNull [] hierarchy(@NonNull Class<?> eventClass) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		Deque<Class<?>> queue = new ArrayDeque<>();
+		queue.add(eventClass);
+		while (!queue.isEmpty()) {
+			Class<?> clazz = queue.poll();
+			if (!GenericEvent.class.isAssignableFrom(clazz) || !classes.add(clazz))
+				continue;
+			if (clazz.getSuperclass() != null)
+				queue.add(clazz.getSuperclass());
+			queue.addAll(Arrays.asList(clazz.getInterfaces()));
+		}
+		return classes.toArray(Class<?>[]::new);
+	}
+
+	private static long getMessageId(@NonNull GenericEvent event) {
+		return switch (event) {
+			case GenericMessageEvent e -> e.getMessageIdLong();
+			case GenericComponentInteractionCreateEvent e -> e.getMessageIdLong();
+			default -> 0;
+		};
+	}
+
+	private static long getUserId(@NonNull GenericEvent event) {
+		return switch (event) {
+			case GenericMessageReactionEvent e -> e.getUserIdLong();
+			case MessageReceivedEvent e -> e.getAuthor().getIdLong();
+			case GenericInteractionCreateEvent e -> e.getUser().getIdLong();
+			default -> 0;
+		};
+	}
+
+	/**
+	 * The registered listeners of a single event class.
+	 * Listeners are indexed by their message ID if set, else by their user ID if set.
+	 */
+	private static final class Bucket {
+		private final @NonNull Map<Long, Set<Entry>> byMessage = new ConcurrentHashMap<>();
+		private final @NonNull Map<Long, Set<Entry>> byUser = new ConcurrentHashMap<>();
+		private final @NonNull Set<Entry> unindexed = ConcurrentHashMap.newKeySet();
+
+		private void add(@NonNull Entry entry) {
+			TemporaryListener<?> listener = entry.listener;
+			if (listener.getMessageId() != 0)
+				add(byMessage, listener.getMessageId(), entry);
+			else if (listener.getUserId() != 0)
+				add(byUser, listener.getUserId(), entry);
+			else
+				unindexed.add(entry);
+		}
+
+		private void remove(@NonNull Entry entry) {
+			TemporaryListener<?> listener = entry.listener;
+			if (listener.getMessageId() != 0)
+				remove(byMessage, listener.getMessageId(), entry);
+			else if (listener.getUserId() != 0)
+				remove(byUser, listener.getUserId(), entry);
+			else
+				unindexed.remove(entry);
+		}
+
+		private @NonNull List<Entry> candidates(long messageId, long userId) {
+			List<Entry> candidates = new ArrayList<>(unindexed);
+			if (messageId != 0)
+				addAll(candidates, byMessage.get(messageId));
+			if (userId != 0)
+				addAll(candidates, byUser.get(userId));
+			return candidates;
+		}
+
+		private static void addAll(@NonNull List<Entry> candidates, @Nullable Set<Entry> entries) {
+			if (entries != null)
+				candidates.addAll(entries);
+		}
+
+		private static void add(@NonNull Map<Long, Set<Entry>> index, long key, @NonNull Entry entry) {
+			index.compute(key, ($, entries) -> {
+				if (entries == null)
+					entries = ConcurrentHashMap.newKeySet();
+				entries.add(entry);
+				return entries;
+			});
+		}
+
+		private static void remove(@NonNull Map<Long, Set<Entry>> index, long key, @NonNull Entry entry) {
+			index.computeIfPresent(key, ($, entries) -> {
+				entries.remove(entry);
+				return entries.isEmpty() ? null : entries;
+			});
+		}
+	}
+
+	/**
+	 * A registered listener, which is either fired or expired exactly once.
+	 */
+	private static final class Entry {
+		private final @NonNull TemporaryListener<?> listener;
+		private final @NonNull Bucket bucket;
+		private final @NonNull AtomicBoolean claimed = new AtomicBoolean();
+		private volatile TimingWheel.@Nullable Timeout timeout;
+
+		private Entry(@NonNull TemporaryListener<?> listener, @NonNull Bucket bucket) {
+			this.listener = listener;
+			this.bucket = bucket;
+		}
+
+		/**
+		 * Claims this listener for firing or expiring, removing it from its bucket and cancelling its expiry.
+		 *
+		 * @return {@code true} if this call claimed the listener, or {@code false} if it was already claimed
+		 */
+		private boolean claim() {
+			if (!claimed.compareAndSet(false, true))
+				return false;
+			bucket.remove(this);
+			TimingWheel.Timeout timeout = this.timeout;
+			if (timeout != null)
+				timeout.cancel();
+			return true;
+		}
+	}
 }
@@ -0,0 +1,158 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timing wheel which runs tasks after a delay with a precision of one tick.
+ * <p>
+ * Unlike a {@link ScheduledExecutorService}, scheduling and cancelling a task are constant time
+ * and do not allocate a task in a shared priority queue. Each tick, every task due in the current
+ * slot of the wheel is run in bulk on the wheel's thread, so tasks should be short.
+ */
+final class TimingWheel {
+	private static final @NonNull Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+	private final long tickNanos;
+	private final int mask;
+	private final @NonNull LongSupplier clock;
+	private final long startedAt;
+	private final @NonNull Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+	private final @NonNull ArrayDeque<Timeout> @NonNull [] slots; // confined to the wheel thread
+	private long tick = 0; // confined to the wheel thread
+
+	/**
+	 * Creates and starts a new timing wheel.
+	 *
+	 * @param tickDuration the duration of each tick
+	 * @param wheelSize    the number of slots in the wheel, rounded up to a power of two
+	 * @param threadName   the name of the wheel's thread
+	 */
+	TimingWheel(@NonNull Duration tickDuration, int wheelSize, @NonNull String threadName) {
+		this(tickDuration, wheelSize, System::nanoTime);
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name(threadName).daemon().factory());
+		executor.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Creates a new timing wheel which only runs tasks when {@link #advance() advanced} manually.
+	 *
+	 * @param tickDuration the duration of each tick
+	 * @param wheelSize    the number of slots in the wheel, rounded up to a power of two
+	 * @param clock        the source of the current time, in nanoseconds
+	 */
+	@SuppressWarnings("unchecked")
+	TimingWheel(@NonNull Duration tickDuration, int wheelSize, @NonNull LongSupplier clock) {
+		if (tickDuration.isNegative() || tickDuration.isZero())
+			throw new IllegalArgumentException("tickDuration must be positive");
+		if (wheelSize <= 0)
+			throw new IllegalArgumentException("wheelSize must be positive");
+		this.tickNanos = tickDuration.toNanos();
+		int size = Integer.highestOneBit(wheelSize - 1) << 1;
+		if (size == 0) size = 1;
+		this.mask = size - 1;
+		this.slots = new ArrayDeque[size];
+		for (int i = 0; i < size; i++)
+			slots[i] = new ArrayDeque<>();
+		this.clock = clock;
+		this.startedAt = clock.getAsLong();
+	}
+
+	/**
+	 * Schedules a task to run once the provided delay has elapsed.
+	 *
+	 * @param task  the task to run
+	 * @param delay the delay
+	 * @param unit  the unit of the delay
+	 * @return a handle which may be used to cancel the task
+	 */
+	@NonNull Timeout schedule(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+		long deadline = clock.getAsLong() - startedAt + unit.toNanos(Math.max(0, delay));
+		// round up so that tasks never run early
+		Timeout timeout = new Timeout(task, (deadline + tickNanos - 1) / tickNanos);
+		pending.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Runs the tasks due in every tick which has elapsed since the wheel was last advanced.
+	 * This must only be called from one thread at a time.
+	 */
+	void advance() {
+		long target = (clock.getAsLong() - startedAt) / tickNanos;
+		while (tick <= target) {
+			transferPending();
+			expire(slots[(int) (tick & mask)]);
+			tick++;
+		}
+	}
+
+	private void transferPending() {
+		Timeout timeout;
+		while ((timeout = pending.poll()) != null) {
+			if (timeout.cancelled)
+				continue;
+			long deadline = Math.max(timeout.deadline, tick);
+			timeout.rounds = (deadline - tick) / slots.length;
+			slots[(int) (deadline & mask)].add(timeout);
+		}
+	}
+
+	private void expire(@NonNull ArrayDeque<Timeout> slot) {
+		Iterator<Timeout> iterator = slot.iterator();
+		while (iterator.hasNext()) {
+			Timeout timeout = iterator.next();
+			if (timeout.cancelled) {
+				iterator.remove();
+			} else if (timeout.rounds > 0) {
+				timeout.rounds--;
+			} else {
+				iterator.remove();
+				try {
+					timeout.task.run();
+				} catch (Throwable throwable) {
+					logger.error("Scheduled task threw an exception", throwable);
+				}
+			}
+		}
+	}
+
+	/**
+	 * A task scheduled on a {@link TimingWheel}.
+	 */
+	static final class Timeout {
+		private final @NonNull Runnable task;
+		private final long deadline; // in ticks
+		private long rounds; // confined to the wheel thread
+		private volatile boolean cancelled = false;
+
+		private Timeout(@NonNull Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+
+		/**
+		 * Cancels this task if it has not yet run.
+		 * Cancelled tasks are discarded the next time their slot is reached.
+		 */
+		void cancel() {
+			cancelled = true;
+		}
+	}
+}
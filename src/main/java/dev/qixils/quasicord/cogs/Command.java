@@ -11,6 +11,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -69,4 +70,18 @@ public interface Command<I extends CommandInteraction> extends Consumer<I> {
 	 */
 	@Override
 	void accept(@NonNull I interaction);
+
+	/**
+	 * Executes the command, returning a future which completes once the command has finished.
+	 * Commands which finish asynchronously should override this so that their entire execution
+	 * counts towards the command executor's ordering, concurrency limit and metrics.
+	 *
+	 * @param interaction the interaction object which triggered the command execution
+	 * @return a future which completes once the command has finished
+	 */
+	@NonNull
+	default CompletableFuture<?> acceptAsync(@NonNull I interaction) {
+		accept(interaction);
+		return CompletableFuture.completedFuture(null);
+	}
 }
@@ -47,6 +47,6 @@ public abstract class ConfigCommand {
 				new ReplaceOptions().upsert(true)
 			);
 		}
-		return Mono.from(result);
+		return Mono.from(result).doOnSuccess($ -> library.getLocaleProvider().getCache().put(entryType, snowflake.getIdLong(), locale));
 	}
 }
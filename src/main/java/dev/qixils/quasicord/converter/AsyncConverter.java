@@ -0,0 +1,53 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.converter;
+
+import net.dv8tion.jda.api.interactions.Interaction;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * A converter which converts values without blocking, such as by querying the database.
+ * <p>
+ * Commands call {@link #convertAsync(Interaction, Object, Class)}. The synchronous
+ * {@link #convert(Interaction, Object, Class)} blocks by default.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public interface AsyncConverter<I, O> extends Converter<I, O> {
+
+	@Override
+	@NonNull
+	Mono<O> convertAsync(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass);
+
+	/**
+	 * Converts an input to the output type, blocking until the conversion completes.
+	 * Prefer {@link #convertAsync(Interaction, Object, Class)} where possible.
+	 * <p>
+	 * By default this blocks the calling thread on {@link #convertAsync(Interaction, Object, Class)},
+	 * so it must not be called from a thread which may not block, such as a Reactor parallel scheduler
+	 * or the JDA event thread.
+	 *
+	 * @param interaction the interaction being invoked
+	 * @param input       the user input
+	 * @param targetClass the class to convert to
+	 * @return converted value
+	 */
+	@Override
+	default @NonNull O convert(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass) {
+		O output = convertAsync(interaction, input, targetClass).block();
+		if (output == null)
+			throw new IllegalStateException(getClass().getName() + " completed without a value");
+		return output;
+	}
+
+	@Override
+	default boolean isAsync() {
+		return true;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.converter;
+
+import net.dv8tion.jda.api.interactions.Interaction;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiFunction;
+
+/**
+ * An {@link AsyncConverter} which delegates to a function returning a {@link Mono}.
+ *
+ * @param <I> the input type
+ * @param <O> the output type
+ */
+public class AsyncConverterImpl<I, O> extends AbstractConverter<I, O> implements AsyncConverter<I, O> {
+	private final @NonNull BiFunction<Interaction, I, Mono<O>> converter;
+
+	/**
+	 * Creates a new asynchronous converter.
+	 *
+	 * @param inputClass  the input class
+	 * @param outputClass the output class
+	 * @param converter   the function which converts an input, called once per subscription;
+	 *                    the returned mono may complete empty if the output is null
+	 */
+	public AsyncConverterImpl(
+			@NonNull Class<I> inputClass,
+			@NonNull Class<O> outputClass,
+			@NonNull BiFunction<Interaction, I, Mono<O>> converter
+	) {
+		super(inputClass, outputClass);
+		this.converter = converter;
+	}
+
+	/**
+	 * Converts an input to the output type.
+	 * The conversion function is not called until the returned mono is subscribed to.
+	 *
+	 * @param interaction the interaction being invoked
+	 * @param input       the user input
+	 * @param targetClass the class to convert to
+	 * @return a mono which emits the converted value
+	 */
+	@Override
+	public @NonNull Mono<O> convertAsync(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass) {
+		return Mono.defer(() -> converter.apply(interaction, input));
+	}
+}
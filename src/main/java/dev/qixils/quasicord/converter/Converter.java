@@ -9,6 +9,7 @@ package dev.qixils.quasicord.converter;
 import net.dv8tion.jda.api.interactions.Interaction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.jetbrains.annotations.ApiStatus;
+import reactor.core.publisher.Mono;
 
 /**
  * An interface for converting a user-provided value to a different type.
@@ -58,6 +59,32 @@ public interface Converter<I, O> {
 		return convert(interaction, input, getOutputClass());
 	}
 
+	/**
+	 * Converts an input to the output type without blocking.
+	 * <p>
+	 * By default, this lazily calls {@link #convert(Interaction, Object, Class)}.
+	 * Converters which need to wait on I/O should implement {@link AsyncConverter} instead.
+	 *
+	 * @param interaction the interaction being invoked
+	 * @param input       the user input
+	 * @param targetClass the class to convert to
+	 * @return a {@link Mono} that emits the converted value, or completes empty if it is {@code null}
+	 */
+	@NonNull
+	default Mono<O> convertAsync(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass) {
+		return Mono.fromCallable(() -> convert(interaction, input, targetClass));
+	}
+
+	/**
+	 * Determines whether {@link #convertAsync(Interaction, Object, Class)} may complete asynchronously,
+	 * in which case {@link #convert(Interaction, Object, Class)} blocks until it completes.
+	 *
+	 * @return true if this converter is asynchronous
+	 */
+	default boolean isAsync() {
+		return false;
+	}
+
 	/**
 	 * Determines whether this converter can be converted to in a converter chain.
 	 *
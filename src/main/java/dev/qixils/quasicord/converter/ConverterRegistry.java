@@ -23,15 +23,23 @@ import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.Interaction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Mono;
 
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static dev.qixils.quasicord.converter.ConverterImpl.identity;
 
 public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 
 	public final Converter<String, ZonedDateTime> ZONED_DATE_TIME;
+	// registered converters by input class, guarded by itself
+	private final Map<Class<?>, List<Converter<?, ?>>> index = new LinkedHashMap<>();
+	// memoized lookups, cleared whenever a converter is registered
+	private final Map<Class<?>, List<Converter<?, ?>>> acceptors = new ConcurrentHashMap<>();
+	private final Map<ConversionKey, Optional<Converter<?, ?>>> directConverters = new ConcurrentHashMap<>();
+	private final Map<ConversionKey, Optional<Converter<?, ?>>> chainConverters = new ConcurrentHashMap<>();
 
 	public ConverterRegistry(@NonNull Quasicord library) {
 		super("converters");
@@ -43,7 +51,7 @@ public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 		register(new VoidConverterImpl<>(ChannelType.class, Interaction::getChannelType));
 		register(new VoidConverterImpl<>(Context.class, Context::fromInteraction));
 		register(new VoidConverterImpl<>(DiscordLocale.class, Interaction::getUserLocale));
-		register(new ConverterImpl<>(Context.class, Locale.class, (it, ctx) -> ctx.locale(library.getLocaleProvider()).block())); // TODO: async
+		register(new AsyncConverterImpl<>(Context.class, Locale.class, (it, ctx) -> ctx.locale(library.getLocaleProvider())));
 		register(new LocaleConverter(library));
 		register(new ConverterImpl<>(Locale.class, DiscordLocale.class, (it, locale) -> DiscordLocale.from(locale)));
 		register(new ConverterImpl<>(DiscordLocale.class, Locale.class, (it, locale) -> locale.toLocale()));
@@ -72,29 +80,81 @@ public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 		register(new ConverterImpl<>(Number.class, Short.class, (it, s) -> s.shortValue()));
 		register(new ConverterImpl<>(Number.class, Byte.class, (it, b) -> b.byteValue()));
 		// misc
-		register(new ConverterImpl<>(User.class, Member.class, (it, u) -> Objects.requireNonNull(Objects.requireNonNull(it.getGuild()).getMember(u))));
+		register(new AsyncConverterImpl<>(User.class, Member.class, (it, u) -> library.getMemberCache().getMember(it, u)));
 		register(new ConverterImpl<>(Integer.class, Enum.class, (ctx, i, tc) -> tc.getEnumConstants()[i]));
 		register(new ConverterImpl<>(String.class, Enum.class, (ctx, i, tc) -> Arrays.stream(tc.getEnumConstants()).filter(e -> e.name().equals(i)).findFirst().orElseThrow()));
 	}
 
+	@Override
+	public @NonNull Converter<?, ?> register(@NonNull Converter<?, ?> item) {
+		synchronized (index) {
+			super.register(item);
+			index.computeIfAbsent(item.getInputClass(), $ -> new ArrayList<>()).add(item);
+			// new converters may change any previously resolved conversion
+			acceptors.clear();
+			directConverters.clear();
+			chainConverters.clear();
+		}
+		return item;
+	}
+
 	@NonNull
 	public <C extends Converter<?, ?>> C typedRegister(@NonNull C converter) {
 		register(converter);
 		return converter;
 	}
 
+	/**
+	 * Gets the converters which accept the provided type as input,
+	 * i.e. those whose input class is the type or one of its supertypes.
+	 *
+	 * @param type the input type
+	 * @return an unmodifiable list of converters in registration order
+	 */
+	private @NonNull List<Converter<?, ?>> getAcceptors(@NonNull Class<?> type) {
+		List<Converter<?, ?>> converters = acceptors.get(type);
+		if (converters != null)
+			return converters;
+		synchronized (index) {
+			return acceptors.computeIfAbsent(type, $ -> {
+				List<Converter<?, ?>> results = new ArrayList<>();
+				index.forEach((inputClass, registered) -> {
+					if (inputClass.isAssignableFrom(type))
+						results.addAll(registered);
+				});
+				return List.copyOf(results);
+			});
+		}
+	}
+
 	@Nullable
 	public <I, O> Converter<I, O> getConverter(@NonNull Class<I> inputClass, @NonNull Class<O> outputClass) {
 		if (inputClass == outputClass)
 			//noinspection unchecked
 			return (Converter<I, O>) identity(outputClass);
 
+		ConversionKey key = new ConversionKey(inputClass, outputClass);
+		Optional<Converter<?, ?>> converter = directConverters.get(key);
+		if (converter == null) {
+			synchronized (index) {
+				converter = directConverters.computeIfAbsent(key, $ -> findDirectConverter(inputClass, outputClass));
+			}
+		}
 		//noinspection unchecked
-		return (Converter<I, O>) stream().filter(converter ->
-				converter.getInputClass() == inputClass && converter.getOutputClass() == outputClass
-		).findAny().or(() -> stream().filter(converter ->
-				converter.getInputClass().isAssignableFrom(inputClass) && outputClass.isAssignableFrom(converter.getOutputClass())
-		).findAny()).orElse(null);
+		return (Converter<I, O>) converter.orElse(null);
+	}
+
+	private @NonNull Optional<Converter<?, ?>> findDirectConverter(@NonNull Class<?> inputClass, @NonNull Class<?> outputClass) {
+		// prefer an exact match
+		for (Converter<?, ?> converter : index.getOrDefault(inputClass, List.of())) {
+			if (converter.getOutputClass() == outputClass)
+				return Optional.of(converter);
+		}
+		for (Converter<?, ?> converter : getAcceptors(inputClass)) {
+			if (outputClass.isAssignableFrom(converter.getOutputClass()))
+				return Optional.of(converter);
+		}
+		return Optional.empty();
 	}
 
 	@Nullable
@@ -108,27 +168,36 @@ public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 			return direct;
 
 		// if there's no direct converter, we need to find a chain of converters
-		List<Converter<?, ?>> encounteredConverters = new ArrayList<>();
-		List<FindNode> nodes = stream()
-				.filter(converter -> converter.getInputClass().isAssignableFrom(inputClass))
+		ConversionKey key = new ConversionKey(inputClass, outputClass);
+		Optional<Converter<?, ?>> chain = chainConverters.get(key);
+		if (chain == null) {
+			synchronized (index) {
+				chain = chainConverters.computeIfAbsent(key, $ -> Optional.ofNullable(findChain(inputClass, outputClass)));
+			}
+		}
+		//noinspection unchecked
+		return (Converter<I, O>) chain.orElse(null);
+	}
+
+	private <I, O> @Nullable Converter<I, O> findChain(@NonNull Class<I> inputClass, @NonNull Class<O> outputClass) {
+		Set<Converter<?, ?>> encounteredConverters = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<FindNode> nodes = getAcceptors(inputClass).stream()
 				.map(converter -> new FindNode(converter, null))
 				.toList();
 		while (!nodes.isEmpty()) {
 			List<FindNode> newNodes = new ArrayList<>();
 			for (FindNode node : nodes) {
-				for (Converter<?, ?> converter : this) {
+				for (Converter<?, ?> converter : getAcceptors(node.converter().getOutputClass())) {
 					if (!converter.canConvertTo())
 						continue;
 					if (encounteredConverters.contains(converter))
 						continue;
-					if (!node.converter().getOutputClass().isAssignableFrom(converter.getInputClass()))
-						continue;
 					if (node.isDuplicate(converter.getOutputClass()))
 						continue;
 
 					FindNode newNode = new FindNode(converter, node);
 					if (outputClass.isAssignableFrom(converter.getOutputClass())) {
-						// we found a chain! | TODO: cache
+						// we found a chain!
 						return new ChainConverter<>(inputClass, outputClass, newNode);
 					}
 					if (converter.canConvertFrom())
@@ -143,6 +212,9 @@ public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 		return null;
 	}
 
+	private record ConversionKey(@NonNull Class<?> inputClass, @NonNull Class<?> outputClass) {
+	}
+
 	private record FindNode(
 			@NonNull Converter<?, ?> converter,
 			@Nullable FindNode parent
@@ -164,26 +236,87 @@ public final class ConverterRegistry extends RegistryImpl<Converter<?, ?>> {
 	}
 
 	private static final class ChainConverter<I, O> extends AbstractConverter<I, O> {
-		private final List<Converter<?, ?>> converters;
+		private final @NonNull ChainStep chain;
+		private final @Nullable AsyncChainStep asyncChain;
 
 		private ChainConverter(@NonNull Class<I> inputClass, @NonNull Class<O> outputClass, @NonNull FindNode node) {
 			// technically the input & output class can be found from the chain, but accepting them as args is a little easier
 			//  and is better for type safety
 			super(inputClass, outputClass);
-			converters = new ArrayList<>();
+			List<Converter<?, ?>> converters = new ArrayList<>();
 			while (node != null) {
 				converters.add(0, node.converter());
 				node = node.parent();
 			}
+			chain = compose(converters);
+			asyncChain = converters.stream().anyMatch(Converter::isAsync) ? composeAsync(converters) : null;
 		}
 
+		/**
+		 * Composes a list of converters into a single function which applies them in order.
+		 *
+		 * @param converters the converters to compose
+		 * @return composed function
+		 */
 		@SuppressWarnings({"unchecked", "rawtypes"}) // i'm sorry JVM
+		private static @NonNull ChainStep compose(@NonNull List<Converter<?, ?>> converters) {
+			ChainStep chain = null;
+			for (Converter converter : converters) {
+				ChainStep previous = chain;
+				// TODO: does passing targetClass unconditionally make sense here?
+				chain = previous == null
+					? (interaction, input, targetClass) -> converter.convert(interaction, input, targetClass)
+					: (interaction, input, targetClass) -> converter.convert(interaction, previous.apply(interaction, input, targetClass), targetClass);
+			}
+			return Objects.requireNonNull(chain, "chain cannot be empty");
+		}
+
+		/**
+		 * Composes a list of converters into a single non-blocking function which applies them in order.
+		 *
+		 * @param converters the converters to compose
+		 * @return composed function
+		 */
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private static @NonNull AsyncChainStep composeAsync(@NonNull List<Converter<?, ?>> converters) {
+			AsyncChainStep chain = null;
+			for (Converter converter : converters) {
+				AsyncChainStep previous = chain;
+				chain = previous == null
+					? (interaction, input, targetClass) -> converter.convertAsync(interaction, input, targetClass)
+					: (interaction, input, targetClass) -> previous.apply(interaction, input, targetClass)
+						.flatMap(output -> converter.convertAsync(interaction, output, targetClass));
+			}
+			return Objects.requireNonNull(chain, "chain cannot be empty");
+		}
+
+		@SuppressWarnings("unchecked")
 		@Override
 		public @NonNull O convert(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass) {
-			Object result = input;
-			for (Converter converter : converters)
-				result = converter.convert(interaction, result, targetClass); // TODO: does passing targetClass unconditionally make sense here?
-			return (O) result;
+			return (O) chain.apply(interaction, input, targetClass);
 		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public @NonNull Mono<O> convertAsync(@NonNull Interaction interaction, @NonNull I input, @NonNull Class<? extends O> targetClass) {
+			if (asyncChain == null)
+				return super.convertAsync(interaction, input, targetClass);
+			return (Mono<O>) asyncChain.apply(interaction, input, targetClass);
+		}
+
+		@Override
+		public boolean isAsync() {
+			return asyncChain != null;
+		}
+	}
+
+	@FunctionalInterface
+	private interface ChainStep {
+		@NonNull Object apply(@NonNull Interaction interaction, @NonNull Object input, @NonNull Class<?> targetClass);
+	}
+
+	@FunctionalInterface
+	private interface AsyncChainStep {
+		@NonNull Mono<?> apply(@NonNull Interaction interaction, @NonNull Object input, @NonNull Class<?> targetClass);
 	}
 }
@@ -8,11 +8,13 @@ package dev.qixils.quasicord.converter.impl;
 
 import dev.qixils.quasicord.Key;
 import dev.qixils.quasicord.Quasicord;
-import dev.qixils.quasicord.converter.Converter;
+import dev.qixils.quasicord.converter.AsyncConverter;
 import dev.qixils.quasicord.error.UserError;
 import lombok.Getter;
 import lombok.NonNull;
 import net.dv8tion.jda.api.interactions.Interaction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Mono;
 
 import java.util.IllformedLocaleException;
 import java.util.Locale;
@@ -24,7 +26,7 @@ import java.util.Optional;
  * names of languages in their detected language,
  * and names of languages in English.
  */
-public class LocaleConverter implements Converter<String, Locale> {
+public class LocaleConverter implements AsyncConverter<String, Locale> {
 
 	private final @NonNull @Getter Class<String> inputClass = String.class;
 	private final @NonNull @Getter Class<Locale> outputClass = Locale.class;
@@ -35,28 +37,34 @@ public class LocaleConverter implements Converter<String, Locale> {
 	}
 
 	@Override
-	public @NonNull Locale convert(@NonNull Interaction it, @NonNull String input, @org.checkerframework.checker.nullness.qual.NonNull Class<? extends Locale> targetClass) {
+	public @NonNull Mono<Locale> convertAsync(@NonNull Interaction it, @NonNull String input, @org.checkerframework.checker.nullness.qual.NonNull Class<? extends Locale> targetClass) {
 		try {
-			return new Locale.Builder().setLanguageTag(input).build();
+			return Mono.just(new Locale.Builder().setLanguageTag(input).build());
 		} catch (IllformedLocaleException ignored) {
-			Locale userLocale = library.getLocaleProvider().forInteraction(it).block(); // TODO: async?? :(
-			if (userLocale != null) {
-				String localLowVal = input.toLowerCase(userLocale);
-				Optional<Locale> localMatch = Locale.availableLocales()
-					.filter(l -> l.getDisplayName(userLocale).toLowerCase(userLocale).equals(localLowVal))
-					.findFirst();
-				if (localMatch.isPresent())
-					return localMatch.get();
-			}
-
-			String engLowVal = input.toLowerCase(Locale.ENGLISH);
-			Optional<Locale> engMatch = Locale.availableLocales()
-				.filter(l -> l.getDisplayName(Locale.ENGLISH).toLowerCase(Locale.ENGLISH).equals(engLowVal))
-				.findFirst();
-			if (engMatch.isPresent())
-				return engMatch.get();
+			return library.getLocaleProvider().forInteraction(it)
+				.map(Optional::of)
+				.defaultIfEmpty(Optional.empty())
+				.map(userLocale -> fromDisplayName(input, userLocale.orElse(null)));
+		}
+	}
 
-			throw new UserError(Key.library("exception.invalid_locale"), input);
+	private static @NonNull Locale fromDisplayName(@NonNull String input, @Nullable Locale userLocale) {
+		if (userLocale != null) {
+			String localLowVal = input.toLowerCase(userLocale);
+			Optional<Locale> localMatch = Locale.availableLocales()
+				.filter(l -> l.getDisplayName(userLocale).toLowerCase(userLocale).equals(localLowVal))
+				.findFirst();
+			if (localMatch.isPresent())
+				return localMatch.get();
 		}
+
+		String engLowVal = input.toLowerCase(Locale.ENGLISH);
+		Optional<Locale> engMatch = Locale.availableLocales()
+			.filter(l -> l.getDisplayName(Locale.ENGLISH).toLowerCase(Locale.ENGLISH).equals(engLowVal))
+			.findFirst();
+		if (engMatch.isPresent())
+			return engMatch.get();
+
+		throw new UserError(Key.library("exception.invalid_locale"), input);
 	}
 }
@@ -7,12 +7,13 @@
 package dev.qixils.quasicord.converter.impl;
 
 import dev.qixils.quasicord.Quasicord;
-import dev.qixils.quasicord.converter.Converter;
+import dev.qixils.quasicord.converter.AsyncConverter;
 import dev.qixils.quasicord.db.collection.TimeZoneConfig;
 import dev.qixils.quasicord.error.UserError;
 import lombok.Getter;
 import net.dv8tion.jda.api.interactions.Interaction;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.ZoneId;
@@ -24,7 +25,7 @@ import java.util.regex.Pattern;
 import static dev.qixils.quasicord.Key.library;
 
 @Getter
-public class ZonedDateTimeConverter implements Converter<String, ZonedDateTime> {
+public class ZonedDateTimeConverter implements AsyncConverter<String, ZonedDateTime> {
 	private final @NonNull Class<? extends Interaction> interactionClass = Interaction.class;
 	private final @NonNull Class<String> inputClass = String.class;
 	private final @NonNull Class<ZonedDateTime> outputClass = ZonedDateTime.class;
@@ -46,9 +47,14 @@ public class ZonedDateTimeConverter implements Converter<String, ZonedDateTime>
 	}
 
 	@Override
-	public @NonNull ZonedDateTime convert(@NonNull Interaction interaction, @NonNull String input, @NonNull Class<? extends ZonedDateTime> targetClass) {
-		TimeZoneConfig config = library.getDatabaseManager().getById(interaction.getUser().getIdLong(), TimeZoneConfig.class).block();
-		ZoneId zone = config == null ? ZoneOffset.UTC : config.getTimeZone();
+	public @NonNull Mono<ZonedDateTime> convertAsync(@NonNull Interaction interaction, @NonNull String input, @NonNull Class<? extends ZonedDateTime> targetClass) {
+		return library.getDatabaseManager().getById(interaction.getUser().getIdLong(), TimeZoneConfig.class)
+			.<ZoneId>map(TimeZoneConfig::getTimeZone)
+			.defaultIfEmpty(ZoneOffset.UTC)
+			.map(zone -> parse(interaction, input, zone));
+	}
+
+	private @NonNull ZonedDateTime parse(@NonNull Interaction interaction, @NonNull String input, @NonNull ZoneId zone) {
 		ZonedDateTime now = ZonedDateTime.now(zone);
 
 		try {
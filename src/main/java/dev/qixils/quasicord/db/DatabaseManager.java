@@ -15,6 +15,7 @@ import com.mongodb.reactivestreams.client.MongoCollection;
 import com.mongodb.reactivestreams.client.MongoDatabase;
 import dev.qixils.quasicord.Environment;
 import dev.qixils.quasicord.Quasicord;
+import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.codecs.pojo.PojoCodecProvider;
@@ -25,6 +26,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.Closeable;
+import java.util.Collection;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -103,8 +105,30 @@ public class DatabaseManager implements Closeable {
 		return Mono.from(collection(tClass).find(Filters.eq("_id", id)));
 	}
 
+	/**
+	 * Gets the documents with the provided IDs in a single query.
+	 * IDs which have no document are skipped.
+	 *
+	 * @param ids    the IDs of the documents
+	 * @param tClass the class of the documents
+	 * @param <T>    the type of the documents
+	 * @return a flux of the found documents, in no particular order
+	 */
+	public <T> @NonNull Flux<T> getAllByIds(Collection<?> ids, Class<T> tClass) {
+		return getAllBy(Filters.in("_id", ids), tClass);
+	}
+
 	// misc
 
+	/**
+	 * Pings the database, establishing a connection to it if one is not yet open.
+	 *
+	 * @return a mono that completes once the database has responded
+	 */
+	public @NonNull Mono<Void> ping() {
+		return Mono.from(database.runCommand(new Document("ping", 1))).then();
+	}
+
 	public void close() {
 		mongoClient.close();
 	}
@@ -11,6 +11,7 @@ import dev.qixils.quasicord.autocomplete.AutoCompleter;
 import dev.qixils.quasicord.cogs.Command;
 import dev.qixils.quasicord.cogs.SlashCommandDataBranch;
 import dev.qixils.quasicord.cogs.impl.SlashCommandDataBranchImpl;
+import dev.qixils.quasicord.decorators.option.*;
 import dev.qixils.quasicord.decorators.slash.DefaultPermissions;
 import dev.qixils.quasicord.decorators.slash.SlashCommand;
 import dev.qixils.quasicord.decorators.slash.SlashSubCommand;
@@ -19,6 +20,7 @@ import dev.qixils.quasicord.utils.OptionalUtil;
 import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
 import net.dv8tion.jda.api.hooks.SubscribeEvent;
+import net.dv8tion.jda.api.interactions.DiscordLocale;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.SlashCommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.*;
@@ -32,7 +34,11 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 public final class AnnotationParser {
@@ -41,10 +47,11 @@ public final class AnnotationParser {
 	private final @NonNull CommandManager commandManager;
 	private final @NonNull Map<Class<? extends AutoCompleter>, AutoCompleter> autoCompleters = new HashMap<>();
 	private final @NonNull Map<String, AutoCompleter> autoCompletersByCommand = new HashMap<>();
+	private final @NonNull Map<String, List<Localization>> localizations = new ConcurrentHashMap<>();
 
 	public AnnotationParser(@NonNull CommandManager commandManager) {
 		this.commandManager = commandManager;
-		commandManager.getLibrary().getJDA().addEventListener(this);
+		commandManager.getLibrary().addEventListener(this);
 	}
 
 	@NonNull
@@ -52,64 +59,51 @@ public final class AnnotationParser {
 		return commandManager;
 	}
 	
-	private CommandData createContextCommandData(@NonNull ContextCommand annotation, @NonNull AnnotatedElement owner, @Nullable AnnotatedElement parent) {
-		String id = annotation.value();
-		String namespace = getNamespace(owner, parent);
-		TranslationProvider i18n = TranslationProvider.getInstance(namespace);
+	private CommandData createContextCommandData(@NonNull CommandDescriptor descriptor) {
+		String id = descriptor.id();
+		TranslationProvider i18n = getTranslationProvider(descriptor);
 		String name = i18n.getSingleDefaultOrThrow(id + ".name").get();
-		CommandData command = Commands.context(annotation.type(), name);
-		command.setGuildOnly(annotation.guildOnly());
-		command.setNSFW(annotation.ageRestricted());
-		command.setNameLocalizations(i18n.getDiscordTranslations(id + ".name"));
-
-		// default permissions
-		DefaultPermissions perms = owner.getAnnotation(DefaultPermissions.class);
-		if (perms != null) {
-			Permission[] value = perms.value();
-			command.setDefaultPermissions(value.length == 0
-				? DefaultMemberPermissions.DISABLED
-				: DefaultMemberPermissions.enabledFor(value));
-		}
-
+		CommandData command = Commands.context(Objects.requireNonNull(descriptor.contextType(), "contextType"), name);
+		command.setGuildOnly(descriptor.guildOnly());
+		command.setNSFW(descriptor.ageRestricted());
+		localize(i18n, id + ".name", command, name, command::setNameLocalizations);
+		setDefaultPermissions(command, descriptor);
 		return command;
 	}
 
-	private SlashCommandData createSlashCommandData(@NonNull SlashCommand annotation, @NonNull AnnotatedElement owner, @Nullable AnnotatedElement parent) {
-		String id = annotation.value();
-		String namespace = getNamespace(owner, parent);
-		TranslationProvider i18n = TranslationProvider.getInstance(namespace);
+	private SlashCommandData createSlashCommandData(@NonNull CommandDescriptor descriptor) {
+		String id = descriptor.id();
+		TranslationProvider i18n = getTranslationProvider(descriptor);
 		String name = i18n.getSingleDefaultOrThrow(id + ".name").get();
 		String description = i18n.getSingleDefaultOrThrow(id + ".description").get();
 		SlashCommandData command = Commands.slash(name, description);
-		command.setGuildOnly(annotation.guildOnly());
-		command.setNSFW(annotation.ageRestricted());
-		command.setNameLocalizations(i18n.getDiscordTranslations(id + ".name"));
-		command.setDescriptionLocalizations(i18n.getDiscordTranslations(id + ".description"));
-
-		// default permissions
-		DefaultPermissions perms = owner.getAnnotation(DefaultPermissions.class);
-		if (perms != null) {
-			Permission[] value = perms.value();
+		command.setGuildOnly(descriptor.guildOnly());
+		command.setNSFW(descriptor.ageRestricted());
+		localize(i18n, id + ".name", command, name, command::setNameLocalizations);
+		localize(i18n, id + ".description", command, description, command::setDescriptionLocalizations);
+		setDefaultPermissions(command, descriptor);
+		return command;
+	}
+
+	private static void setDefaultPermissions(@NonNull CommandData command, @NonNull CommandDescriptor descriptor) {
+		Permission[] value = descriptor.defaultPermissions();
+		if (value != null) {
 			command.setDefaultPermissions(value.length == 0
 				? DefaultMemberPermissions.DISABLED
 				: DefaultMemberPermissions.enabledFor(value));
 		}
-
-		return command;
 	}
 
-	private SlashCommandDataBranch createSlashSubCommandData(@NonNull SlashCommandData command, @NonNull String id, @NonNull AnnotatedElement owner, @Nullable AnnotatedElement parent) {
+	private SlashCommandDataBranch createSlashSubCommandData(@NonNull SlashCommandData command, @NonNull String id, @NonNull TranslationProvider i18n) {
 		String[] parts = id.split("\\.");
 		if (parts.length < 2 || parts.length > 3) {
 			throw new IllegalArgumentException("Subcommand ID " + id + " should be 2-3 parts long, not " + parts.length);
 		}
-		String namespace = getNamespace(owner, parent);
-		TranslationProvider i18n = TranslationProvider.getInstance(namespace);
 		String name = i18n.getSingleDefaultOrThrow(id + ".name").get();
 		String description = i18n.getSingleDefaultOrThrow(id + ".description").get();
 		SubcommandData subcommand = new SubcommandData(name, description);
-		subcommand.setNameLocalizations(i18n.getDiscordTranslations(id + ".name"));
-		subcommand.setDescriptionLocalizations(i18n.getDiscordTranslations(id + ".description"));
+		localize(i18n, id + ".name", command, name, subcommand::setNameLocalizations);
+		localize(i18n, id + ".description", command, description, subcommand::setDescriptionLocalizations);
 
 		if (parts.length == 2) {
 			command.addSubcommands(subcommand);
@@ -120,8 +114,8 @@ public final class AnnotationParser {
 			SubcommandGroupData group = command.getSubcommandGroups().stream().filter(g -> g.getName().equals(groupName)).findFirst().orElseGet(() -> {
 				String groupDescription = i18n.getSingleDefaultOrThrow(groupId + ".description").get();
 				SubcommandGroupData g = new SubcommandGroupData(groupName, groupDescription);
-				g.setNameLocalizations(i18n.getDiscordTranslations(groupId + ".name"));
-				g.setDescriptionLocalizations(i18n.getDiscordTranslations(groupId + ".description"));
+				localize(i18n, groupId + ".name", command, groupName, g::setNameLocalizations);
+				localize(i18n, groupId + ".description", command, groupDescription, g::setDescriptionLocalizations);
 				command.addSubcommandGroups(g);
 				return g;
 			});
@@ -130,87 +124,207 @@ public final class AnnotationParser {
 		}
 	}
 
+	/**
+	 * Parses the commands of an object.
+	 * Their annotations are read from the {@link GeneratedCommands} of the object's class if the
+	 * {@code quasicord-processor} annotation processor was run on it, and otherwise through reflection.
+	 *
+	 * @param object the object declaring command methods
+	 * @return parsed commands
+	 */
 	public Collection<Command<?>> parse(Object object) {
-		commandManager.getLibrary().getJDA().addEventListener(object);
+		commandManager.getLibrary().addEventListener(object);
 		commandManager.getLibrary().getEventDispatcher().registerListeners(object);
-
-		Class<?> parentClass = object.getClass();
-		SlashCommand parentCommandData = parentClass.getAnnotation(SlashCommand.class);
-		SlashCommandData parentCommand = parentCommandData == null
+		commandManager.getLibrary().checkIntents(object);
+
+		Class<?> type = object.getClass();
+		GeneratedCommands generated = GeneratedCommandIndex.of(type);
+		List<CommandDescriptor> descriptors = generated == null ? null : generated.commands();
+		CommandDescriptor parentDescriptor;
+		Map<String, Method> methods = new HashMap<>();
+		if (descriptors != null) {
+			parentDescriptor = generated.parent();
+		} else {
+			parentDescriptor = describeParent(type);
+			descriptors = new ArrayList<>();
+			for (final Method method : type.getDeclaredMethods()) {
+				CommandDescriptor descriptor = describe(method, type);
+				if (descriptor == null)
+					continue;
+				descriptors.add(descriptor);
+				methods.put(descriptor.signature(), method);
+			}
+		}
+		SlashCommandData parentCommand = parentDescriptor == null
 			? null
-			: createSlashCommandData(parentCommandData, parentClass, null);
-		Optional<Guild> parentGuild = Optional.ofNullable(parentClass.getAnnotation(Guild.class));
+			: createSlashCommandData(parentDescriptor);
 
 		List<Command<?>> commands = new ArrayList<>();
-		for (final Method method : object.getClass().getDeclaredMethods()) {
-			ContextCommand contextAnnotation = method.getAnnotation(ContextCommand.class);
-			SlashCommand slashAnnotation = method.getAnnotation(SlashCommand.class);
-			SlashSubCommand slashSubAnnotation = method.getAnnotation(SlashSubCommand.class);
-			String guildId = OptionalUtil.or(
-					Optional.ofNullable(method.getAnnotation(Guild.class)),
-					parentGuild
-				).map(Guild::value)
-				.orElse(null);
-
-			long nonnull = Stream.of(contextAnnotation, slashAnnotation, slashSubAnnotation)
-				.filter(Objects::nonNull)
-				.count();
-			if (nonnull == 0)
-				continue;
-			if (nonnull > 1)
-				throw new IllegalArgumentException("Cannot have multiple of @ContextCommand, @SlashCommand, and @SlashSubCommand on the same method");
-
-			if (!Modifier.isPublic(method.getModifiers()))
-				throw new IllegalArgumentException("Command method must be public");
-			if (Modifier.isStatic(method.getModifiers()))
-				throw new IllegalArgumentException("Decorator methods must not be static");
-
+		for (CommandDescriptor descriptor : descriptors) {
 			try {
-				if (contextAnnotation != null)
-					commands.add(parseContextCommand(object, method, contextAnnotation, guildId));
-				else if (slashAnnotation != null)
-					commands.add(parseSlashCommand(object, method, slashAnnotation, guildId));
-				else if (slashSubAnnotation != null) {
-					if (parentCommandData == null)
-						throw new IllegalArgumentException("@SlashSubCommand was applied to method " + method.getName() + ", but owning class " + object.getClass().getName() + " lacks @SlashCommand");
-					commands.add(parseSlashSubCommand(object, method, parentCommand, parentCommandData, slashSubAnnotation));
+				Method method = methods.get(descriptor.signature());
+				CommandInvoker invoker = method != null
+					? CommandInvoker.of(object, method)
+					: Objects.requireNonNull(generated.invoker(object, descriptor.signature()), "No invoker was generated for " + descriptor.signature());
+				switch (descriptor.kind()) {
+					case CONTEXT -> commands.add(parseContextCommand(descriptor, invoker));
+					case SLASH -> commands.add(parseSlashCommand(descriptor, invoker));
+					case SUBCOMMAND -> {
+						if (parentDescriptor == null)
+							throw new IllegalArgumentException("@SlashSubCommand was applied to method " + descriptor.signature() + ", but owning class " + type.getName() + " lacks @SlashCommand");
+						commands.add(parseSlashSubCommand(descriptor, invoker, parentCommand, parentDescriptor));
+					}
 				}
 			} catch (Exception e) {
-				logger.warn("Failed to parse command " + method.getName() + " in " + object.getClass().getName(), e);
+				logger.warn("Failed to parse command " + descriptor.signature() + " in " + type.getName(), e);
 			}
 		}
 		return commands;
 	}
 
-	@NonNull
-	private String getNamespace(@Nullable AnnotatedElement @Nullable ... objects) {
-		if (objects != null) {
-			for (AnnotatedElement obj : objects) {
-				if (obj != null && obj.isAnnotationPresent(Namespace.class)) {
-					return obj.getAnnotation(Namespace.class).value();
-				}
-			}
+	/**
+	 * Reads the {@link SlashCommand} annotation of a class through reflection.
+	 *
+	 * @param type the command class
+	 * @return descriptor, or {@code null} if the class is not annotated
+	 * @see GeneratedCommands#parent()
+	 */
+	private static @Nullable CommandDescriptor describeParent(@NonNull Class<?> type) {
+		SlashCommand annotation = type.getAnnotation(SlashCommand.class);
+		if (annotation == null)
+			return null;
+		return new CommandDescriptor(
+			"",
+			CommandDescriptor.Kind.SLASH,
+			annotation.value(),
+			null,
+			annotation.guildOnly(),
+			annotation.ageRestricted(),
+			Optional.ofNullable(type.getAnnotation(DefaultPermissions.class)).map(DefaultPermissions::value).orElse(null),
+			getNamespace(type),
+			Optional.ofNullable(type.getAnnotation(Guild.class)).map(Guild::value).orElse(null),
+			List.of()
+		);
+	}
+
+	/**
+	 * Reads the annotations of a command method through reflection.
+	 *
+	 * @param method the method
+	 * @param type   the class declaring the method
+	 * @return descriptor, or {@code null} if the method is not a command
+	 * @throws IllegalArgumentException if the method is annotated incorrectly
+	 * @see GeneratedCommands#commands()
+	 */
+	private static @Nullable CommandDescriptor describe(@NonNull Method method, @NonNull Class<?> type) throws IllegalArgumentException {
+		ContextCommand contextAnnotation = method.getAnnotation(ContextCommand.class);
+		SlashCommand slashAnnotation = method.getAnnotation(SlashCommand.class);
+		SlashSubCommand slashSubAnnotation = method.getAnnotation(SlashSubCommand.class);
+
+		long nonnull = Stream.of(contextAnnotation, slashAnnotation, slashSubAnnotation)
+			.filter(Objects::nonNull)
+			.count();
+		if (nonnull == 0)
+			return null;
+		if (nonnull > 1)
+			throw new IllegalArgumentException("Cannot have multiple of @ContextCommand, @SlashCommand, and @SlashSubCommand on the same method");
+
+		if (!Modifier.isPublic(method.getModifiers()))
+			throw new IllegalArgumentException("Command method must be public");
+		if (Modifier.isStatic(method.getModifiers()))
+			throw new IllegalArgumentException("Decorator methods must not be static");
+
+		String signature = GeneratedCommands.signature(method);
+		Permission[] defaultPermissions = Optional.ofNullable(method.getAnnotation(DefaultPermissions.class))
+			.map(DefaultPermissions::value)
+			.orElse(null);
+		String namespace = getNamespace(method, type);
+		String guildId = OptionalUtil.or(
+				Optional.ofNullable(method.getAnnotation(Guild.class)),
+				Optional.ofNullable(type.getAnnotation(Guild.class))
+			).map(Guild::value)
+			.orElse(null);
+		List<CommandDescriptor.ParameterDescriptor> parameters = Arrays.stream(method.getParameters())
+			.map(AnnotationParser::describeParameter)
+			.toList();
+
+		if (contextAnnotation != null)
+			return new CommandDescriptor(signature, CommandDescriptor.Kind.CONTEXT, contextAnnotation.value(), contextAnnotation.type(),
+				contextAnnotation.guildOnly(), contextAnnotation.ageRestricted(), defaultPermissions, namespace, guildId, parameters);
+		if (slashAnnotation != null)
+			return new CommandDescriptor(signature, CommandDescriptor.Kind.SLASH, slashAnnotation.value(), null,
+				slashAnnotation.guildOnly(), slashAnnotation.ageRestricted(), defaultPermissions, namespace, guildId, parameters);
+		return new CommandDescriptor(signature, CommandDescriptor.Kind.SUBCOMMAND, slashSubAnnotation.value(), null,
+			false, false, defaultPermissions, namespace, guildId, parameters);
+	}
+
+	private static CommandDescriptor.@NonNull ParameterDescriptor describeParameter(@NonNull Parameter parameter) {
+		Option option = parameter.getAnnotation(Option.class);
+		CommandDescriptor.OptionDescriptor optionDescriptor = null;
+		if (option != null) {
+			Range range = parameter.getAnnotation(Range.class);
+			ChannelTypes channelTypes = parameter.getAnnotation(ChannelTypes.class);
+			AutoCompleteWith acWith = parameter.getAnnotation(AutoCompleteWith.class);
+			AutoCompleteFrom acFrom = parameter.getAnnotation(AutoCompleteFrom.class);
+			optionDescriptor = new CommandDescriptor.OptionDescriptor(
+				option.value(),
+				option.required(),
+				option.type(),
+				range == null ? null : new CommandDescriptor.RangeDescriptor(range.min(), range.max()),
+				channelTypes == null ? null : channelTypes.value(),
+				describeChoices(parameter.getAnnotationsByType(Choice.class)),
+				acWith == null ? null : acWith.value(),
+				acFrom == null ? null : describeChoices(acFrom.value())
+			);
 		}
-		return commandManager.getLibrary().getNamespace();
+		ConvertWith convertWith = parameter.getAnnotation(ConvertWith.class);
+		return new CommandDescriptor.ParameterDescriptor(
+			parameter.getType(),
+			parameter.getName(),
+			parameter.isAnnotationPresent(Contextual.class),
+			optionDescriptor,
+			convertWith == null ? null : convertWith.value()
+		);
+	}
+
+	private static @NonNull List<CommandDescriptor.ChoiceDescriptor> describeChoices(@NonNull Choice @NonNull [] choices) {
+		return Arrays.stream(choices)
+			.map(choice -> new CommandDescriptor.ChoiceDescriptor(choice.value(), choice.intValue(), choice.numberValue(), choice.stringValue()))
+			.toList();
 	}
 
-	private Command<ContextInteraction> parseContextCommand(Object object, Method method, ContextCommand annotation, @Nullable String guildId) {
-		CommandData command = createContextCommandData(annotation, method, object.getClass());
-		return new ParserContextCommand(annotation.value(), this, command, object, method, guildId);
+	private static @Nullable String getNamespace(@NonNull AnnotatedElement @NonNull ... objects) {
+		for (AnnotatedElement obj : objects) {
+			Namespace namespace = obj.getAnnotation(Namespace.class);
+			if (namespace != null)
+				return namespace.value();
+		}
+		return null;
 	}
 
-	private Command<SlashCommandInteraction> parseSlashCommand(Object object, Method method, SlashCommand annotation, @Nullable String guildId) {
-		TranslationProvider i18n = TranslationProvider.getInstance(getNamespace(method, object.getClass()));
-		SlashCommandData command = createSlashCommandData(annotation, method, object.getClass());
+	@NonNull
+	private TranslationProvider getTranslationProvider(@NonNull CommandDescriptor descriptor) {
+		String namespace = descriptor.namespace();
+		return TranslationProvider.getInstance(namespace != null ? namespace : commandManager.getLibrary().getNamespace());
+	}
+
+	private Command<ContextInteraction> parseContextCommand(CommandDescriptor descriptor, CommandInvoker invoker) {
+		CommandData command = createContextCommandData(descriptor);
+		return new ParserContextCommand(descriptor.id(), this, command, descriptor, invoker, descriptor.guildId());
+	}
+
+	private Command<SlashCommandInteraction> parseSlashCommand(CommandDescriptor descriptor, CommandInvoker invoker) {
+		TranslationProvider i18n = getTranslationProvider(descriptor);
+		SlashCommandData command = createSlashCommandData(descriptor);
 		SlashCommandDataBranch branch = new SlashCommandDataBranchImpl(command, null, null);
-		return new ParserSlashCommand(annotation.value(), this, i18n, branch, object, method, guildId);
+		return new ParserSlashCommand(descriptor.id(), this, i18n, branch, descriptor, invoker, descriptor.guildId());
 	}
 
-	private Command<SlashCommandInteraction> parseSlashSubCommand(Object object, Method method, SlashCommandData command, SlashCommand parent, SlashSubCommand annotation) {
-		TranslationProvider i18n = TranslationProvider.getInstance(getNamespace(method, object.getClass()));
-		String id = parent.value() + '.' + annotation.value();
-		SlashCommandDataBranch branch = createSlashSubCommandData(command, id, method, object.getClass());
-		return new ParserSlashCommand(id, this, i18n, branch, object, method, null);
+	private Command<SlashCommandInteraction> parseSlashSubCommand(CommandDescriptor descriptor, CommandInvoker invoker, SlashCommandData command, CommandDescriptor parent) {
+		TranslationProvider i18n = getTranslationProvider(descriptor);
+		String id = parent.id() + '.' + descriptor.id();
+		SlashCommandDataBranch branch = createSlashSubCommandData(command, id, i18n);
+		return new ParserSlashCommand(id, this, i18n, branch, descriptor, invoker, null);
 	}
 
 	private AutoCompleter createAutoCompleter(Class<? extends AutoCompleter> completerClass) {
@@ -245,6 +359,43 @@ public final class AnnotationParser {
 		throw new IllegalArgumentException("Auto-completer must have a no-arg or Quasicord constructor");
 	}
 
+	/**
+	 * Applies the Discord translations of a key to a command,
+	 * remembering them so that they can be {@link #relocalize(TranslationProvider, Set) re-applied} after a reload.
+	 *
+	 * @param i18n     the translation provider of the command
+	 * @param key      the translation key
+	 * @param root     the root command whose data is being localized
+	 * @param fallback the value the command was registered with in the default locale
+	 * @param setter   the setter of the localizations
+	 */
+	void localize(@NonNull TranslationProvider i18n, @NonNull String key, @NonNull CommandData root, @NonNull String fallback, @NonNull Consumer<Map<DiscordLocale, String>> setter) {
+		Localization localization = new Localization(i18n, key, root, fallback, setter);
+		localization.apply();
+		localizations.computeIfAbsent(key, $ -> new CopyOnWriteArrayList<>()).add(localization);
+	}
+
+	/**
+	 * Re-applies the Discord translations of reloaded keys to the commands which use them.
+	 * Must not be called concurrently.
+	 *
+	 * @param i18n the reloaded translation provider
+	 * @param keys the keys whose Discord translations changed
+	 * @return the root commands whose data was updated
+	 */
+	public @NonNull Set<CommandData> relocalize(@NonNull TranslationProvider i18n, @NonNull Set<String> keys) {
+		Set<CommandData> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (String key : keys) {
+			for (Localization localization : localizations.getOrDefault(key, List.of())) {
+				if (localization.i18n != i18n)
+					continue;
+				localization.apply();
+				roots.add(localization.root);
+			}
+		}
+		return roots;
+	}
+
 	AutoCompleter registerAutoCompleter(Class<? extends AutoCompleter> autoCompleter) {
 		return autoCompleters.computeIfAbsent(autoCompleter, this::createAutoCompleter);
 	}
@@ -253,11 +404,42 @@ public final class AnnotationParser {
 		autoCompletersByCommand.put(id, ac);
 	}
 
+	/**
+	 * The localizations of a single name or description of a command.
+	 */
+	private static final class Localization {
+		private final @NonNull TranslationProvider i18n;
+		private final @NonNull String key;
+		private final @NonNull CommandData root;
+		private final @NonNull String fallback;
+		private final @NonNull Consumer<Map<DiscordLocale, String>> setter;
+		private @NonNull Map<DiscordLocale, String> applied = Map.of();
+
+		private Localization(@NonNull TranslationProvider i18n, @NonNull String key, @NonNull CommandData root, @NonNull String fallback, @NonNull Consumer<Map<DiscordLocale, String>> setter) {
+			this.i18n = i18n;
+			this.key = key;
+			this.root = root;
+			this.fallback = fallback;
+			this.setter = setter;
+		}
+
+		private void apply() {
+			Map<DiscordLocale, String> translations = i18n.getDiscordTranslations(key);
+			Map<DiscordLocale, String> updated = new EnumMap<>(DiscordLocale.class);
+			// setting localizations only adds to them, so reset removed ones to the registered value
+			for (DiscordLocale locale : applied.keySet())
+				updated.put(locale, fallback);
+			updated.putAll(translations);
+			if (!updated.isEmpty())
+				setter.accept(updated);
+			applied = translations;
+		}
+	}
+
 	@SubscribeEvent
 	public void onAutoComplete(CommandAutoCompleteInteractionEvent event) {
 		// TODO: move to Command class maybe>?? also just like cleanup i think
-		String guildId = event.getGuild() == null ? event.getGuild().getId() : null;
-		Command<?> command = commandManager.getCommand(event.getFullCommandName(), guildId);
+		Command<?> command = commandManager.getCommand(event);
 
 		if (command == null) {
 			event.replyChoices(Collections.emptyList()).queue();
@@ -0,0 +1,132 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import dev.qixils.quasicord.autocomplete.AutoCompleter;
+import dev.qixils.quasicord.converter.Converter;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.List;
+
+/**
+ * The annotations of a command method, read either at compile time by the {@code quasicord-processor}
+ * annotation processor (see {@link GeneratedCommands#commands()}) or at runtime through reflection.
+ * <p>
+ * Names and descriptions are not included as they depend on the translations loaded by the bot.
+ *
+ * @param signature          the {@link GeneratedCommands#signature(java.lang.reflect.Method) signature} of the method,
+ *                           or an empty string for a class annotated with {@link dev.qixils.quasicord.decorators.slash.SlashCommand}
+ * @param kind               the annotation declaring the command
+ * @param id                 the ID of the command
+ * @param contextType        the type of a context command, else {@code null}
+ * @param guildOnly          whether the command may only be used in guilds
+ * @param ageRestricted      whether the command is age-restricted
+ * @param defaultPermissions the value of {@link dev.qixils.quasicord.decorators.slash.DefaultPermissions}, if present
+ * @param namespace          the value of the nearest {@link Namespace}, if present
+ * @param guildId            the value of the nearest {@link Guild}, if present
+ * @param parameters         the parameters of the method
+ */
+@ApiStatus.Internal
+public record CommandDescriptor(
+	@NonNull String signature,
+	@NonNull Kind kind,
+	@NonNull String id,
+	Command.@Nullable Type contextType,
+	boolean guildOnly,
+	boolean ageRestricted,
+	Permission @Nullable [] defaultPermissions,
+	@Nullable String namespace,
+	@Nullable String guildId,
+	@NonNull List<ParameterDescriptor> parameters
+) {
+
+	/**
+	 * The annotation declaring a command.
+	 */
+	public enum Kind {
+		/**
+		 * {@link ContextCommand}
+		 */
+		CONTEXT,
+		/**
+		 * {@link dev.qixils.quasicord.decorators.slash.SlashCommand}
+		 */
+		SLASH,
+		/**
+		 * {@link dev.qixils.quasicord.decorators.slash.SlashSubCommand}
+		 */
+		SUBCOMMAND
+	}
+
+	/**
+	 * The annotations of a command method's parameter.
+	 *
+	 * @param type        the type of the parameter
+	 * @param name        the name of the parameter, used in error messages
+	 * @param contextual  whether the parameter is annotated with {@link dev.qixils.quasicord.decorators.option.Contextual}
+	 * @param option      the option of the parameter, if it is annotated with {@link dev.qixils.quasicord.decorators.option.Option}
+	 * @param convertWith the value of {@link dev.qixils.quasicord.decorators.option.ConvertWith}, if present
+	 */
+	public record ParameterDescriptor(
+		@NonNull Class<?> type,
+		@NonNull String name,
+		boolean contextual,
+		@Nullable OptionDescriptor option,
+		@Nullable Class<? extends Converter<?, ?>> convertWith
+	) {
+	}
+
+	/**
+	 * The annotations of an option parameter.
+	 *
+	 * @param id               the ID of the option
+	 * @param required         whether the option is required
+	 * @param type             the declared type of the option
+	 * @param range            the value of {@link dev.qixils.quasicord.decorators.option.Range}, if present
+	 * @param channelTypes     the value of {@link dev.qixils.quasicord.decorators.option.ChannelTypes}, if present
+	 * @param choices          the repeated {@link dev.qixils.quasicord.decorators.option.Choice} annotations
+	 * @param autoCompleteWith the value of {@link dev.qixils.quasicord.decorators.option.AutoCompleteWith}, if present
+	 * @param autoCompleteFrom the value of {@link dev.qixils.quasicord.decorators.option.AutoCompleteFrom}, if present
+	 */
+	public record OptionDescriptor(
+		@NonNull String id,
+		boolean required,
+		@NonNull OptionType type,
+		@Nullable RangeDescriptor range,
+		ChannelType @Nullable [] channelTypes,
+		@NonNull List<ChoiceDescriptor> choices,
+		@Nullable Class<? extends AutoCompleter> autoCompleteWith,
+		@Nullable List<ChoiceDescriptor> autoCompleteFrom
+	) {
+	}
+
+	/**
+	 * The value of {@link dev.qixils.quasicord.decorators.option.Range}.
+	 *
+	 * @param min the minimum value
+	 * @param max the maximum value
+	 */
+	public record RangeDescriptor(double min, double max) {
+	}
+
+	/**
+	 * The value of {@link dev.qixils.quasicord.decorators.option.Choice}.
+	 *
+	 * @param id          the ID of the choice
+	 * @param intValue    the value of an integer choice
+	 * @param numberValue the value of a number choice
+	 * @param stringValue the value of a string choice
+	 */
+	public record ChoiceDescriptor(@NonNull String id, long intValue, double numberValue, @NonNull String stringValue) {
+	}
+}
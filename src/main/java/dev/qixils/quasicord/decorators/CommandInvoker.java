@@ -0,0 +1,177 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes the method backing an annotated command with its converted arguments.
+ * <p>
+ * Arguments for primitive parameters are passed unboxed in a separate {@code long[]}, at the index of their parameter.
+ * Integral and {@code char} values are stored as-is, booleans as {@code 1} or {@code 0}, and floating point values
+ * as their raw bits (see {@link #toBits(Object)}). Omitted primitive arguments are {@code 0}, i.e. their default value.
+ */
+@ApiStatus.Internal
+@FunctionalInterface
+public interface CommandInvoker {
+
+	/**
+	 * Invokes the command method.
+	 *
+	 * @param args       the converted arguments for reference parameters, with {@code null} for any omitted options;
+	 *                   elements for primitive parameters are ignored
+	 * @param primitives the converted arguments for primitive parameters; elements for reference parameters are ignored
+	 * @return the result of the method
+	 * @throws Throwable any exception thrown by the method
+	 */
+	@Nullable Object invoke(@Nullable Object @NonNull [] args, long @NonNull [] primitives) throws Throwable;
+
+	/**
+	 * Gets an invoker for a command method, preferring one {@link GeneratedCommands generated} at compile time
+	 * and otherwise {@link #compile(Object, Method) compiling} one.
+	 *
+	 * @param object the object to invoke the method on
+	 * @param method the command method
+	 * @return invoker
+	 * @throws IllegalArgumentException if no invoker was generated and the method cannot be accessed
+	 */
+	static @NonNull CommandInvoker of(@NonNull Object object, @NonNull Method method) throws IllegalArgumentException {
+		CommandInvoker generated = GeneratedCommandIndex.invoker(object, method);
+		return generated != null ? generated : compile(object, method);
+	}
+
+	/**
+	 * Compiles a command method into an invoker.
+	 * <p>
+	 * The method is bound to its instance and each parameter is bound to a read of its argument array ahead of time,
+	 * so invoking it skips the access and argument checks of {@link Method#invoke(Object, Object...)}
+	 * and passes primitive arguments without boxing them.
+	 *
+	 * @param object the object to invoke the method on
+	 * @param method the command method
+	 * @return compiled invoker
+	 * @throws IllegalArgumentException if the method cannot be accessed
+	 */
+	static @NonNull CommandInvoker compile(@NonNull Object object, @NonNull Method method) throws IllegalArgumentException {
+		MethodHandle handle;
+		try {
+			handle = MethodHandles.publicLookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			try {
+				handle = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup()).unreflect(method);
+			} catch (IllegalAccessException e2) {
+				throw new IllegalArgumentException("Cannot access command method " + method, e2);
+			}
+		}
+		if (!Modifier.isStatic(method.getModifiers()))
+			handle = handle.bindTo(object);
+		handle = handle.asType(handle.type().changeReturnType(Object.class));
+
+		// replace each parameter with a read of its argument array, starting from the last so earlier indices are unchanged
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = parameterTypes.length - 1; i >= 0; i--)
+			handle = MethodHandles.collectArguments(handle, i, argumentGetter(parameterTypes[i], i));
+
+		// every read takes both argument arrays
+		int[] reorder = new int[parameterTypes.length * 2];
+		for (int i = 0; i < reorder.length; i++)
+			reorder[i] = i % 2;
+		MethodHandle invoker = MethodHandles.permuteArguments(handle, MethodType.methodType(Object.class, Object[].class, long[].class), reorder);
+		return (args, primitives) -> (Object) invoker.invokeExact(args, primitives);
+	}
+
+	/**
+	 * Creates a method handle which reads the argument for a parameter from the argument arrays.
+	 *
+	 * @param type  the parameter type
+	 * @param index the index of the parameter
+	 * @return a method handle taking the reference and primitive argument arrays
+	 */
+	private static @NonNull MethodHandle argumentGetter(@NonNull Class<?> type, int index) {
+		if (!type.isPrimitive()) {
+			MethodHandle getter = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(Object[].class), 1, index);
+			return MethodHandles.dropArguments(getter.asType(MethodType.methodType(type, Object[].class)), 1, long[].class);
+		}
+
+		MethodHandle getter = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(long[].class), 1, index);
+		MethodHandle decoder;
+		try {
+			if (type == double.class) {
+				decoder = MethodHandles.publicLookup().findStatic(Double.class, "longBitsToDouble", MethodType.methodType(double.class, long.class));
+			} else if (type == float.class) {
+				decoder = MethodHandles.filterArguments(
+					MethodHandles.publicLookup().findStatic(Float.class, "intBitsToFloat", MethodType.methodType(float.class, int.class)),
+					0,
+					MethodHandles.explicitCastArguments(MethodHandles.identity(long.class), MethodType.methodType(int.class, long.class))
+				);
+			} else {
+				// integral values are narrowed and booleans take the lowest bit
+				decoder = MethodHandles.explicitCastArguments(MethodHandles.identity(long.class), MethodType.methodType(type, long.class));
+			}
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed to find primitive decoder", e);
+		}
+		return MethodHandles.dropArguments(MethodHandles.filterReturnValue(getter, decoder), 0, Object[].class);
+	}
+
+	/**
+	 * Gets the value passed in the primitive argument array for a boxed primitive.
+	 *
+	 * @param value the boxed primitive, or {@code null} for the default value
+	 * @return the value of the primitive argument
+	 * @throws IllegalArgumentException if the value is not a boxed primitive
+	 */
+	static long toBits(@Nullable Object value) throws IllegalArgumentException {
+		return switch (value) {
+			case null -> 0;
+			case Boolean bool -> bool ? 1 : 0;
+			case Character character -> character;
+			case Double number -> Double.doubleToRawLongBits(number);
+			case Float number -> Float.floatToRawIntBits(number);
+			case Long number -> number;
+			case Integer number -> number;
+			case Short number -> number;
+			case Byte number -> number;
+			default -> throw new IllegalArgumentException("Expected a boxed primitive but got " + value.getClass().getName());
+		};
+	}
+
+	/**
+	 * Moves the boxed arguments of primitive parameters into a primitive argument array.
+	 *
+	 * @param args           the converted arguments
+	 * @param parameterTypes the parameter types of the command method
+	 * @return primitive arguments
+	 */
+	static long @NonNull [] unbox(@Nullable Object @NonNull [] args, @NonNull Class<?> @NonNull [] parameterTypes) {
+		long[] primitives = new long[args.length];
+		for (int i = 0; i < args.length; i++) {
+			if (parameterTypes[i].isPrimitive())
+				primitives[i] = toBits(args[i]);
+		}
+		return primitives;
+	}
+
+	/**
+	 * Gets the class that converters should produce for a parameter type,
+	 * which is the wrapper class of primitive types.
+	 *
+	 * @param type the parameter type
+	 * @return the converter output type
+	 */
+	static @NonNull Class<?> wrap(@NonNull Class<?> type) {
+		return MethodType.methodType(type).wrap().returnType();
+	}
+}
@@ -1,16 +0,0 @@
-/*
- * This Source Code Form is subject to the terms of the Mozilla Public
- * License, v. 2.0. If a copy of the MPL was not distributed with this
- * file, You can obtain one at https://mozilla.org/MPL/2.0/.
- */
-
-package dev.qixils.quasicord.decorators;
-
-import dev.qixils.quasicord.converter.Converter;
-import org.checkerframework.checker.nullness.qual.NonNull;
-import org.checkerframework.checker.nullness.qual.Nullable;
-import org.jetbrains.annotations.ApiStatus;
-
-@ApiStatus.Internal
-public record ConverterData(@NonNull Converter<?, ?> converter, @Nullable String optName, @NonNull Class<?> targetClass) {
-}
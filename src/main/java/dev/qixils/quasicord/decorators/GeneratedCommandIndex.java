@@ -0,0 +1,66 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * Finds the {@link GeneratedCommands} of command classes.
+ */
+final class GeneratedCommandIndex {
+	private static final @NonNull Logger logger = LoggerFactory.getLogger(GeneratedCommandIndex.class);
+	private static final @NonNull ClassValue<Optional<GeneratedCommands>> GENERATED = new ClassValue<>() {
+		@Override
+		protected Optional<GeneratedCommands> computeValue(@NonNull Class<?> type) {
+			String name = type.getName() + GeneratedCommands.SUFFIX;
+			Class<?> generated;
+			try {
+				generated = Class.forName(name, true, type.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				return Optional.empty();
+			}
+			try {
+				return Optional.of((GeneratedCommands) generated.getConstructor().newInstance());
+			} catch (ReflectiveOperationException | ClassCastException e) {
+				logger.warn("Failed to load generated commands {}; falling back to reflection", name, e);
+				return Optional.empty();
+			}
+		}
+	};
+
+	private GeneratedCommandIndex() {
+	}
+
+	/**
+	 * Gets the generated commands of a class.
+	 *
+	 * @param type the command class
+	 * @return generated commands, or {@code null} if none were generated for the class
+	 */
+	static @Nullable GeneratedCommands of(@NonNull Class<?> type) {
+		return GENERATED.get(type).orElse(null);
+	}
+
+	/**
+	 * Gets the generated invoker for a command method.
+	 *
+	 * @param object the object to invoke the method on
+	 * @param method the command method
+	 * @return generated invoker, or {@code null} if none was generated for the method
+	 */
+	static @Nullable CommandInvoker invoker(@NonNull Object object, @NonNull Method method) {
+		return GENERATED.get(method.getDeclaringClass())
+			.map(generated -> generated.invoker(object, GeneratedCommands.signature(method)))
+			.orElse(null);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Descriptors and direct invokers for the command methods of a class, generated at compile time by the
+ * {@code quasicord-processor} annotation processor as {@code <Class>$QuasicordCommands}.
+ * <p>
+ * When present, these are used instead of reflecting over the annotations of the class and
+ * {@link CommandInvoker#compile(Object, Method) compiling} command methods at runtime.
+ */
+@ApiStatus.Internal
+public interface GeneratedCommands {
+
+	/**
+	 * The suffix appended to the binary name of a command class to get the name of its generated class.
+	 */
+	@NonNull String SUFFIX = "$QuasicordCommands";
+
+	/**
+	 * Creates an invoker for a command method.
+	 *
+	 * @param target    the object to invoke the method on
+	 * @param signature the {@link #signature(Method) signature} of the method
+	 * @return invoker, or {@code null} if no invoker was generated for the method
+	 */
+	@Nullable CommandInvoker invoker(@NonNull Object target, @NonNull String signature);
+
+	/**
+	 * Gets the descriptor of the {@link dev.qixils.quasicord.decorators.slash.SlashCommand SlashCommand}
+	 * annotation of the class itself, which its subcommands belong to.
+	 *
+	 * @return descriptor with an empty signature and no parameters, or {@code null} if the class is not a slash command
+	 */
+	default @Nullable CommandDescriptor parent() {
+		return null;
+	}
+
+	/**
+	 * Gets the descriptors of the command methods declared by the class.
+	 *
+	 * @return command descriptors, or {@code null} if they were not generated and must be read through reflection
+	 */
+	default @Nullable List<CommandDescriptor> commands() {
+		return null;
+	}
+
+	/**
+	 * Gets the signature identifying a method within its class,
+	 * e.g. {@code ban(net.dv8tion.jda.api.entities.User,java.lang.String)}.
+	 *
+	 * @param method the method
+	 * @return method signature
+	 */
+	static @NonNull String signature(@NonNull Method method) {
+		return method.getName() + Arrays.stream(method.getParameterTypes())
+			.map(Class::getTypeName)
+			.collect(Collectors.joining(",", "(", ")"));
+	}
+}
@@ -16,13 +16,21 @@ import net.dv8tion.jda.api.interactions.commands.CommandInteraction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 abstract class ParserCommand<I extends CommandInteraction> extends AbstractCommand<I> {
 
+	/**
+	 * Placeholder emitted by argument conversions for omitted options, as {@link Mono Monos} cannot emit {@code null}.
+	 */
+	protected static final @NonNull Object NULL = new Object();
 	protected final AnnotationParser parser;
 
 	protected ParserCommand(@NonNull AnnotationParser parser, @Nullable CommandData commandData, @NonNull Class<I> interactionClass, @Nullable String guildId) {
@@ -62,6 +70,100 @@ abstract class ParserCommand<I extends CommandInteraction> extends AbstractComma
 		throw new IllegalArgumentException("Converter must have a no-arg or Quasicord constructor");
 	}
 
+	/**
+	 * Invokes a command with its converted arguments, rethrowing any unchecked exception as-is
+	 * so that errors such as {@link dev.qixils.quasicord.error.UserError UserError} reach their handlers.
+	 *
+	 * @param invoker    the command invoker
+	 * @param args       the converted arguments
+	 * @param primitives the converted arguments of primitive parameters
+	 * @return the result of the command
+	 */
+	protected static @Nullable Object invoke(@NonNull CommandInvoker invoker, @Nullable Object @NonNull [] args, long @NonNull [] primitives) {
+		try {
+			return invoker.invoke(args, primitives);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Executes the command. Asynchronous commands run in the background; see {@link #acceptAsync(CommandInteraction)}.
+	 *
+	 * @param interaction the interaction object which triggered the command execution
+	 */
+	@Override
+	public void accept(@NonNull I interaction) {
+		acceptAsync(interaction);
+	}
+
+	@Override
+	public abstract @NonNull CompletableFuture<Void> acceptAsync(@NonNull I interaction);
+
+	/**
+	 * Invokes a command once all of its arguments have been converted.
+	 * Arguments are converted concurrently. On a virtual thread, this blocks until the command has been invoked;
+	 * otherwise, the command is invoked on a {@link Schedulers#boundedElastic() bounded elastic} thread.
+	 * Errors are reported to the {@link CommandManager}, so the returned future never completes exceptionally.
+	 *
+	 * @param interaction    the interaction being invoked
+	 * @param invoker        the command invoker
+	 * @param parameterTypes the parameter types of the command method
+	 * @param args           the argument conversions, which emit {@link #NULL} or nothing for {@code null} arguments
+	 * @return a future which completes once the command has been invoked
+	 */
+	@SuppressWarnings("unchecked")
+	protected @NonNull CompletableFuture<Void> invokeAsync(@NonNull I interaction, @NonNull CommandInvoker invoker, @NonNull Class<?> @NonNull [] parameterTypes, @NonNull Mono<?> @NonNull [] args) {
+		CommandManager commandManager = parser.getCommandManager();
+		// an empty argument would otherwise complete the zip without a value and silently drop the command
+		List<Mono<Object>> arguments = new ArrayList<>(args.length);
+		for (Mono<?> arg : args)
+			arguments.add(((Mono<Object>) arg).defaultIfEmpty(NULL));
+		Mono<Object[]> zipped = Mono.zip(arguments, values -> {
+				for (int i = 0; i < values.length; i++) {
+					if (values[i] == NULL)
+						values[i] = null;
+				}
+				return values;
+			})
+			.switchIfEmpty(Mono.error(() -> new IllegalStateException("Arguments of command " + getName() + " completed without a value")));
+
+		// blocking is cheap on a virtual thread and keeps the command within its executor slot
+		if (Thread.currentThread().isVirtual()) {
+			Object[] values;
+			try {
+				values = zipped.block();
+			} catch (RuntimeException e) {
+				commandManager.handleException(interaction, Exceptions.unwrap(e));
+				return CompletableFuture.completedFuture(null);
+			}
+			invokeAndConsume(interaction, invoker, parameterTypes, values);
+			return CompletableFuture.completedFuture(null);
+		}
+
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		zipped.publishOn(Schedulers.boundedElastic())
+			.subscribe(values -> {
+				invokeAndConsume(interaction, invoker, parameterTypes, values);
+				done.complete(null);
+			}, error -> {
+				commandManager.handleException(interaction, Exceptions.unwrap(error));
+				done.complete(null);
+			});
+		return done;
+	}
+
+	private void invokeAndConsume(@NonNull I interaction, @NonNull CommandInvoker invoker, @NonNull Class<?> @NonNull [] parameterTypes, @Nullable Object @NonNull [] values) {
+		try {
+			// conversions emit boxed values, so primitives are unboxed once all of them have completed
+			consumeCommandResult(interaction, invoke(invoker, values, CommandInvoker.unbox(values, parameterTypes)));
+		} catch (Exception e) {
+			parser.getCommandManager().handleException(interaction, e);
+		}
+	}
+
 	public static void consumeCommandResult(@NonNull CommandInteraction interaction, Object result) {
 		switch (result) {
 			case Mono<?> mono -> mono.subscribe(res -> consumeCommandResult(interaction, res));
@@ -9,55 +9,60 @@ package dev.qixils.quasicord.decorators;
 import dev.qixils.quasicord.CommandManager;
 import dev.qixils.quasicord.converter.Converter;
 import dev.qixils.quasicord.converter.VoidConverterImpl;
-import dev.qixils.quasicord.decorators.option.ConvertWith;
 import net.dv8tion.jda.api.interactions.Interaction;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.context.ContextInteraction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Mono;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 class ParserContextCommand extends ParserCommand<ContextInteraction> {
 
 	private final String id;
 	private final Converter<?, ?>[] converters;
-	private final Object object;
-	private final Method method;
+	private final CommandInvoker invoker;
+	private final Class<?>[] parameterTypes;
+	private final boolean async;
 
-	public ParserContextCommand(@NonNull String id, @NonNull AnnotationParser parser, @NonNull CommandData command, @NonNull Object object, @NonNull Method method, @Nullable String guildId) {
+	public ParserContextCommand(@NonNull String id, @NonNull AnnotationParser parser, @NonNull CommandData command, @NonNull CommandDescriptor descriptor, @NonNull CommandInvoker invoker, @Nullable String guildId) {
 		super(parser, command, ContextInteraction.class, guildId);
 		this.id = id;
 		CommandManager commandManager = parser.getCommandManager();
-		this.object = object;
-		this.method = method;
+		this.invoker = invoker;
+		List<CommandDescriptor.ParameterDescriptor> parameters = descriptor.parameters();
+		this.parameterTypes = parameters.stream().map(CommandDescriptor.ParameterDescriptor::type).toArray(Class<?>[]::new);
 
 		// parameters
-		converters = new Converter<?, ?>[method.getParameterCount()];
-		for (int i = 0; i < method.getParameterCount(); i++) {
+		converters = new Converter<?, ?>[parameters.size()];
+		for (int i = 0; i < parameters.size(); i++) {
 			// set converter
-			Parameter parameter = method.getParameters()[i];
-			ConvertWith convertWith = parameter.getAnnotation(ConvertWith.class);
+			CommandDescriptor.ParameterDescriptor parameter = parameters.get(i);
+			Class<?> parameterType = CommandInvoker.wrap(parameter.type());
+			Class<? extends Converter<?, ?>> convertWith = parameter.convertWith();
 
 			// converter data
 			Converter<?, ?> converter;
 
 			if (convertWith != null) {
-				converter = createConverter(convertWith.value());
+				converter = createConverter(convertWith);
 			} else {
-				if (Interaction.class.isAssignableFrom(parameter.getType()))
+				if (Interaction.class.isAssignableFrom(parameterType))
 					converter = new VoidConverterImpl<>(Interaction.class, Function.identity());
 				else {
-					converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(Void.class, parameter.getType());
+					converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(Void.class, parameterType);
 					if (converter == null)
-						throw new IllegalArgumentException("No converter found for parameter " + parameter.getName() + " of type " + parameter.getType().getName());
+						throw new IllegalArgumentException("No converter found for parameter " + parameter.name() + " of type " + parameterType.getName());
 				}
 			}
 
 			converters[i] = converter;
 		}
+		this.async = Arrays.stream(converters).anyMatch(Converter::isAsync);
 	}
 
 	@SuppressWarnings("DataFlowIssue")
@@ -76,10 +81,21 @@ class ParserContextCommand extends ParserCommand<ContextInteraction> {
 		return getCommandData().getName();
 	}
 
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	@Override
-	public void accept(@NonNull ContextInteraction interaction) {
+	public @NonNull CompletableFuture<Void> acceptAsync(@NonNull ContextInteraction interaction) {
 		// note: this has no try/catch because that is being handled at an even higher level than this
 
+		if (async) {
+			Mono<?>[] args = new Mono<?>[converters.length];
+			for (int i = 0; i < args.length; i++) {
+				Converter converter = converters[i];
+				//noinspection DataFlowIssue
+				args[i] = converter.convertAsync(interaction, null, converter.getOutputClass());
+			}
+			return invokeAsync(interaction, invoker, parameterTypes, args);
+		}
+
 		// fetch args
 		Object[] args = new Object[converters.length];
 		for (int i = 0; i < args.length; i++) {
@@ -88,10 +104,7 @@ class ParserContextCommand extends ParserCommand<ContextInteraction> {
 		}
 
 		// invoke and handle
-		try {
-			consumeCommandResult(interaction, method.invoke(object, args));
-		} catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+		consumeCommandResult(interaction, invoke(invoker, args, CommandInvoker.unbox(args, parameterTypes)));
+		return CompletableFuture.completedFuture(null);
 	}
 }
@@ -14,12 +14,12 @@ import dev.qixils.quasicord.cogs.SlashCommandDataBranch;
 import dev.qixils.quasicord.converter.Converter;
 import dev.qixils.quasicord.converter.VoidConverter;
 import dev.qixils.quasicord.converter.VoidConverterImpl;
-import dev.qixils.quasicord.decorators.option.*;
 import dev.qixils.quasicord.locale.TranslationProvider;
 import dev.qixils.quasicord.locale.translation.SingleTranslation;
 import dev.qixils.quasicord.locale.translation.UnknownTranslation;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.Channel;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.interactions.Interaction;
 import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
@@ -28,74 +28,89 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Mono;
 
-import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
 
 class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implements SlashCommand {
 
 	private final String id;
 	private final TranslationProvider i18n;
 	private final SlashCommandDataBranch branch;
-	private final ConverterData[] converters;
-	private final Object object;
-	private final Method method;
+	private final ArgumentResolver[] resolvers;
+	private final PrimitiveResolver @NonNull [] primitiveResolvers;
+	private final AsyncArgumentResolver @Nullable [] asyncResolvers;
+	private final Map<String, Integer> optionIndices;
+	private final CommandInvoker invoker;
+	private final Class<?>[] parameterTypes;
 
-	public ParserSlashCommand(String id, AnnotationParser parser, TranslationProvider i18n, SlashCommandDataBranch branch, Object object, Method method, @Nullable String guildId) {
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public ParserSlashCommand(String id, AnnotationParser parser, TranslationProvider i18n, SlashCommandDataBranch branch, CommandDescriptor descriptor, CommandInvoker invoker, @Nullable String guildId) {
 		super(parser, branch.rootIfStandalone(), SlashCommandInteraction.class, guildId);
 		this.id = id;
 		CommandManager commandManager = parser.getCommandManager();
 		this.i18n = i18n;
 		String namespace = i18n.getNamespace();
 		this.branch = branch;
-		this.object = object;
-		this.method = method;
+		this.invoker = invoker;
+		List<CommandDescriptor.ParameterDescriptor> parameters = descriptor.parameters();
+		this.parameterTypes = parameters.stream().map(CommandDescriptor.ParameterDescriptor::type).toArray(Class<?>[]::new);
 
 		// parameters
-		converters = new ConverterData[method.getParameterCount()];
-		for (int i = 0; i < method.getParameterCount(); i++) {
+		resolvers = new ArgumentResolver[parameters.size()];
+		primitiveResolvers = new PrimitiveResolver[parameters.size()];
+		AsyncArgumentResolver[] asyncResolvers = new AsyncArgumentResolver[parameters.size()];
+		boolean async = false;
+		Map<String, Integer> optionIndices = new HashMap<>();
+		for (int i = 0; i < parameters.size(); i++) {
 			// set converter
-			Parameter parameter = method.getParameters()[i];
-			Contextual contextual = parameter.getAnnotation(Contextual.class);
-			Option option = parameter.getAnnotation(Option.class);
-			if (contextual != null && option != null)
+			CommandDescriptor.ParameterDescriptor parameter = parameters.get(i);
+			Class<?> parameterType = CommandInvoker.wrap(parameter.type());
+			boolean contextual = parameter.contextual();
+			CommandDescriptor.OptionDescriptor option = parameter.option();
+			if (contextual && option != null)
 				throw new IllegalArgumentException("Cannot have both @Contextual and @Option on the same parameter");
-			ConvertWith convertWith = parameter.getAnnotation(ConvertWith.class);
+			Class<? extends Converter<?, ?>> convertWith = parameter.convertWith();
 
 			// converter data
 			Converter<?, ?> converter;
+			Class<?> inputClass = null;
 			String optNameStr = null;
 
 			if (convertWith != null) {
-				converter = createConverter(convertWith.value());
-			} else if (contextual != null) {
-				if (Interaction.class.isAssignableFrom(parameter.getType()))
+				converter = createConverter(convertWith);
+			} else if (contextual) {
+				if (Interaction.class.isAssignableFrom(parameterType))
 					converter = new VoidConverterImpl<>(Interaction.class, Function.identity());
 				else {
-					converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(Void.class, parameter.getType());
+					converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(Void.class, parameterType);
 					if (converter == null)
-						throw new IllegalArgumentException("No converter found for parameter " + parameter.getName() + " of type " + parameter.getType().getName());
+						throw new IllegalArgumentException("No converter found for parameter " + parameter.name() + " of type " + parameterType.getName());
 				}
 			} else if (option != null) {
-				Class<?> inputClass = parseInputClass(parameter.getType(), option.type());
-				converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(inputClass, parameter.getType());
+				inputClass = parseInputClass(parameterType, option.type());
+				converter = commandManager.getLibrary().getRootRegistry().CONVERTER_REGISTRY.findConverter(inputClass, parameterType);
 				if (converter == null)
-					throw new IllegalArgumentException("No converter found for parameter " + parameter.getName() + " of type " + parameter.getType().getName());
+					throw new IllegalArgumentException("No converter found for parameter " + parameter.name() + " of type " + parameterType.getName());
 			} else {
 				throw new IllegalArgumentException("Parameters must be annotated with @Contextual or @Option");
 			}
 
 			if (option != null) {
 				// register option
-				String optId = option.value();
+				String optId = option.id();
 				String fullOptId = id + ".options." + optId;
-				AutoCompleteWith acWith = parameter.getAnnotation(AutoCompleteWith.class);
-				AutoCompleteFrom acFrom = parameter.getAnnotation(AutoCompleteFrom.class);
-				Range range = parameter.getAnnotation(Range.class);
-				ChannelTypes channelTypes = parameter.getAnnotation(ChannelTypes.class);
-				Choice[] choices = parameter.getAnnotationsByType(Choice.class);
+				Class<? extends AutoCompleter> acWith = option.autoCompleteWith();
+				List<CommandDescriptor.ChoiceDescriptor> acFrom = option.autoCompleteFrom();
+				CommandDescriptor.RangeDescriptor range = option.range();
+				ChannelType[] channelTypes = option.channelTypes();
+				List<CommandDescriptor.ChoiceDescriptor> choices = option.choices();
 
 				// name
 				SingleTranslation optName = i18n.getSingle(id + ".options." + optId + ".name", i18n.getDefaultLocale());
@@ -111,8 +126,8 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 
 				// option
 				OptionData opt = new OptionData(option.type(), optNameStr, optDescriptionStr, option.required(), acWith != null || acFrom != null);
-				opt.setNameLocalizations(i18n.getDiscordTranslations(id + ".options." + optId + ".name"));
-				opt.setDescriptionLocalizations(i18n.getDiscordTranslations(id + ".options." + optId + ".description"));
+				parser.localize(i18n, fullOptId + ".name", branch.root(), optNameStr, opt::setNameLocalizations);
+				parser.localize(i18n, fullOptId + ".description", branch.root(), optDescriptionStr, opt::setDescriptionLocalizations);
 
 				// range
 				if (range != null) {
@@ -128,10 +143,10 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 
 				// channel types
 				if (channelTypes != null)
-					opt.setChannelTypes(channelTypes.value());
+					opt.setChannelTypes(channelTypes);
 
 				// choices
-				if (choices.length > 0) {
+				if (!choices.isEmpty()) {
 					if (!opt.getType().canSupportChoices())
 						throw new IllegalArgumentException("Cannot use @Choice on option of type " + option.type());
 					opt.addChoices(createChoices(choices, option.type(), id + ".options." + optId + ".choices."));
@@ -145,10 +160,10 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 						throw new IllegalArgumentException("Cannot use @Choice on option of type " + option.type());
 				}
 				if (acWith != null) {
-					AutoCompleter autoCompleter = parser.registerAutoCompleter(acWith.value());
+					AutoCompleter autoCompleter = parser.registerAutoCompleter(acWith);
 					parser.putAutoCompleter(fullOptId, autoCompleter);
 				} else if (acFrom != null) {
-					var autocompletes = createChoices(acFrom.value(), option.type(), fullOptId + ".choices.");
+					var autocompletes = createChoices(acFrom, option.type(), fullOptId + ".choices.");
 					AutoCompleter autoCompleter = new AutoCompleterFrom(autocompletes);
 					parser.putAutoCompleter(fullOptId, autoCompleter);
 				}
@@ -160,8 +175,49 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 					branch.root().addOptions(opt);
 			}
 
-			converters[i] = new ConverterData(converter, optNameStr, parameter.getType());
+			// resolver
+			async |= converter.isAsync();
+			if (converter instanceof VoidConverter<?> voidConverter) {
+				resolvers[i] = (interaction, options) -> voidConverter.convert(interaction);
+				asyncResolvers[i] = (interaction, options) -> ((Converter) voidConverter).convertAsync(interaction, null, parameterType);
+			} else {
+				String optName = Objects.requireNonNull(optNameStr, "Only @Option parameters may use converters that take an input");
+				int index = optionIndices.size();
+				optionIndices.put(optName, index);
+				Converter rawConverter = converter;
+				// the converter found for an option may accept a supertype of the option's value, such as Number
+				Function<OptionMapping, Object> extractor = createExtractor(inputClass != null ? inputClass : converter.getInputClass());
+				resolvers[i] = (interaction, options) -> {
+					OptionMapping option = options[index];
+					if (option == null)
+						return null;
+					return rawConverter.convert(interaction, extractor.apply(option), parameterType);
+				};
+				asyncResolvers[i] = (interaction, options) -> {
+					OptionMapping option = options[index];
+					if (option == null)
+						return Mono.just(NULL);
+					return Mono.defer(() -> rawConverter.convertAsync(interaction, extractor.apply(option), parameterType));
+				};
+
+				// read primitive options directly instead of boxing them through a converter
+				ToLongFunction<OptionMapping> primitiveExtractor = convertWith == null && inputClass != null
+					? createPrimitiveExtractor(inputClass, parameter.type())
+					: null;
+				if (primitiveExtractor != null) {
+					primitiveResolvers[i] = (interaction, options) -> {
+						OptionMapping option = options[index];
+						return option == null ? 0 : primitiveExtractor.applyAsLong(option);
+					};
+				}
+			}
+			if (parameter.type().isPrimitive() && primitiveResolvers[i] == null) {
+				ArgumentResolver resolver = resolvers[i];
+				primitiveResolvers[i] = (interaction, options) -> CommandInvoker.toBits(resolver.resolve(interaction, options));
+			}
 		}
+		this.optionIndices = Map.copyOf(optionIndices);
+		this.asyncResolvers = async ? asyncResolvers : null;
 	}
 
 	@Override
@@ -180,59 +236,132 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 		return branch;
 	}
 
-	@SuppressWarnings({"rawtypes", "unchecked"})
 	@Override
-	public void accept(@NonNull SlashCommandInteraction interaction) {
+	public @NonNull CompletableFuture<Void> acceptAsync(@NonNull SlashCommandInteraction interaction) {
 		// note: this has no try/catch because that is being handled at an even higher level than this
 
+		// index the provided options
+		OptionMapping[] options = new OptionMapping[optionIndices.size()];
+		for (OptionMapping option : interaction.getOptions()) {
+			Integer index = optionIndices.get(option.getName());
+			if (index != null)
+				options[index] = option;
+		}
+
+		if (asyncResolvers != null) {
+			Mono<?>[] args = new Mono<?>[asyncResolvers.length];
+			for (int i = 0; i < args.length; i++)
+				args[i] = asyncResolvers[i].resolve(interaction, options);
+			return invokeAsync(interaction, invoker, parameterTypes, args);
+		}
+
 		// fetch args
-		Object[] args = new Object[converters.length];
+		Object[] args = new Object[resolvers.length];
+		long[] primitives = new long[resolvers.length];
 		for (int i = 0; i < args.length; i++) {
-			ConverterData converterData = converters[i];
-			Converter converter = converterData.converter();
-			if (converter instanceof VoidConverter<?> voidConverter) {
-				args[i] = voidConverter.convert(interaction);
-				continue;
-			}
-			String optName = Objects.requireNonNull(converterData.optName(), "optName should only be null for @Contextual parameters");
-			OptionMapping option = interaction.getOption(optName);
-			if (option == null) {
-				args[i] = null;
-				continue;
-			}
+			PrimitiveResolver primitiveResolver = primitiveResolvers[i];
+			if (primitiveResolver != null)
+				primitives[i] = primitiveResolver.resolve(interaction, options);
+			else
+				args[i] = resolvers[i].resolve(interaction, options);
+		}
+
+		// invoke and handle
+		consumeCommandResult(interaction, invoke(invoker, args, primitives));
+		return CompletableFuture.completedFuture(null);
+	}
 
-			Class inputClass = converter.getInputClass();
-			// maybe this would be better done with a pair of hashmaps between Class<?> and Converter<?, ?>?
-			// and a method on the converter that converts from just the Interaction and OptionMapping.
-			Object input; // extract the appropriate type from the interaction option for the converter:
-			if (inputClass == String.class)  			 input = option.getAsString();
-			else if (inputClass == Long.class)   			 input = option.getAsInt();
-			else if (inputClass == Double.class)   	 		 input = option.getAsDouble();
-			else if (inputClass == Boolean.class)  	 		 input = option.getAsBoolean();
-			else if (inputClass == Channel.class)   		 input = option.getAsChannel();
-			else if (inputClass == Role.class)    		     input = option.getAsRole();
-			else if (inputClass == IMentionable.class) 		 input = option.getAsMentionable();
-			else if (inputClass == Message.Attachment.class) input = option.getAsAttachment();
-			else if (inputClass == User.class)				 input = option.getAsUser();
-			else if (inputClass == Member.class)  {
+	/**
+	 * Creates a function which extracts the input of a converter from an interaction option.
+	 *
+	 * @param inputClass the class of the option value passed to the converter
+	 * @return option extractor
+	 * @throws IllegalArgumentException if options cannot be extracted as the input class
+	 */
+	private static Function<OptionMapping, Object> createExtractor(Class<?> inputClass) throws IllegalArgumentException {
+		if (inputClass == String.class)					return OptionMapping::getAsString;
+		if (inputClass == Long.class)					return OptionMapping::getAsLong;
+		if (inputClass == Double.class)					return OptionMapping::getAsDouble;
+		if (inputClass == Boolean.class)				return OptionMapping::getAsBoolean;
+		if (inputClass == Channel.class)				return OptionMapping::getAsChannel;
+		if (inputClass == Role.class)					return OptionMapping::getAsRole;
+		if (inputClass == IMentionable.class)			return OptionMapping::getAsMentionable;
+		if (inputClass == Message.Attachment.class)		return OptionMapping::getAsAttachment;
+		if (inputClass == User.class)					return OptionMapping::getAsUser;
+		if (inputClass == Member.class) {
+			return option -> {
 				var maybe_member = option.getAsMember(); // I think this is the only case where it is nullable
-				if (maybe_member == null) {
+				if (maybe_member == null)
 					throw new IllegalArgumentException("Member was not found in this guild for " + option.getName());
-				} else {
-					input = maybe_member;
-				}
-			}
-
-			else throw new IllegalArgumentException("Could not accept interaction option of type " + option.getType() + " for a converter from " + inputClass.getName());
-			args[i] = converter.convert(interaction, input, converterData.targetClass());
+				return maybe_member;
+			};
 		}
+		throw new IllegalArgumentException("Could not accept interaction options for a converter from " + inputClass.getName());
+	}
 
-		// invoke and handle
-		try {
-			consumeCommandResult(interaction, method.invoke(object, args));
-		} catch (Exception e) {
-			throw new RuntimeException(e);
-		}
+	/**
+	 * Creates a function which extracts an option as the value of a primitive parameter,
+	 * as passed to {@link CommandInvoker#invoke(Object[], long[])}.
+	 *
+	 * @param inputClass    the class of the option value
+	 * @param parameterType the type of the parameter
+	 * @return option extractor, or {@code null} if the option must be converted to the parameter type
+	 */
+	private static @Nullable ToLongFunction<OptionMapping> createPrimitiveExtractor(Class<?> inputClass, Class<?> parameterType) {
+		if (inputClass == Long.class && (parameterType == long.class || parameterType == int.class || parameterType == short.class || parameterType == byte.class))
+			return OptionMapping::getAsLong;
+		if (inputClass == Double.class && parameterType == double.class)
+			return option -> Double.doubleToRawLongBits(option.getAsDouble());
+		if (inputClass == Double.class && parameterType == float.class)
+			return option -> Float.floatToRawIntBits((float) option.getAsDouble());
+		if (inputClass == Boolean.class && parameterType == boolean.class)
+			return option -> option.getAsBoolean() ? 1 : 0;
+		return null;
+	}
+
+	/**
+	 * Resolves the argument of a single command parameter.
+	 */
+	@FunctionalInterface
+	private interface ArgumentResolver {
+		/**
+		 * Resolves the argument for an invocation.
+		 *
+		 * @param interaction the interaction being invoked
+		 * @param options     the provided options, indexed by their option index
+		 * @return the argument, or {@code null} if the option was not provided
+		 */
+		@Nullable Object resolve(@NonNull SlashCommandInteraction interaction, @Nullable OptionMapping @NonNull [] options);
+	}
+
+	/**
+	 * Resolves the argument of a single primitive command parameter without boxing it.
+	 */
+	@FunctionalInterface
+	private interface PrimitiveResolver {
+		/**
+		 * Resolves the argument for an invocation.
+		 *
+		 * @param interaction the interaction being invoked
+		 * @param options     the provided options, indexed by their option index
+		 * @return the argument as passed to {@link CommandInvoker#invoke(Object[], long[])}
+		 */
+		long resolve(@NonNull SlashCommandInteraction interaction, @Nullable OptionMapping @NonNull [] options);
+	}
+
+	/**
+	 * Resolves the argument of a single command parameter without blocking.
+	 */
+	@FunctionalInterface
+	private interface AsyncArgumentResolver {
+		/**
+		 * Resolves the argument for an invocation.
+		 *
+		 * @param interaction the interaction being invoked
+		 * @param options     the provided options, indexed by their option index
+		 * @return a {@link Mono} that emits the argument, or {@link ParserCommand#NULL} if the option was not provided
+		 */
+		@NonNull Mono<?> resolve(@NonNull SlashCommandInteraction interaction, @Nullable OptionMapping @NonNull [] options);
 	}
 
 	private Class<?> parseInputClass(Class<?> outputClass, OptionType optionType) {
@@ -266,13 +395,13 @@ class ParserSlashCommand extends ParserCommand<SlashCommandInteraction> implemen
 		throw new IllegalArgumentException("Cannot guess input class for output class " + outputClass.getName());
 	}
 
-	private net.dv8tion.jda.api.interactions.commands.Command.Choice[] createChoices(Choice[] choices, OptionType optionType, String rootKey) {
-		if (choices.length > OptionData.MAX_CHOICES)
+	private net.dv8tion.jda.api.interactions.commands.Command.Choice[] createChoices(List<CommandDescriptor.ChoiceDescriptor> choices, OptionType optionType, String rootKey) {
+		if (choices.size() > OptionData.MAX_CHOICES)
 			throw new IllegalArgumentException("Cannot have more than " + OptionData.MAX_CHOICES + " choices");
-		net.dv8tion.jda.api.interactions.commands.Command.Choice[] jdaChoices = new net.dv8tion.jda.api.interactions.commands.Command.Choice[choices.length];
-		for (int i = 0; i < choices.length; i++) {
-			Choice choice = choices[i];
-			String id = rootKey + choice.value() + ".name";
+		net.dv8tion.jda.api.interactions.commands.Command.Choice[] jdaChoices = new net.dv8tion.jda.api.interactions.commands.Command.Choice[choices.size()];
+		for (int i = 0; i < choices.size(); i++) {
+			CommandDescriptor.ChoiceDescriptor choice = choices.get(i);
+			String id = rootKey + choice.id() + ".name";
 			SingleTranslation name = i18n.getSingle(id, i18n.getDefaultLocale());
 			if (name instanceof UnknownTranslation)
 				throw new IllegalStateException("Missing translation for choice " + id);
@@ -0,0 +1,36 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares gateway intents which a command, cog or event handler needs beyond those implied by the
+ * events it listens to, such as {@link GatewayIntent#GUILD_MEMBERS} for commands which read the member cache.
+ * <p>
+ * Intents are only enabled for objects known when the bot starts, i.e. the default event handler and cogs
+ * registered through {@link dev.qixils.quasicord.Quasicord.Builder Quasicord.Builder}.
+ * Objects registered later which declare intents that were not enabled are logged as a warning.
+ * <p>
+ * Library features which rely on events, such as
+ * {@link dev.qixils.quasicord.utils.MessageUtil#setupReactionMenu reaction menus}, also declare their intents
+ * with this annotation. These are enabled by default, but must be required through the builder when minimizing intents.
+ */
+@Inherited
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresIntents {
+
+	/**
+	 * The intents required by the annotated element.
+	 *
+	 * @return required intents
+	 */
+	GatewayIntent[] value();
+}
@@ -7,24 +7,30 @@
 package dev.qixils.quasicord.events;
 
 import dev.qixils.quasicord.registry.Registry;
-import org.apache.commons.collections4.MultiValuedMap;
-import org.apache.commons.collections4.multimap.ArrayListValuedHashMap;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.*;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 /**
  * Handles the registration of event listeners and dispatching of events.
+ * <p>
+ * Listeners receive events of their registered class and of any of its subclasses or implementations,
+ * i.e. a listener for {@code GenericMessageEvent} receives every {@code MessageReceivedEvent}.
+ * Listeners may be registered at any time, including while events are being dispatched.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public final class EventDispatcher {
 	private static final @NonNull Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
-	private final @NonNull MultiValuedMap<Class<?>, Consumer> listeners = new ArrayListValuedHashMap<>();
-	private final @NonNull MultiValuedMap<Class<? extends Registry<?>>, Consumer<? extends Registry<?>>> registryInitListeners = new ArrayListValuedHashMap<>();
+	private final @NonNull ListenerTable listeners = new ListenerTable();
+	private final @NonNull ListenerTable registryInitListeners = new ListenerTable();
 
 	/**
 	 * Registers a listener for the given event class.
@@ -34,7 +40,7 @@ public final class EventDispatcher {
 	 * @param <T>        the type of the event
 	 */
 	public <T> void registerListener(@NonNull Class<T> eventClass, @NonNull Consumer<T> listener) {
-		listeners.put(eventClass, listener);
+		listeners.register(eventClass, listener);
 	}
 
 	/**
@@ -45,7 +51,7 @@ public final class EventDispatcher {
 	 * @param <T>           the type of the registry
 	 */
 	public <T extends Registry<?>> void registerRegistryInitListener(@NonNull Class<T> registryClass, @NonNull Consumer<T> listener) {
-		registryInitListeners.put(registryClass, listener);
+		registryInitListeners.register(registryClass, listener);
 	}
 
 	/**
@@ -63,28 +69,69 @@ public final class EventDispatcher {
 			if (Modifier.isStatic(method.getModifiers())) continue;
 			if (method.getParameterCount() != 1) continue;
 			if (method.isAnnotationPresent(EventListener.class)) {
-				listeners.put(method.getParameterTypes()[0], event -> {
-					try {
-						method.invoke(eventListeners, event);
-					} catch (Exception e) {
-						throw new RuntimeException("Failed to invoke event handler", e);
-					}
-				});
+				listeners.register(method.getParameterTypes()[0], compileListener(method, eventListeners));
 			} else if (method.isAnnotationPresent(RegistryInitListener.class)) {
 				RegistryInitListener annotation = method.getAnnotation(RegistryInitListener.class);
-				registryInitListeners.put(annotation.value(), registry -> {
-					try {
-						method.invoke(eventListeners, registry);
-					} catch (Exception e) {
-						throw new RuntimeException("Failed to invoke registry event handler", e);
-					}
-				});
+				registryInitListeners.register(annotation.value(), compileListener(method, eventListeners));
 			}
 		}
 	}
 
+	/**
+	 * Compiles a listener method into a {@link Consumer} which calls it directly.
+	 * <p>
+	 * The consumer is generated with {@link LambdaMetafactory} so that dispatching does not go through
+	 * reflection. If the method cannot be accessed this way, a reflective consumer is returned instead.
+	 * In either case, exceptions thrown by the method are propagated as-is, to be logged by the dispatcher.
+	 *
+	 * @param method the listener method
+	 * @param target the object to invoke the method on
+	 * @return a consumer which invokes the method
+	 */
+	private static @NonNull Consumer compileListener(@NonNull Method method, @NonNull Object target) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+			MethodHandle handle = lookup.unreflect(method);
+			CallSite site = LambdaMetafactory.metafactory(
+				lookup,
+				"accept",
+				MethodType.methodType(Consumer.class, declaringClass),
+				MethodType.methodType(void.class, Object.class),
+				handle,
+				MethodType.methodType(void.class, method.getParameterTypes()[0])
+			);
+			return (Consumer) site.getTarget().invoke(target);
+		} catch (Throwable e) {
+			LOGGER.debug("Falling back to reflection for listener {}", method, e);
+		}
+		return event -> {
+			try {
+				method.invoke(target, event);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof RuntimeException runtime)
+					throw runtime;
+				if (e.getCause() instanceof Error error)
+					throw error;
+				throw new RuntimeException("Failed to invoke event handler", e.getCause());
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException("Failed to invoke event handler", e);
+			}
+		};
+	}
+
+	/**
+	 * Returns the event classes which have at least one registered listener.
+	 *
+	 * @return an unmodifiable set of event classes
+	 */
+	public @NonNull Set<Class<?>> getListenedEventClasses() {
+		return listeners.getRegisteredClasses();
+	}
+
 	/**
 	 * Dispatches the given event to all registered listeners.
+	 * Anything thrown by a listener is logged and does not prevent the event from reaching the remaining listeners.
 	 *
 	 * @param event the event to dispatch
 	 */
@@ -92,24 +139,113 @@ public final class EventDispatcher {
 		for (Consumer handler : listeners.get(event.getClass())) {
 			try {
 				handler.accept(event);
-			} catch (Exception e) {
-				LOGGER.error("Error while dispatching event", e);
+			} catch (VirtualMachineError e) {
+				throw e;
+			} catch (Throwable e) {
+				LOGGER.error("Error while dispatching event {}", event.getClass().getName(), e);
 			}
 		}
 	}
 
 	/**
 	 * Dispatches the given registry initialization event to all registered listeners.
+	 * Anything thrown by a listener is logged and does not prevent the event from reaching the remaining listeners.
 	 *
 	 * @param registry the registry being initialized
 	 */
 	public void dispatchRegistryInit(@NonNull Registry<?> registry) {
-		for (Consumer handler : registryInitListeners.get((Class<? extends Registry<?>>) registry.getClass())) {
+		for (Consumer handler : registryInitListeners.get(registry.getClass())) {
 			try {
 				handler.accept(registry);
-			} catch (Exception e) {
-				LOGGER.error("Error while dispatching registry init event", e);
+			} catch (VirtualMachineError e) {
+				throw e;
+			} catch (Throwable e) {
+				LOGGER.error("Error while dispatching registry init event {}", registry.getClass().getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * A copy-on-write table of listeners.
+	 * <p>
+	 * Registration publishes a new immutable snapshot, so lookups never need to lock. Each snapshot
+	 * lazily caches the listeners applicable to each concrete class it is asked about, flattened
+	 * across the class and interface hierarchy.
+	 */
+	private static final class ListenerTable {
+		private final @NonNull Object lock = new Object();
+		private volatile @NonNull Snapshot snapshot = new Snapshot(Map.of());
+
+		private void register(@NonNull Class<?> type, @NonNull Consumer listener) {
+			Objects.requireNonNull(type, "type cannot be null");
+			Objects.requireNonNull(listener, "listener cannot be null");
+			synchronized (lock) {
+				Map<Class<?>, Consumer[]> registered = new HashMap<>(snapshot.registered);
+				registered.merge(type, new Consumer[]{listener}, (existing, added) -> {
+					Consumer[] merged = Arrays.copyOf(existing, existing.length + 1);
+					merged[existing.length] = listener;
+					return merged;
+				});
+				snapshot = new Snapshot(Map.copyOf(registered));
+			}
+		}
+
+		private Consumer @NonNull [] get(@NonNull Class<?> type) {
+			return snapshot.get(type);
+		}
+
+		private @NonNull Set<Class<?>> getRegisteredClasses() {
+			return snapshot.registered.keySet();
+		}
+	}
+
+	private record Snapshot(@NonNull Map<Class<?>, Consumer[]> registered,
+							@NonNull Map<Class<?>, Consumer[]> resolved) {
+		private static final Consumer @NonNull [] EMPTY = new Consumer[0];
+
+		private Snapshot(@NonNull Map<Class<?>, Consumer[]> registered) {
+			this(registered, new ConcurrentHashMap<>());
+		}
+
+		private Consumer @NonNull [] get(@NonNull Class<?> type) {
+			Consumer[] handlers = resolved.get(type);
+			if (handlers != null)
+				return handlers;
+			return resolved.computeIfAbsent(type, this::resolve);
+		}
+
+		private Consumer @NonNull [] resolve(@NonNull Class<?> type) {
+			if (registered.isEmpty())
+				return EMPTY;
+			List<Consumer> handlers = new ArrayList<>();
+			for (Class<?> supertype : hierarchy(type)) {
+				Consumer[] registeredHandlers = registered.get(supertype);
+				if (registeredHandlers != null)
+					Collections.addAll(handlers, registeredHandlers);
+			}
+			return handlers.isEmpty() ? EMPTY : handlers.toArray(Consumer[]::new);
+		}
+
+		/**
+		 * Gets a class along with all of its superclasses and implemented interfaces,
+		 * ordered from most to least specific.
+		 *
+		 * @param type the class to inspect
+		 * @return the class hierarchy
+		 */
+		private static @NonNull Set<Class<?>> hierarchy(@NonNull Class<?> type) {
+			Set<Class<?>> hierarchy = new LinkedHashSet<>();
+			Deque<Class<?>> queue = new ArrayDeque<>();
+			queue.add(type);
+			while (!queue.isEmpty()) {
+				Class<?> next = queue.poll();
+				if (!hierarchy.add(next))
+					continue;
+				if (next.getSuperclass() != null)
+					queue.add(next.getSuperclass());
+				Collections.addAll(queue, next.getInterfaces());
 			}
+			return hierarchy;
 		}
 	}
 }
@@ -0,0 +1,228 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale;
+
+import dev.qixils.quasicord.db.DatabaseManager;
+import dev.qixils.quasicord.db.collection.LocaleConfig;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent lookups of {@link LocaleConfig} documents into batched queries.
+ * <p>
+ * Requested IDs are collected until either the batch window elapses or the batch reaches its
+ * maximum size, at which point a single {@code $in} query is sent for the whole batch.
+ * Lookups of an ID which is already queued or awaiting a response share the pending result
+ * instead of querying it again.
+ */
+public final class LocaleBatcher {
+	private final @NonNull DatabaseManager db;
+	private final @NonNull Duration window;
+	private final int maxBatchSize;
+	private final @NonNull Object lock = new Object();
+	private final @NonNull Map<String, PendingLookup> pending = new HashMap<>(); // guarded by lock
+	private @Nullable Batch current; // guarded by lock
+
+	private final @NonNull LongAdder batches = new LongAdder();
+	private final @NonNull LongAdder batchedKeys = new LongAdder();
+	private final @NonNull LongAdder deduplicatedKeys = new LongAdder();
+	private final @NonNull LongAdder queueingNanos = new LongAdder();
+	private final @NonNull AtomicInteger largestBatch = new AtomicInteger();
+
+	/**
+	 * Creates a new locale batcher.
+	 *
+	 * @param db           the database to query
+	 * @param window       how long to collect lookups for before querying them
+	 * @param maxBatchSize the maximum number of IDs to query at once
+	 * @throws IllegalArgumentException if the window is negative or the batch size is not positive
+	 */
+	public LocaleBatcher(@NonNull DatabaseManager db, @NonNull Duration window, int maxBatchSize) throws IllegalArgumentException {
+		if (window.isNegative())
+			throw new IllegalArgumentException("window cannot be negative");
+		if (maxBatchSize <= 0)
+			throw new IllegalArgumentException("maxBatchSize must be positive");
+		this.db = db;
+		this.window = window;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Returns a {@link Mono} that emits the configured locales of the provided {@link LocaleConfig} IDs.
+	 * IDs without a configured locale are absent from the emitted map.
+	 *
+	 * @param ids the IDs to look up
+	 * @return a {@link Mono} that emits a map of IDs to locales
+	 */
+	public @NonNull Mono<Map<String, Locale>> lookup(@NonNull Collection<String> ids) {
+		return Mono.defer(() -> {
+			Map<String, Mono<Optional<Locale>>> results = new HashMap<>(ids.size());
+			List<Batch> full = new ArrayList<>(1);
+			synchronized (lock) {
+				for (String id : ids) {
+					PendingLookup lookup = pending.get(id);
+					if (lookup != null) {
+						deduplicatedKeys.increment();
+						results.put(id, lookup.sink().asMono());
+						continue;
+					}
+					lookup = new PendingLookup(Sinks.one(), System.nanoTime());
+					pending.put(id, lookup);
+					results.put(id, lookup.sink().asMono());
+					Batch batch = enqueue(id);
+					if (batch != null)
+						full.add(batch);
+				}
+				// without a window, lookups are only coalesced with the other IDs of the same call
+				if (window.isZero() && current != null) {
+					full.add(current);
+					current = null;
+				}
+			}
+			full.forEach(this::flush);
+			return Flux.fromIterable(results.entrySet())
+				.flatMap(entry -> entry.getValue().map(locale -> Map.entry(entry.getKey(), locale)))
+				.<Map<String, Locale>>collect(HashMap::new, (map, entry) -> entry.getValue().ifPresent(locale -> map.put(entry.getKey(), locale)));
+		});
+	}
+
+	/**
+	 * Adds an ID to the current batch, starting a new one if necessary.
+	 * Must be called while holding the lock.
+	 *
+	 * @param id the ID to add
+	 * @return the batch if it is now full and should be flushed immediately
+	 */
+	private @Nullable Batch enqueue(@NonNull String id) {
+		Batch batch = current;
+		if (batch == null) {
+			batch = new Batch();
+			current = batch;
+			if (!window.isZero()) {
+				Batch scheduled = batch;
+				Schedulers.parallel().schedule(() -> flush(scheduled), window.toNanos(), TimeUnit.NANOSECONDS);
+			}
+		}
+		batch.ids.add(id);
+		if (batch.ids.size() < maxBatchSize)
+			return null;
+		current = null;
+		return batch;
+	}
+
+	private void flush(@NonNull Batch batch) {
+		Map<String, PendingLookup> lookups = new HashMap<>(batch.ids.size());
+		synchronized (lock) {
+			if (batch.flushed)
+				return;
+			batch.flushed = true;
+			if (current == batch)
+				current = null;
+			for (String id : batch.ids)
+				lookups.put(id, pending.get(id));
+		}
+
+		long now = System.nanoTime();
+		for (PendingLookup lookup : lookups.values())
+			queueingNanos.add(now - lookup.enqueuedAt());
+		batches.increment();
+		batchedKeys.add(lookups.size());
+		largestBatch.accumulateAndGet(lookups.size(), Math::max);
+
+		db.getAllByIds(lookups.keySet(), LocaleConfig.class)
+			.collectMap(LocaleConfig::getId, config -> Locale.forLanguageTag(config.getLanguageCode()))
+			.subscribe(found -> {
+				complete(lookups.keySet());
+				lookups.forEach((id, lookup) -> lookup.sink().tryEmitValue(Optional.ofNullable(found.get(id))));
+			}, error -> {
+				complete(lookups.keySet());
+				lookups.values().forEach(lookup -> lookup.sink().tryEmitError(error));
+			});
+	}
+
+	private void complete(@NonNull Set<String> ids) {
+		synchronized (lock) {
+			pending.keySet().removeAll(ids);
+		}
+	}
+
+	// metrics
+
+	/**
+	 * Returns the number of batched queries which have been sent.
+	 *
+	 * @return batch count
+	 */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/**
+	 * Returns the total number of IDs which have been sent in batched queries.
+	 *
+	 * @return batched ID count
+	 */
+	public long getBatchedKeyCount() {
+		return batchedKeys.sum();
+	}
+
+	/**
+	 * Returns the number of lookups which joined an already pending lookup of the same ID.
+	 *
+	 * @return deduplicated lookup count
+	 */
+	public long getDeduplicatedKeyCount() {
+		return deduplicatedKeys.sum();
+	}
+
+	/**
+	 * Returns the size of the largest batch sent so far.
+	 *
+	 * @return largest batch size
+	 */
+	public int getLargestBatchSize() {
+		return largestBatch.get();
+	}
+
+	/**
+	 * Returns the average number of IDs sent per batch.
+	 *
+	 * @return average batch size
+	 */
+	public double getAverageBatchSize() {
+		long count = batches.sum();
+		return count == 0 ? 0 : (double) batchedKeys.sum() / count;
+	}
+
+	/**
+	 * Returns the average time an ID spent queued before its batch was sent.
+	 *
+	 * @return average queueing delay
+	 */
+	public @NonNull Duration getAverageQueueingDelay() {
+		long count = batchedKeys.sum();
+		return count == 0 ? Duration.ZERO : Duration.ofNanos(queueingNanos.sum() / count);
+	}
+
+	private record PendingLookup(Sinks.@NonNull One<Optional<Locale>> sink, long enqueuedAt) {
+	}
+
+	private static final class Batch {
+		private final @NonNull List<String> ids = new ArrayList<>();
+		private boolean flushed = false; // guarded by lock
+	}
+}
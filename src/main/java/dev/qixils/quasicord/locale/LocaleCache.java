@@ -0,0 +1,200 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale;
+
+import dev.qixils.quasicord.db.collection.LocaleConfig.EntryType;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of the {@link Locale}s configured for users, channels, and guilds.
+ * <p>
+ * Both positive and negative results are cached, so an object without a configured locale only
+ * costs a single database query until it is evicted or {@link #put(EntryType, long, Locale) updated}.
+ * The least recently used entry is evicted once the cache exceeds its maximum size.
+ * <p>
+ * Results read from the database are cached with {@link #fill(EntryType, long, Locale, long) fill},
+ * which does not overwrite locales that were updated while the read was in progress.
+ */
+public final class LocaleCache {
+
+	/**
+	 * The default maximum number of entries held by a locale cache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private final int maximumSize;
+	private final @NonNull Map<CacheKey, Optional<Locale>> entries;
+	private final @NonNull LongAdder hits = new LongAdder();
+	private final @NonNull LongAdder misses = new LongAdder();
+	private final @NonNull LongAdder evictions = new LongAdder();
+	private long modifications; // guarded by entries
+
+	/**
+	 * Creates a new locale cache.
+	 *
+	 * @param maximumSize the maximum number of entries to hold
+	 * @throws IllegalArgumentException if the maximum size is not positive
+	 */
+	public LocaleCache(int maximumSize) throws IllegalArgumentException {
+		if (maximumSize <= 0)
+			throw new IllegalArgumentException("maximumSize must be positive");
+		this.maximumSize = maximumSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<CacheKey, Optional<Locale>> eldest) {
+				if (size() <= LocaleCache.this.maximumSize)
+					return false;
+				evictions.increment();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Gets the cached locale of an object.
+	 *
+	 * @param type the type of the object
+	 * @param id   the snowflake of the object
+	 * @return the cached locale, {@link Optional#empty() empty} if the object is known to have no locale,
+	 *         or {@code null} if the object is not cached
+	 */
+	@SuppressWarnings("OptionalAssignedToNull")
+	public @Nullable Optional<Locale> get(@NonNull EntryType type, long id) {
+		Optional<Locale> locale;
+		synchronized (entries) {
+			locale = entries.get(new CacheKey(type, id));
+		}
+		if (locale == null)
+			misses.increment();
+		else
+			hits.increment();
+		return locale;
+	}
+
+	/**
+	 * Caches the locale of an object.
+	 *
+	 * @param type   the type of the object
+	 * @param id     the snowflake of the object
+	 * @param locale the locale of the object, or {@code null} if it has none
+	 */
+	public void put(@NonNull EntryType type, long id, @Nullable Locale locale) {
+		synchronized (entries) {
+			modifications++;
+			entries.put(new CacheKey(type, id), Optional.ofNullable(locale));
+		}
+	}
+
+	/**
+	 * Gets a stamp to pass to {@link #fill(EntryType, long, Locale, long) fill} which identifies
+	 * the state of the cache before a database read.
+	 *
+	 * @return modification stamp
+	 */
+	public long stamp() {
+		synchronized (entries) {
+			return modifications;
+		}
+	}
+
+	/**
+	 * Caches the locale of an object as read from the database, unless the object was cached or the cache was
+	 * {@link #put updated} or {@link #invalidate invalidated} since the read began, in which case the read
+	 * may be stale.
+	 *
+	 * @param type   the type of the object
+	 * @param id     the snowflake of the object
+	 * @param locale the locale of the object, or {@code null} if it has none
+	 * @param stamp  the {@link #stamp() stamp} taken before the read
+	 */
+	public void fill(@NonNull EntryType type, long id, @Nullable Locale locale, long stamp) {
+		synchronized (entries) {
+			if (modifications == stamp)
+				entries.putIfAbsent(new CacheKey(type, id), Optional.ofNullable(locale));
+		}
+	}
+
+	/**
+	 * Removes the cached locale of an object, if present.
+	 *
+	 * @param type the type of the object
+	 * @param id   the snowflake of the object
+	 */
+	public void invalidate(@NonNull EntryType type, long id) {
+		synchronized (entries) {
+			modifications++;
+			entries.remove(new CacheKey(type, id));
+		}
+	}
+
+	/**
+	 * Removes all cached locales.
+	 */
+	public void invalidateAll() {
+		synchronized (entries) {
+			modifications++;
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached entries.
+	 *
+	 * @return cache size
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of cached entries.
+	 *
+	 * @return maximum cache size
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Returns the number of lookups which found a cached entry.
+	 *
+	 * @return hit count
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups which did not find a cached entry.
+	 *
+	 * @return miss count
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of entries which have been evicted to keep the cache within its maximum size.
+	 *
+	 * @return eviction count
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private record CacheKey(@NonNull EntryType type, long id) {
+	}
+}
@@ -6,6 +6,7 @@
 
 package dev.qixils.quasicord.locale;
 
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
 import dev.qixils.quasicord.db.DatabaseManager;
 import dev.qixils.quasicord.db.collection.LocaleConfig;
 import dev.qixils.quasicord.db.collection.LocaleConfig.EntryType;
@@ -14,26 +15,31 @@ import net.dv8tion.jda.api.entities.ISnowflake;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.interactions.Interaction;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Locale;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
 
 /**
  * Provides the {@link Locale} selected by a user, channel, guild, or the default one.
  */
 public class LocaleProvider {
-	// TODO: cache in RAM (can be forever while the bot is still small and then we can add a timeout later)
 	private static final @NonNull Logger logger = LoggerFactory.getLogger(LocaleProvider.class);
 	private static final @NonNull LocaleProvider DUMMY_INSTANCE = new DummyLocaleProvider(Locale.ROOT);
 	private static @NonNull LocaleProvider INSTANCE = DUMMY_INSTANCE;
 
 	private final @NonNull Locale defaultLocale;
 	private final @NonNull DatabaseManager db;
+	private final @NonNull LocaleCache cache;
+	private final @Nullable LocaleBatcher batcher;
 
 	/**
 	 * Initializes the locale provider with the provided locale and database.
@@ -43,8 +49,40 @@ public class LocaleProvider {
 	 * @param db            the database to search for locale configurations in
 	 */
 	public LocaleProvider(@NonNull Locale defaultLocale, @NonNull DatabaseManager db) {
+		this(defaultLocale, db, LocaleCache.DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Initializes the locale provider with the provided locale, database, and cache size.
+	 *
+	 * @param defaultLocale the default locale to use for {@link #forContext(Context)}
+	 *                      if no applicable locale is found
+	 * @param db            the database to search for locale configurations in
+	 * @param cacheSize     the maximum number of configured locales to hold in memory
+	 */
+	public LocaleProvider(@NonNull Locale defaultLocale, @NonNull DatabaseManager db, int cacheSize) {
+		this(defaultLocale, db, cacheSize, Duration.ZERO, 1);
+	}
+
+	/**
+	 * Initializes the locale provider with the provided locale, database, cache size, and batching options.
+	 * <p>
+	 * Lookups of uncached locales which are requested within {@code batchWindow} of each other are
+	 * sent to the database in a single query of up to {@code batchSize} IDs.
+	 *
+	 * @param defaultLocale the default locale to use for {@link #forContext(Context)}
+	 *                      if no applicable locale is found
+	 * @param db            the database to search for locale configurations in
+	 * @param cacheSize     the maximum number of configured locales to hold in memory
+	 * @param batchWindow   how long to collect lookups for before querying them,
+	 *                      or {@link Duration#ZERO} to disable batching
+	 * @param batchSize     the maximum number of lookups to send in one query
+	 */
+	public LocaleProvider(@NonNull Locale defaultLocale, @NonNull DatabaseManager db, int cacheSize, @NonNull Duration batchWindow, int batchSize) {
 		this.defaultLocale = defaultLocale;
 		this.db = db;
+		this.cache = new LocaleCache(cacheSize);
+		this.batcher = batchWindow.isZero() ? null : new LocaleBatcher(db, batchWindow, batchSize);
 	}
 
 	// instance management
@@ -69,6 +107,75 @@ public class LocaleProvider {
 		INSTANCE = instance;
 	}
 
+	// cache
+
+	/**
+	 * Returns the cache of configured locales.
+	 * <p>
+	 * Code which modifies the {@link LocaleConfig} collection should {@link LocaleCache#put update}
+	 * the cache accordingly.
+	 *
+	 * @return locale cache
+	 */
+	public @NonNull LocaleCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Returns the batcher which coalesces concurrent lookups of uncached locales.
+	 *
+	 * @return locale batcher, or {@code null} if batching is disabled
+	 */
+	public @Nullable LocaleBatcher getBatcher() {
+		return batcher;
+	}
+
+	/**
+	 * Returns a {@link Mono} that emits the configured locales of the provided {@link LocaleConfig} IDs.
+	 *
+	 * @param ids the IDs to look up
+	 * @return a {@link Mono} that emits a map of IDs to locales
+	 */
+	private @NonNull Mono<Map<String, Locale>> fetch(@NonNull Collection<String> ids) {
+		if (batcher != null)
+			return batcher.lookup(ids);
+		return db.getAllByIds(ids, LocaleConfig.class)
+			.collectMap(LocaleConfig::getId, config -> Locale.forLanguageTag(config.getLanguageCode()));
+	}
+
+	/**
+	 * Subscribes to the change stream of the {@link LocaleConfig} collection to invalidate cached
+	 * locales which were modified by other processes.
+	 * <p>
+	 * Change streams are only supported by replica sets and sharded clusters. On a standalone
+	 * server, the subscription terminates with a warning and the cache relies solely on local updates.
+	 *
+	 * @return the subscription
+	 */
+	public @NonNull Disposable watchChanges() {
+		return Flux.from(db.collection(LocaleConfig.class).watch()).subscribe(
+			this::onChange,
+			error -> logger.warn("Locale change stream is unavailable; cached locales will only be updated locally", error)
+		);
+	}
+
+	private void onChange(@NonNull ChangeStreamDocument<LocaleConfig> change) {
+		BsonDocument key = change.getDocumentKey();
+		BsonValue id = key == null ? null : key.get("_id");
+		if (id == null || !id.isString()) {
+			// collection was dropped, renamed, or otherwise invalidated
+			cache.invalidateAll();
+			return;
+		}
+		String[] parts = id.asString().getValue().split("/", 2);
+		try {
+			cache.invalidate(EntryType.valueOf(parts[0]), Long.parseUnsignedLong(parts[1], 16));
+		} catch (RuntimeException e) {
+			logger.warn("Could not parse locale config ID {}", id, e);
+			cache.invalidateAll();
+		}
+	}
+
 	// generic
 
 	/**
@@ -80,10 +187,16 @@ public class LocaleProvider {
 	 * @return a {@link Mono} that may emit a {@link Locale}
 	 */
 	public @NonNull Mono<@NonNull Locale> forObject(long id, @NonNull EntryType type) {
-		return Mono.from(db.getAllByEquals(Map.of(
-				"id", id,
-				"entryType", type
-		), LocaleConfig.class)).map(config -> Locale.forLanguageTag(config.getLanguageCode()));
+		return Mono.defer(() -> {
+			Optional<Locale> cached = cache.get(type, id);
+			if (cached != null)
+				return Mono.justOrEmpty(cached);
+			String configId = LocaleConfig.createId(type, id);
+			long stamp = cache.stamp();
+			return fetch(List.of(configId))
+				.mapNotNull(locales -> locales.get(configId))
+				.doOnSuccess(locale -> cache.fill(type, id, locale, stamp));
+		});
 	}
 
 	/**
@@ -275,20 +388,7 @@ public class LocaleProvider {
 	 * @return a {@link Mono} that will emit the {@link Locale} corresponding to the given {@link Context}
 	 */
 	public @NonNull Mono<@NonNull Locale> forContext(@NonNull Context context) {
-		Mono<Locale> user = forUser(context);
-		Mono<Locale> userLocale = Mono.justOrEmpty(context.userLocale())
-				.map(locale -> Locale.forLanguageTag(locale.getLocale()));
-		Mono<Locale> channel = forChannel(context);
-		Mono<Locale> guild = forGuild(context);
-		Mono<Locale> guildLocale = Mono.justOrEmpty(context.guildLocale())
-				.map(locale -> Locale.forLanguageTag(locale.getLocale()));
-		Mono<Locale> defaultLocale = Mono.just(defaultLocale());
-		return user
-				.switchIfEmpty(userLocale)
-				.switchIfEmpty(channel)
-				.switchIfEmpty(guild)
-				.switchIfEmpty(guildLocale)
-				.switchIfEmpty(defaultLocale);
+		return configuredLocales(context).map(locales -> candidates(context, locales).get(0));
 	}
 
 	/**
@@ -317,15 +417,79 @@ public class LocaleProvider {
 	 * @return a {@link Flux} that will emit all {@link Locale}s that are configured for the given {@link Context}
 	 */
 	public @NonNull Flux<Locale> allForContext(@NonNull Context context) {
-		Mono<Locale> user = forUser(context);
-		Mono<Locale> userLocale = Mono.justOrEmpty(context.userLocale())
-				.map(locale -> Locale.forLanguageTag(locale.getLocale()));
-		Mono<Locale> channel = forChannel(context);
-		Mono<Locale> guild = forGuild(context);
-		Mono<Locale> guildLocale = Mono.justOrEmpty(context.guildLocale())
-				.map(locale -> Locale.forLanguageTag(locale.getLocale()));
-		Mono<Locale> defaultLocale = Mono.just(defaultLocale());
-		return Flux.concat(user, userLocale, channel, guild, guildLocale, defaultLocale).distinct();
+		return configuredLocales(context).flatMapIterable(locales -> candidates(context, locales)).distinct();
+	}
+
+	/**
+	 * Lists the {@link Locale}s applicable to the given {@link Context} in order of priority.
+	 *
+	 * @param context the context to list locales for
+	 * @param locales the configured locales of the context's user, channel, and guild
+	 * @return applicable locales, ending with the {@link #defaultLocale() default locale}
+	 */
+	private @NonNull List<Locale> candidates(@NonNull Context context, @NonNull Map<EntryType, Locale> locales) {
+		List<Locale> candidates = new ArrayList<>(6);
+		addIfPresent(candidates, locales.get(EntryType.USER));
+		if (context.userLocale() != null)
+			candidates.add(Locale.forLanguageTag(context.userLocale().getLocale()));
+		addIfPresent(candidates, locales.get(EntryType.CHANNEL));
+		addIfPresent(candidates, locales.get(EntryType.GUILD));
+		if (context.guildLocale() != null)
+			candidates.add(Locale.forLanguageTag(context.guildLocale().getLocale()));
+		candidates.add(defaultLocale());
+		return candidates;
+	}
+
+	private static void addIfPresent(@NonNull List<Locale> locales, @Nullable Locale locale) {
+		if (locale != null)
+			locales.add(locale);
+	}
+
+	/**
+	 * Returns a {@link Mono} that emits the configured {@link Locale}s of the user, channel, and guild
+	 * of the given {@link Context}.
+	 * <p>
+	 * Any locales which are not cached are fetched together in a single query,
+	 * which may be shared with concurrent lookups if {@link #getBatcher() batching} is enabled.
+	 *
+	 * @param context the context to get the configured locales of
+	 * @return a {@link Mono} that emits a map of the configured locales
+	 */
+	private @NonNull Mono<Map<EntryType, Locale>> configuredLocales(@NonNull Context context) {
+		return Mono.defer(() -> {
+			Map<EntryType, Locale> locales = new EnumMap<>(EntryType.class);
+			Map<String, EntryType> uncached = new HashMap<>(4);
+			for (EntryType type : EntryType.values()) {
+				long id = snowflake(context, type);
+				if (id == 0) continue;
+				Optional<Locale> cached = cache.get(type, id);
+				if (cached == null)
+					uncached.put(LocaleConfig.createId(type, id), type);
+				else
+					cached.ifPresent(locale -> locales.put(type, locale));
+			}
+			if (uncached.isEmpty())
+				return Mono.just(locales);
+
+			long stamp = cache.stamp();
+			return fetch(uncached.keySet()).map(found -> {
+				uncached.forEach((configId, type) -> {
+					Locale locale = found.get(configId);
+					if (locale != null)
+						locales.put(type, locale);
+					cache.fill(type, snowflake(context, type), locale, stamp);
+				});
+				return locales;
+			});
+		});
+	}
+
+	private static long snowflake(@NonNull Context context, @NonNull EntryType type) {
+		return switch (type) {
+			case USER -> context.user();
+			case CHANNEL -> context.channel();
+			case GUILD -> context.guild();
+		};
 	}
 
 	private static final class DummyLocaleProvider extends LocaleProvider {
@@ -338,5 +502,15 @@ public class LocaleProvider {
 		public @NonNull Mono<Locale> forObject(long id, @NonNull EntryType type) {
 			return Mono.just(defaultLocale());
 		}
+
+		@Override
+		public @NonNull Mono<@NonNull Locale> forContext(@NonNull Context context) {
+			return Mono.just(defaultLocale());
+		}
+
+		@Override
+		public @NonNull Flux<Locale> allForContext(@NonNull Context context) {
+			return Flux.just(defaultLocale());
+		}
 	}
 }
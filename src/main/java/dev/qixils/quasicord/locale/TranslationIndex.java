@@ -0,0 +1,166 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A translation source backed by a binary index compiled from a namespace's language files at build time.
+ * <p>
+ * Strings are decoded from the index only when they are looked up, so the translations of
+ * a namespace do not need to be held on the heap. Indexes are compiled by the {@code compileTranslations} task of the
+ * {@code dev.qixils.quasicord.translations} Gradle plugin; see its {@code CompileTranslations} class for the layout.
+ */
+final class TranslationIndex implements TranslationSource {
+	static final @NonNull String FILE_NAME = "translations.bin";
+	private static final int MAGIC = 0x51435449;
+	private static final int VERSION = 1;
+	private static final @NonNull List<String> PLURAL_CATEGORIES = List.of("zero", "one", "two", "few", "many", "other");
+
+	private final @NonNull ByteBuffer buffer;
+	private final int @NonNull [] stringEnds;
+	private final int stringStart;
+	private final @NonNull List<Locale> locales;
+	private final @NonNull Map<Locale, Integer> localeIds;
+	private final @NonNull Map<String, Integer> keyIds;
+	private final int offsetStart;
+	private final int valueStart;
+
+	private TranslationIndex(@NonNull ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt() != MAGIC)
+			throw new IOException("Invalid translation index");
+		int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported translation index version " + version);
+
+		// string pool
+		stringEnds = new int[buffer.getInt()];
+		for (int i = 0; i < stringEnds.length; i++)
+			stringEnds[i] = buffer.getInt();
+		int stringLength = buffer.getInt();
+		stringStart = buffer.position();
+		buffer.position(stringStart + stringLength);
+
+		// locales
+		int localeCount = buffer.getInt();
+		List<Locale> locales = new ArrayList<>(localeCount);
+		Map<Locale, Integer> localeIds = new HashMap<>(localeCount);
+		for (int i = 0; i < localeCount; i++) {
+			Locale locale = Locale.forLanguageTag(string(buffer.getInt()));
+			locales.add(locale);
+			localeIds.put(locale, i);
+		}
+		this.locales = Collections.unmodifiableList(locales);
+		this.localeIds = localeIds;
+
+		// keys
+		int keyCount = buffer.getInt();
+		Map<String, Integer> keyIds = new HashMap<>(keyCount);
+		for (int i = 0; i < keyCount; i++)
+			keyIds.put(string(buffer.getInt()), i);
+		this.keyIds = keyIds;
+
+		// offset table and values
+		offsetStart = buffer.position();
+		buffer.position(offsetStart + Integer.BYTES * localeCount * keyCount);
+		buffer.getInt(); // value length
+		valueStart = buffer.position();
+	}
+
+	/**
+	 * Loads the translation index at the provided resource path, if it exists.
+	 * Indexes stored in a directory are memory-mapped, while indexes stored in a jar are read into memory.
+	 *
+	 * @param resource the resource path of the index
+	 * @return the loaded index, or {@code null} if it does not exist
+	 * @throws IOException if the index could not be read
+	 */
+	static @Nullable TranslationIndex load(@NonNull String resource) throws IOException {
+		var url = ClassLoader.getSystemResource(resource);
+		if (url == null)
+			return null;
+
+		ByteBuffer buffer;
+		if (url.getProtocol().equals("file")) {
+			Path path;
+			try {
+				path = Path.of(url.toURI());
+			} catch (URISyntaxException e) {
+				throw new IOException("Invalid translation index path " + url, e);
+			}
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+				buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			}
+		} else {
+			try (InputStream stream = url.openStream()) {
+				buffer = ByteBuffer.wrap(stream.readAllBytes());
+			}
+		}
+		return new TranslationIndex(buffer);
+	}
+
+	private @NonNull String string(int id) {
+		int start = id == 0 ? 0 : stringEnds[id - 1];
+		byte[] bytes = new byte[stringEnds[id] - start];
+		buffer.get(stringStart + start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public @NonNull List<Locale> getLocales() {
+		return locales;
+	}
+
+	@Override
+	public @NonNull Set<String> getKeys() {
+		return Collections.unmodifiableSet(keyIds.keySet());
+	}
+
+	@Override
+	public boolean containsKey(@NonNull String key) {
+		return keyIds.containsKey(key);
+	}
+
+	@Override
+	public @Nullable Object get(@NonNull String key, @NonNull Locale locale) {
+		Integer keyId = keyIds.get(key);
+		Integer localeId = localeIds.get(locale);
+		if (keyId == null || localeId == null)
+			return null;
+
+		int offset = buffer.getInt(offsetStart + Integer.BYTES * (localeId * keyIds.size() + keyId));
+		if (offset == -1)
+			return null;
+
+		int position = valueStart + offset;
+		if (buffer.get(position) == 0)
+			return string(buffer.getInt(position + 1));
+
+		int mask = buffer.get(position + 1);
+		position += 2;
+		Map<String, String> plural = new HashMap<>();
+		for (int i = 0; i < PLURAL_CATEGORIES.size(); i++) {
+			if ((mask & (1 << i)) == 0)
+				continue;
+			plural.put(PLURAL_CATEGORIES.get(i), string(buffer.getInt(position)));
+			position += Integer.BYTES;
+		}
+		return plural;
+	}
+}
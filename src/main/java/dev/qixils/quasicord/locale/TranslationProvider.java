@@ -11,6 +11,7 @@ import dev.qixils.quasicord.locale.translation.PluralTranslation;
 import dev.qixils.quasicord.locale.translation.SingleTranslation;
 import dev.qixils.quasicord.locale.translation.Translation;
 import dev.qixils.quasicord.locale.translation.UnknownTranslation;
+import dev.qixils.quasicord.locale.translation.impl.AbstractTranslation;
 import dev.qixils.quasicord.locale.translation.impl.PluralTranslationImpl;
 import dev.qixils.quasicord.locale.translation.impl.SingleTranslationImpl;
 import dev.qixils.quasicord.locale.translation.impl.UnknownTranslationImpl;
@@ -21,10 +22,19 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 import java.util.jar.JarFile;
 import java.util.regex.Pattern;
 
@@ -36,9 +46,9 @@ public final class TranslationProvider {
 	private static final @NonNull Logger logger = LoggerFactory.getLogger(TranslationProvider.class);
 	private final @NonNull String namespace;
 	private final @NonNull Locale defaultLocale;
-	private final @NonNull Set<Locale> locales = new HashSet<>();
-	private final @NonNull Map<String, Map<Locale, Object>> allTranslations = new HashMap<>();
-	private final @NonNull Map<String, Map<DiscordLocale, String>> discordTranslations = new HashMap<>();
+	private final @NonNull List<Consumer<Set<String>>> reloadListeners = new CopyOnWriteArrayList<>();
+	private final @NonNull Object reloadLock = new Object();
+	private volatile @NonNull Bundle bundle;
 
 	/**
 	 * Creates a new translation provider for the given resource source and default locale.
@@ -57,7 +67,7 @@ public final class TranslationProvider {
 	public TranslationProvider(@NonNull String namespace, @NonNull Locale defaultLocale) throws IOException {
 		this.namespace = namespace.toLowerCase(Locale.ROOT);
 		this.defaultLocale = defaultLocale;
-		loadTranslations();
+		this.bundle = loadTranslations(true);
 	}
 
 	/**
@@ -66,7 +76,7 @@ public final class TranslationProvider {
 	 * @return locale view
 	 */
 	public Set<Locale> getLocales() {
-		return Collections.unmodifiableSet(locales);
+		return bundle.locales;
 	}
 
 	/**
@@ -113,10 +123,9 @@ public final class TranslationProvider {
 
 	private static final Set<String> PLURAL_KEYS = new HashSet<>(List.of("zero", "one", "two", "few", "many", "other"));
 
-	// Gets all the translations contained in a (maybe nested) yaml value
+	// Adds all the translations contained in a (maybe nested) yaml value to the results
 	@SuppressWarnings("unchecked")
-	private HashMap<String, Object> flattenKeys(String prefix, Map<String, ?> keys) {
-		var results = new HashMap<String, Object>();
+	private static void flattenKeys(String prefix, Map<String, ?> keys, Map<String, Object> results) {
 		for (var entry : keys.entrySet()) {
 			var key = prefix + entry.getKey();
 			switch (entry.getValue()) {
@@ -125,15 +134,33 @@ public final class TranslationProvider {
 				case Map<?, ?> map when PLURAL_KEYS.containsAll((Set<String>)map.keySet()) ->
 					results.put(key, map);
 				case Map<?, ?> map ->
-					results.putAll(flattenKeys(key + ".", (Map<String, ?>) map));
+					flattenKeys(key + ".", (Map<String, ?>) map, results);
 				case Object other ->
 					throw new RuntimeException("Invalid translation value: " + key + ": " + other);
 			}
 		}
-		return results;
 	}
 
+	private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(250);
 	private static final Pattern LANGUAGE_FILE = Pattern.compile("(?<languageTag>\\w{2})\\.ya?ml");
+	private static final String LANGUAGE_INDEX = "index";
+	private static final int MAX_LOADER_THREADS = 8;
+
+	// Find all the language files of a namespace, using the index generated at build time to avoid scanning jars
+	private List<String> listLanguageFiles(String path) throws IOException {
+		var url = ClassLoader.getSystemResource(path);
+		if (url != null && url.getProtocol().equals("file"))
+			return listResourcesIn(path); // directory listings are cheap and never stale
+		try (var index = ClassLoader.getSystemResourceAsStream(path + LANGUAGE_INDEX)) {
+			if (index != null) {
+				return new String(index.readAllBytes(), StandardCharsets.UTF_8).lines()
+					.map(String::strip)
+					.filter(line -> !line.isEmpty())
+					.toList();
+			}
+		}
+		return listResourcesIn(path);
+	}
 
 	// Find all the items in the JVM resource path
 	private List<String> listResourcesIn(String path) throws IOException {
@@ -152,44 +179,207 @@ public final class TranslationProvider {
 
 	/**
 	 * Loads translations from the configured namespace.
+	 *
+	 * @param useIndex whether to load the translation index compiled at build time, if present,
+	 *                 instead of parsing the language files
+	 * @return the loaded translations
 	 */
-	@SuppressWarnings("unchecked")
-	private void loadTranslations() throws IOException {
-		Yaml yaml = new Yaml();
+	private @NonNull Bundle loadTranslations(boolean useIndex) throws IOException {
+		long start = System.nanoTime();
+		String path = "langs/" + namespace + "/";
+		TranslationSource source = useIndex ? TranslationIndex.load(path + TranslationIndex.FILE_NAME) : null;
+		if (source == null)
+			source = parseLanguageFiles(path);
+		logger.info("Loaded {} locales in namespace {} in {}ms", source.getLocales().size(), namespace, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return new Bundle(source);
+	}
 
-		// each language yaml file
-		for (var filename : listResourcesIn("langs/" + namespace + "/")) {
-			var matcher = LANGUAGE_FILE.matcher(filename);
-			if (!matcher.find()) continue;
+	/**
+	 * Parses the language files of the configured namespace.
+	 * <p>
+	 * Language files are parsed in parallel, then merged in filename order.
+	 *
+	 * @param path the directory containing the language files
+	 * @return the parsed translations
+	 */
+	private @NonNull TranslationSource parseLanguageFiles(@NonNull String path) throws IOException {
+		List<String> filenames = listLanguageFiles(path).stream()
+			.filter(filename -> LANGUAGE_FILE.matcher(filename).find())
+			.sorted()
+			.toList();
+
+		List<LanguageFile> files = new ArrayList<>(filenames.size());
+		if (filenames.size() <= 1) {
+			for (String filename : filenames)
+				files.add(loadLanguageFile(path, filename));
+		} else {
+			int threads = Math.min(filenames.size(), Math.min(MAX_LOADER_THREADS, Runtime.getRuntime().availableProcessors()));
+			try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+				List<Future<LanguageFile>> futures = new ArrayList<>(filenames.size());
+				for (String filename : filenames)
+					futures.add(executor.submit(() -> loadLanguageFile(path, filename)));
+				for (Future<LanguageFile> future : futures)
+					files.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while loading translations in namespace " + namespace, e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException io)
+					throw io;
+				if (e.getCause() instanceof RuntimeException runtime)
+					throw runtime;
+				throw new IOException("Failed to load translations in namespace " + namespace, e.getCause());
+			}
+		}
 
-			// tag from filename (e.g. en)
-			var languageTag = matcher.group("languageTag");
-			var locale = Locale.forLanguageTag(languageTag);
+		Set<Locale> locales = new LinkedHashSet<>();
+		Map<String, Map<Locale, Object>> allTranslations = new HashMap<>();
+		for (LanguageFile file : files) {
+			Locale locale = file.locale();
 			locales.add(locale);
-			var discordLocale = getDiscordLocale(locale);
+			for (var entry : file.translations().entrySet())
+				allTranslations.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(locale, entry.getValue());
+			logger.info("Loaded {} translations for locale {} in namespace {}", file.translations().size(), locale, namespace);
+		}
+		return new TranslationSource.Parsed(List.copyOf(locales), allTranslations);
+	}
 
-			var file = ClassLoader.getSystemResourceAsStream("langs/" + namespace + "/" + filename);
-			Map<String, Object> data = yaml.load(file);
+	/**
+	 * Parses a single language file.
+	 *
+	 * @param path     the directory containing the language file
+	 * @param filename the name of the language file
+	 * @return the flattened translations of the file
+	 */
+	@SuppressWarnings("unchecked")
+	private @NonNull LanguageFile loadLanguageFile(@NonNull String path, @NonNull String filename) throws IOException {
+		var matcher = LANGUAGE_FILE.matcher(filename);
+		if (!matcher.find())
+			throw new IllegalArgumentException("Invalid language file name: " + filename);
+
+		// tag from filename (e.g. en)
+		var languageTag = matcher.group("languageTag");
+		var locale = Locale.forLanguageTag(languageTag);
+
+		Map<String, Object> data;
+		try (var file = ClassLoader.getSystemResourceAsStream(path + filename)) {
+			if (file == null)
+				throw new IOException("Missing language file " + path + filename);
+			data = new Yaml().load(file); // Yaml instances are not thread-safe
+		}
 
-			// some language files are nested inside the language tag
-			if (data.containsKey(languageTag))
-				data = (Map<String, Object>) data.get(languageTag);
-			// convert to flat keys for dotted string access
-			data = flattenKeys("", data);
+		// some language files are nested inside the language tag
+		if (data.containsKey(languageTag))
+			data = (Map<String, Object>) data.get(languageTag);
+		// convert to flat keys for dotted string access
+		Map<String, Object> translations = new HashMap<>();
+		flattenKeys("", data, translations);
+		return new LanguageFile(locale, translations);
+	}
 
-			for (var entry : data.entrySet()) {
-				String key = entry.getKey();
-				Object value = entry.getValue();
+	private record LanguageFile(@NonNull Locale locale, @NonNull Map<String, Object> translations) {
+	}
 
-				allTranslations.computeIfAbsent(key, k -> new HashMap<>()).put(locale, value);
+	/**
+	 * Reloads the translations of this namespace.
+	 * <p>
+	 * The language files are always parsed (rather than loaded from the index compiled at build time)
+	 * on a background thread and the new translations are published
+	 * all at once, so lookups never observe a partially loaded set of translations.
+	 * The returned {@link Mono} emits the keys whose {@link #getDiscordTranslations(String) Discord translations}
+	 * changed, which correspond to command localizations that should be re-upserted.
+	 * The same keys are passed to any {@link #addReloadListener(Consumer) reload listeners}.
+	 *
+	 * @return a {@link Mono} that emits the keys with changed Discord translations
+	 */
+	public @NonNull Mono<Set<String>> reload() {
+		return Mono.fromCallable(() -> loadTranslations(false))
+			.subscribeOn(Schedulers.boundedElastic())
+			.map(loaded -> {
+				Bundle previous;
+				synchronized (reloadLock) {
+					previous = bundle;
+					bundle = loaded;
+				}
+				Set<String> changed = new HashSet<>(previous.source.getKeys());
+				changed.addAll(loaded.source.getKeys());
+				changed.removeIf(key -> previous.getDiscordTranslations(key).equals(loaded.getDiscordTranslations(key)));
+				logger.info("Reloaded translations in namespace {} ({} changed Discord translations)", namespace, changed.size());
+				for (Consumer<Set<String>> listener : reloadListeners) {
+					try {
+						listener.accept(changed);
+					} catch (Exception e) {
+						logger.error("Translation reload listener threw an exception", e);
+					}
+				}
+				return changed;
+			});
+	}
 
-				if (discordLocale != DiscordLocale.UNKNOWN // not all locales are Discord-supported
-					&& value instanceof String single)     // only singular translations
-					discordTranslations.computeIfAbsent(key, k -> new HashMap<>()).put(discordLocale, single);
-			}
+	/**
+	 * Registers a listener which is called with the keys whose Discord translations changed
+	 * after each {@link #reload() reload}.
+	 *
+	 * @param listener the listener to register
+	 */
+	public void addReloadListener(@NonNull Consumer<Set<String>> listener) {
+		reloadListeners.add(Objects.requireNonNull(listener, "listener cannot be null"));
+	}
 
-			logger.info("Loaded {} translations for locale {} in namespace {}", data.size(), locale, namespace);
+	/**
+	 * Watches the language files of this namespace and {@link #reload() reloads} them when they change.
+	 * <p>
+	 * This is only supported when the language files are loaded from a directory (i.e. during
+	 * development) rather than from a jar. Bursts of changes, such as those made by an editor saving
+	 * a file, are debounced into a single reload.
+	 *
+	 * @return a {@link Disposable} which stops watching the language files
+	 * @throws IOException if the language directory cannot be watched
+	 * @throws UnsupportedOperationException if the language files are not stored in a directory
+	 */
+	public @NonNull Disposable watch() throws IOException, UnsupportedOperationException {
+		String path = "langs/" + namespace + "/";
+		var url = ClassLoader.getSystemResource(path);
+		if (url == null || !url.getProtocol().equals("file"))
+			throw new UnsupportedOperationException("Cannot watch translations which are not stored in a directory");
+
+		Path directory;
+		try {
+			directory = Path.of(url.toURI());
+		} catch (URISyntaxException e) {
+			throw new IOException("Invalid translation directory " + url, e);
 		}
+
+		WatchService watcher = directory.getFileSystem().newWatchService();
+		directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+		Thread thread = Thread.ofPlatform().daemon().name("quasicord-translation-watcher-" + namespace).start(() -> {
+			try {
+				while (true) {
+					WatchKey key = watcher.take();
+					// wait for the burst of events to settle
+					do {
+						key.pollEvents();
+						key.reset();
+					} while ((key = watcher.poll(WATCH_DEBOUNCE.toMillis(), TimeUnit.MILLISECONDS)) != null);
+					reload().subscribe(
+						$ -> {},
+						error -> logger.error("Failed to reload translations in namespace {}", namespace, error)
+					);
+				}
+			} catch (InterruptedException | ClosedWatchServiceException ignored) {
+			}
+		});
+		logger.info("Watching {} for translation changes", directory);
+
+		return () -> {
+			thread.interrupt();
+			try {
+				watcher.close();
+			} catch (IOException e) {
+				logger.warn("Failed to close translation watcher", e);
+			}
+		};
 	}
 
 	/**
@@ -210,45 +400,8 @@ public final class TranslationProvider {
 		return defaultLocale;
 	}
 
-	private @Nullable Translation tryGetTranslation(@NonNull String key, @NonNull Locale locale, @NonNull Locale requestedLocale) {
-		// get the translation map
-		// (null check was performed in caller)
-		Map<Locale, ?> translations = allTranslations.get(key);
-
-		// check if there is a translation for the given locale
-		if (!translations.containsKey(locale))
-			return null;
-
-		// parse the translation
-		Object translation = translations.get(locale);
-		if (translation instanceof String value)
-			return new SingleTranslationImpl(key, locale, requestedLocale, value);
-
-		if (translation instanceof Map) {
-			//noinspection unchecked
-			Map<String, String> stringMap = (Map<String, String>) translation;
-			return PluralTranslationImpl.fromStringMap(key, locale, requestedLocale, stringMap);
-		}
-
-		// this should never happen, but just in case
-		logger.warn("Invalid translation value for key '{}' in {} locale '{}': {}", key, namespace, locale, translation);
-		return null;
-	}
-
 	private @NonNull Translation getTranslation(@NonNull String key, @NonNull Locale locale) {
-		// ensure the key is valid
-		if (!allTranslations.containsKey(key))
-			return new UnknownTranslationImpl(key, locale);
-
-		// search for a translation
-		for (Locale variant : getAlternativesWithDefault(locale)) {
-			Translation translation = tryGetTranslation(key, variant, locale);
-			if (translation != null)
-				return translation;
-		}
-
-		// no translation found
-		return new UnknownTranslationImpl(key, locale);
+		return bundle.getTranslation(key, locale);
 	}
 
 	/**
@@ -365,7 +518,121 @@ public final class TranslationProvider {
 	 */
 	@NonNull
 	public Map<DiscordLocale, String> getDiscordTranslations(@NonNull String key) {
-		return discordTranslations.getOrDefault(key, Collections.emptyMap());
+		return bundle.getDiscordTranslations(key);
+	}
+
+	/**
+	 * An immutable set of loaded translations, along with the translations resolved from them.
+	 */
+	private final class Bundle {
+		private final @NonNull TranslationSource source;
+		private final @NonNull Set<Locale> locales;
+		private final @NonNull Map<Locale, DiscordLocale> discordLocales = new HashMap<>();
+		private final @NonNull Map<String, Map<DiscordLocale, String>> discordTranslations = new ConcurrentHashMap<>();
+		private final @NonNull Map<Locale, List<Locale>> fallbackChains = new ConcurrentHashMap<>();
+		// keyed by the first supported locale of the requested locale's fallback chain
+		private final @NonNull Map<Locale, Map<String, Translation>> resolvedTranslations = new ConcurrentHashMap<>();
+
+		private Bundle(@NonNull TranslationSource source) {
+			this.source = source;
+			this.locales = Collections.unmodifiableSet(new LinkedHashSet<>(source.getLocales()));
+			for (Locale locale : locales)
+				discordLocales.put(locale, getDiscordLocale(locale));
+		}
+
+		/**
+		 * Gets the Discord translation map for the given key, building it the first time it is requested.
+		 *
+		 * @param key the translation key
+		 * @return an unmodifiable translation map
+		 */
+		private @NonNull Map<DiscordLocale, String> getDiscordTranslations(@NonNull String key) {
+			if (!source.containsKey(key))
+				return Collections.emptyMap();
+			Map<DiscordLocale, String> translations = discordTranslations.get(key);
+			if (translations != null)
+				return translations;
+			return discordTranslations.computeIfAbsent(key, k -> {
+				Map<DiscordLocale, String> results = new EnumMap<>(DiscordLocale.class);
+				for (Locale locale : locales) {
+					DiscordLocale discordLocale = discordLocales.get(locale);
+					if (discordLocale != DiscordLocale.UNKNOWN           // not all locales are Discord-supported
+						&& source.get(k, locale) instanceof String single) // only singular translations
+						results.put(discordLocale, single);
+				}
+				return Collections.unmodifiableMap(results);
+			});
+		}
+
+		/**
+		 * Gets the cached list of locales to search for translations of the given locale,
+		 * keeping only the supported locales.
+		 *
+		 * @param locale the requested locale
+		 * @return an unmodifiable list of supported locales in order of preference
+		 */
+		private @NonNull List<Locale> getFallbackChain(@NonNull Locale locale) {
+			List<Locale> chain = fallbackChains.get(locale);
+			if (chain != null)
+				return chain;
+			return fallbackChains.computeIfAbsent(locale, l -> getAlternativesWithDefault(l).stream()
+				.filter(locales::contains)
+				.distinct()
+				.toList());
+		}
+
+		private @Nullable Translation tryGetTranslation(@NonNull String key, @NonNull Locale locale, @NonNull Locale requestedLocale) {
+			// check if there is a translation for the given locale
+			Object translation = source.get(key, locale);
+			if (translation == null)
+				return null;
+
+			// parse the translation
+			if (translation instanceof String value)
+				return new SingleTranslationImpl(key, locale, requestedLocale, value);
+
+			if (translation instanceof Map) {
+				//noinspection unchecked
+				Map<String, String> stringMap = (Map<String, String>) translation;
+				return PluralTranslationImpl.fromStringMap(key, locale, requestedLocale, stringMap);
+			}
+
+			// this should never happen, but just in case
+			logger.warn("Invalid translation value for key '{}' in {} locale '{}': {}", key, namespace, locale, translation);
+			return null;
+		}
+
+		private @NonNull Translation getTranslation(@NonNull String key, @NonNull Locale locale) {
+			// ensure the key is valid
+			// (unknown keys are not cached so that arbitrary lookups cannot grow the table)
+			if (!source.containsKey(key))
+				return new UnknownTranslationImpl(key, locale);
+
+			// translations are shared by every requested locale which resolves to the same supported locale,
+			// so that the table grows with the supported rather than the requested locales
+			List<Locale> chain = getFallbackChain(locale);
+			Locale supported = chain.isEmpty() ? defaultLocale : chain.getFirst();
+			Map<String, Translation> resolved = resolvedTranslations.get(supported);
+			if (resolved == null)
+				resolved = resolvedTranslations.computeIfAbsent(supported, l -> new ConcurrentHashMap<>());
+
+			Translation translation = resolved.get(key);
+			if (translation == null)
+				translation = resolved.computeIfAbsent(key, k -> resolveTranslation(k, supported));
+			return supported.equals(locale) ? translation : ((AbstractTranslation) translation).withRequestedLocale(locale);
+		}
+
+		private @NonNull Translation resolveTranslation(@NonNull String key, @NonNull Locale locale) {
+			// search for a translation
+			for (Locale variant : getFallbackChain(locale)) {
+				Translation translation = tryGetTranslation(key, variant, locale);
+				if (translation != null)
+					return translation;
+			}
+
+			// no translation found
+			return new UnknownTranslationImpl(key, locale);
+		}
 	}
 
 	// static instance management
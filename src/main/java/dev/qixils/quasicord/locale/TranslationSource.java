@@ -0,0 +1,83 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The raw translations of a namespace, before they are resolved into
+ * {@link dev.qixils.quasicord.locale.translation.Translation Translation}s.
+ */
+interface TranslationSource {
+
+	/**
+	 * Gets the locales which have translations, in the order their language files were loaded.
+	 *
+	 * @return loaded locales
+	 */
+	@NonNull List<Locale> getLocales();
+
+	/**
+	 * Gets the keys which have a translation in at least one locale.
+	 *
+	 * @return translation keys
+	 */
+	@NonNull Set<String> getKeys();
+
+	/**
+	 * Checks if the provided key has a translation in at least one locale.
+	 *
+	 * @param key the translation key
+	 * @return whether the key is known
+	 */
+	boolean containsKey(@NonNull String key);
+
+	/**
+	 * Gets the raw translation of a key in exactly the provided locale.
+	 *
+	 * @param key    the translation key
+	 * @param locale the locale of the translation
+	 * @return the translated {@link String}, a {@link Map} of plural categories to translated strings,
+	 *         or {@code null} if the key is not translated in the locale
+	 */
+	@Nullable Object get(@NonNull String key, @NonNull Locale locale);
+
+	/**
+	 * A translation source backed by parsed language files.
+	 *
+	 * @param locales      the loaded locales
+	 * @param translations the translations of each key in each locale
+	 */
+	record Parsed(@NonNull List<Locale> locales, @NonNull Map<String, Map<Locale, Object>> translations) implements TranslationSource {
+		@Override
+		public @NonNull List<Locale> getLocales() {
+			return locales;
+		}
+
+		@Override
+		public @NonNull Set<String> getKeys() {
+			return translations.keySet();
+		}
+
+		@Override
+		public boolean containsKey(@NonNull String key) {
+			return translations.containsKey(key);
+		}
+
+		@Override
+		public @Nullable Object get(@NonNull String key, @NonNull Locale locale) {
+			Map<Locale, Object> byLocale = translations.get(key);
+			return byLocale == null ? null : byLocale.get(locale);
+		}
+	}
+}
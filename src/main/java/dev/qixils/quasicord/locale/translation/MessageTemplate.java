@@ -0,0 +1,108 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale.translation;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.Locale;
+
+/**
+ * An immutable, thread-safe {@link MessageFormat} pattern which has been parsed ahead of time.
+ * <p>
+ * Patterns without any arguments are rendered once when compiled. Patterns whose arguments
+ * have no subformats (i.e. plain {@code {0}} placeholders) share a single {@link MessageFormat}
+ * instance, as formatting them does not mutate any shared state. All other patterns are
+ * {@link MessageFormat#clone() cloned} before each use.
+ */
+public final class MessageTemplate {
+	private final @NonNull String pattern;
+	private final @NonNull Locale locale;
+	private final @Nullable String literal;
+	private final @Nullable MessageFormat format;
+	private final boolean shareable;
+
+	private MessageTemplate(@NonNull String pattern, @NonNull Locale locale) {
+		this.pattern = pattern;
+		this.locale = locale;
+
+		// fast path: nothing to parse
+		if (pattern.indexOf('{') == -1 && pattern.indexOf('\'') == -1) {
+			this.literal = pattern;
+			this.format = null;
+			this.shareable = true;
+			return;
+		}
+
+		MessageFormat format = new MessageFormat(pattern, locale);
+		Format[] formats = format.getFormats();
+		if (formats.length == 0) {
+			// only quotes to resolve
+			this.literal = format.format(new Object[0]);
+			this.format = null;
+			this.shareable = true;
+			return;
+		}
+
+		boolean shareable = true;
+		for (Format subformat : formats) {
+			if (subformat != null) {
+				shareable = false;
+				break;
+			}
+		}
+		this.literal = null;
+		this.format = format;
+		this.shareable = shareable;
+	}
+
+	/**
+	 * Compiles a message pattern.
+	 *
+	 * @param pattern the {@link MessageFormat} pattern
+	 * @param locale  the locale to format arguments with
+	 * @return compiled template
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	public static @NonNull MessageTemplate compile(@NonNull String pattern, @NonNull Locale locale) throws IllegalArgumentException {
+		return new MessageTemplate(pattern, locale);
+	}
+
+	/**
+	 * Gets the uncompiled pattern of this template.
+	 *
+	 * @return message pattern
+	 */
+	public @NonNull String getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * Gets the locale that arguments are formatted with.
+	 *
+	 * @return template locale
+	 */
+	public @NonNull Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Formats this template with the provided arguments.
+	 *
+	 * @param args the arguments to substitute into the pattern
+	 * @return formatted string
+	 */
+	public @NonNull String format(Object @Nullable [] args) {
+		if (literal != null)
+			return literal;
+		assert format != null;
+		MessageFormat formatter = shareable ? format : (MessageFormat) format.clone();
+		return formatter.format(args);
+	}
+}
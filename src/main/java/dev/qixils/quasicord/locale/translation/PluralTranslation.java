@@ -23,4 +23,14 @@ public interface PluralTranslation extends Translation {
 	 * @return the corresponding translation
 	 */
 	@NonNull String get(int quantity, @NonNull PluralRuleType ruleType);
+
+	/**
+	 * Gets the compiled template of the translation corresponding to the given quantity,
+	 * which formats arguments using the supported locale closest to the {@link #getRequestedLocale() requested locale}.
+	 *
+	 * @param quantity the quantity to get the translation for
+	 * @param ruleType the rule type (ordinal or cardinal) to determine the plural form
+	 * @return the corresponding template
+	 */
+	@NonNull MessageTemplate getTemplate(int quantity, @NonNull PluralRuleType ruleType);
 }
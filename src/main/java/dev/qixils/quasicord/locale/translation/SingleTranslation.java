@@ -19,4 +19,12 @@ public interface SingleTranslation extends Translation {
 	 * @return translated string
 	 */
 	@NonNull String get();
+
+	/**
+	 * Gets the compiled template of the translated string,
+	 * which formats arguments using the supported locale closest to the {@link #getRequestedLocale() requested locale}.
+	 *
+	 * @return translated template
+	 */
+	@NonNull MessageTemplate getTemplate();
 }
@@ -27,6 +27,16 @@ public interface UnknownTranslation extends SingleTranslation, PluralTranslation
 		return getKey();
 	}
 
+	@Override
+	default @NonNull MessageTemplate getTemplate() {
+		return MessageTemplate.compile(getKey(), getRequestedLocale());
+	}
+
+	@Override
+	default @NonNull MessageTemplate getTemplate(int quantity, @NonNull PluralRuleType ruleType) {
+		return getTemplate();
+	}
+
 	@Override
 	default @NonNull Locale getLocale() {
 		return Locale.ROOT;
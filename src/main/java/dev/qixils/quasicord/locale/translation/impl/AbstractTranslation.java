@@ -45,4 +45,13 @@ public abstract class AbstractTranslation implements Translation {
 	public @NonNull Locale getRequestedLocale() {
 		return requestedLocale;
 	}
+
+	/**
+	 * Creates a view of this translation for another requested locale,
+	 * which shares the translated strings and templates of this translation.
+	 *
+	 * @param requestedLocale the requested locale
+	 * @return translation view
+	 */
+	public abstract @NonNull AbstractTranslation withRequestedLocale(@NonNull Locale requestedLocale);
 }
@@ -6,21 +6,35 @@
 
 package dev.qixils.quasicord.locale.translation.impl;
 
+import dev.qixils.quasicord.locale.translation.MessageTemplate;
 import dev.qixils.quasicord.locale.translation.PluralTranslation;
 import net.xyzsd.plurals.PluralCategory;
 import net.xyzsd.plurals.PluralRule;
 import net.xyzsd.plurals.PluralRuleType;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import java.util.EnumMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Implementation of {@link PluralTranslation}.
  */
 public final class PluralTranslationImpl extends AbstractTranslation implements PluralTranslation {
-	private final @NonNull Map<PluralCategory, String> translations;
+	private static final PluralCategory @NonNull [] CATEGORIES = PluralCategory.values();
+	private static final @NonNull Map<PluralRuleType, Map<Locale, PluralRule>> RULES = new EnumMap<>(PluralRuleType.class);
+
+	static {
+		for (PluralRuleType ruleType : PluralRuleType.values())
+			RULES.put(ruleType, new ConcurrentHashMap<>());
+	}
+
+	// indexed by PluralCategory#ordinal
+	private final @Nullable String @NonNull [] translations;
+	private final @Nullable MessageTemplate @NonNull [] templates;
 
 	/**
 	 * Initializes a new plural translation.
@@ -33,23 +47,96 @@ public final class PluralTranslationImpl extends AbstractTranslation implements
 								 @NonNull Locale locale,
 								 @NonNull Locale requestedLocale,
 								 @NonNull Map<PluralCategory, String> translations) {
+		this(key, locale, requestedLocale, translations, pattern -> MessageTemplate.compile(pattern, requestedLocale));
+	}
+
+	/**
+	 * Initializes a new plural translation.
+	 *
+	 * @param key          the key of the translation
+	 * @param locale       the locale of the translation
+	 * @param translations the translations for each {@link PluralCategory}, where missing categories
+	 *                     fall back to {@link PluralCategory#OTHER OTHER}
+	 * @param compiler     the function which compiles each translation into a template
+	 */
+	public PluralTranslationImpl(@NonNull String key,
+								 @NonNull Locale locale,
+								 @NonNull Locale requestedLocale,
+								 @NonNull Map<PluralCategory, String> translations,
+								 @NonNull Function<String, MessageTemplate> compiler) {
 		super(key, locale, requestedLocale);
-		this.translations = translations;
+		this.translations = new String[CATEGORIES.length];
+		this.templates = new MessageTemplate[CATEGORIES.length];
+		translations.forEach((category, pattern) -> {
+			this.translations[category.ordinal()] = pattern;
+			this.templates[category.ordinal()] = compiler.apply(pattern);
+		});
+		// categories without a translation fall back to the one every locale has
+		int other = PluralCategory.OTHER.ordinal();
+		for (int i = 0; i < CATEGORIES.length; i++) {
+			if (this.translations[i] == null) {
+				this.translations[i] = this.translations[other];
+				this.templates[i] = this.templates[other];
+			}
+		}
+	}
+
+	private PluralTranslationImpl(@NonNull PluralTranslationImpl translation, @NonNull Locale requestedLocale) {
+		super(translation.getKey(), translation.getLocale(), requestedLocale);
+		this.translations = translation.translations;
+		this.templates = translation.templates;
+	}
+
+	@Override
+	public @NonNull PluralTranslationImpl withRequestedLocale(@NonNull Locale requestedLocale) {
+		return new PluralTranslationImpl(this, requestedLocale);
+	}
+
+	/**
+	 * Gets the shared plural rule of the given locale and rule type.
+	 *
+	 * @param locale   the locale of the rule
+	 * @param ruleType the rule type (ordinal or cardinal)
+	 * @return the plural rule
+	 */
+	private static @NonNull PluralRule getRule(@NonNull Locale locale, @NonNull PluralRuleType ruleType) {
+		Map<Locale, PluralRule> rules = RULES.get(ruleType);
+		PluralRule rule = rules.get(locale);
+		if (rule != null)
+			return rule;
+		return rules.computeIfAbsent(locale, l -> PluralRule.createOrDefault(l, ruleType));
+	}
+
+	private int select(int quantity, @NonNull PluralRuleType ruleType) {
+		return getRule(getLocale(), ruleType).select(quantity).ordinal();
 	}
 
 	@Override
 	public @NonNull String get(int quantity, @NonNull PluralRuleType ruleType) {
-		return translations.get(PluralRule.createOrDefault(getLocale(), ruleType).select(quantity));
+		return translations[select(quantity, ruleType)];
+	}
+
+	@Override
+	public @NonNull MessageTemplate getTemplate(int quantity, @NonNull PluralRuleType ruleType) {
+		return templates[select(quantity, ruleType)];
 	}
 
 	public static PluralTranslationImpl fromStringMap(@NonNull String key,
 													  @NonNull Locale locale,
 													  @NonNull Locale requestedLocale,
 													  @NonNull Map<String, String> translations) {
+		return fromStringMap(key, locale, requestedLocale, translations, pattern -> MessageTemplate.compile(pattern, requestedLocale));
+	}
+
+	public static PluralTranslationImpl fromStringMap(@NonNull String key,
+													  @NonNull Locale locale,
+													  @NonNull Locale requestedLocale,
+													  @NonNull Map<String, String> translations,
+													  @NonNull Function<String, MessageTemplate> compiler) {
 		Map<PluralCategory, String> pluralTranslations = new EnumMap<>(PluralCategory.class);
 		for (Map.Entry<String, String> entry : translations.entrySet()) {
 			pluralTranslations.put(PluralCategory.valueOf(entry.getKey().toUpperCase(Locale.ROOT)), entry.getValue());
 		}
-		return new PluralTranslationImpl(key, locale, requestedLocale, pluralTranslations);
+		return new PluralTranslationImpl(key, locale, requestedLocale, pluralTranslations, compiler);
 	}
 }
@@ -6,6 +6,7 @@
 
 package dev.qixils.quasicord.locale.translation.impl;
 
+import dev.qixils.quasicord.locale.translation.MessageTemplate;
 import dev.qixils.quasicord.locale.translation.SingleTranslation;
 import org.checkerframework.checker.nullness.qual.NonNull;
 
@@ -16,17 +17,37 @@ import java.util.Locale;
  */
 public final class SingleTranslationImpl extends AbstractTranslation implements SingleTranslation {
 	private final @NonNull String translation;
+	private final @NonNull MessageTemplate template;
 
 	public SingleTranslationImpl(@NonNull String key,
 								 @NonNull Locale locale,
 								 @NonNull Locale requestedLocale,
 								 @NonNull String translation) {
+		this(key, locale, requestedLocale, translation, MessageTemplate.compile(translation, requestedLocale));
+	}
+
+	public SingleTranslationImpl(@NonNull String key,
+								 @NonNull Locale locale,
+								 @NonNull Locale requestedLocale,
+								 @NonNull String translation,
+								 @NonNull MessageTemplate template) {
 		super(key, locale, requestedLocale);
 		this.translation = translation;
+		this.template = template;
+	}
+
+	@Override
+	public @NonNull SingleTranslationImpl withRequestedLocale(@NonNull Locale requestedLocale) {
+		return new SingleTranslationImpl(getKey(), getLocale(), requestedLocale, translation, template);
 	}
 
 	@Override
 	public @NonNull String get() {
 		return translation;
 	}
+
+	@Override
+	public @NonNull MessageTemplate getTemplate() {
+		return template;
+	}
 }
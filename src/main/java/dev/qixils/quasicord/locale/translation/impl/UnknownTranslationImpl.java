@@ -26,4 +26,9 @@ public class UnknownTranslationImpl extends AbstractTranslation implements Unkno
 								  @NonNull Locale requestedLocale) {
 		super(key, Locale.ROOT, requestedLocale);
 	}
+
+	@Override
+	public @NonNull UnknownTranslationImpl withRequestedLocale(@NonNull Locale requestedLocale) {
+		return new UnknownTranslationImpl(getKey(), requestedLocale);
+	}
 }
@@ -12,7 +12,6 @@ import net.xyzsd.plurals.PluralRuleType;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.text.MessageFormat;
 import java.util.Locale;
 
 /**
@@ -31,7 +30,7 @@ public class PluralLocalizableText extends AbstractLocalizableText {
 
 	@Override
 	public @NonNull String asString(@NonNull Locale locale) {
-		return new MessageFormat(key.getPlural(locale).get(quantity, ruleType), locale).format(Text.localizeArgs(args, locale));
+		return key.getPlural(locale).getTemplate(quantity, ruleType).format(Text.localizeArgs(args, locale));
 	}
 
 	/**
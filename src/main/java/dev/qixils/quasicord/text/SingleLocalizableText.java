@@ -10,7 +10,6 @@ import dev.qixils.quasicord.Key;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-import java.text.MessageFormat;
 import java.util.Locale;
 
 /**
@@ -23,7 +22,7 @@ public final class SingleLocalizableText extends AbstractLocalizableText {
 
 	@Override
 	public @NonNull String asString(@NonNull Locale locale) {
-		return new MessageFormat(key.getSingle(locale).get(), locale).format(Text.localizeArgs(args, locale));
+		return key.getSingle(locale).getTemplate().format(Text.localizeArgs(args, locale));
 	}
 
 	/**
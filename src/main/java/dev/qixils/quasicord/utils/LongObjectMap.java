@@ -0,0 +1,204 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.utils;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable map from primitive {@code long} keys to non-null values.
+ * <p>
+ * Entries are stored in open-addressed arrays, so lookups neither box their key nor allocate.
+ * Updates return a modified copy, making this suitable for copy-on-write snapshots
+ * which are read far more often than they are written.
+ *
+ * @param <V> the value type
+ */
+public final class LongObjectMap<V> {
+	private static final @NonNull LongObjectMap<?> EMPTY = new LongObjectMap<>(new long[1], new Object[1], 0);
+	private final long @NonNull [] keys;
+	private final @Nullable Object @NonNull [] values;
+	private final int size;
+
+	private LongObjectMap(long @NonNull [] keys, @Nullable Object @NonNull [] values, int size) {
+		this.keys = keys;
+		this.values = values;
+		this.size = size;
+	}
+
+	/**
+	 * Returns an empty map.
+	 *
+	 * @param <V> the value type
+	 * @return empty map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> @NonNull LongObjectMap<V> empty() {
+		return (LongObjectMap<V>) EMPTY;
+	}
+
+	private static int slot(long key, int mask) {
+		// spread the bits of snowflakes, whose low bits are mostly a sequence number
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	/**
+	 * Gets the value mapped to a key.
+	 *
+	 * @param key the key
+	 * @return the mapped value, or {@code null} if the key is not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+			Object value = values[i];
+			if (value == null)
+				return null;
+			if (keys[i] == key)
+				return (V) value;
+		}
+	}
+
+	/**
+	 * Determines whether a key is mapped.
+	 *
+	 * @param key the key
+	 * @return true if the key is mapped
+	 */
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Gets the number of mapped keys.
+	 *
+	 * @return map size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Determines whether this map is empty.
+	 *
+	 * @return true if no keys are mapped
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns a copy of this map with a key mapped to a value.
+	 *
+	 * @param key   the key
+	 * @param value the value
+	 * @return modified copy
+	 */
+	public @NonNull LongObjectMap<V> with(long key, @NonNull V value) {
+		return withAll(Map.of(key, value));
+	}
+
+	/**
+	 * Returns a copy of this map with the provided entries added, replacing any existing mappings of their keys.
+	 *
+	 * @param entries the entries to add
+	 * @return modified copy
+	 */
+	@SuppressWarnings("unchecked")
+	public @NonNull LongObjectMap<V> withAll(@NonNull Map<Long, ? extends V> entries) {
+		if (entries.isEmpty())
+			return this;
+		int capacity = capacity(size + entries.size());
+		long[] newKeys = new long[capacity];
+		Object[] newValues = new Object[capacity];
+		int newSize = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null && !entries.containsKey(keys[i]) && put(newKeys, newValues, keys[i], values[i]))
+				newSize++;
+		}
+		for (Map.Entry<Long, ? extends V> entry : entries.entrySet()) {
+			if (put(newKeys, newValues, entry.getKey(), Objects.requireNonNull(entry.getValue(), "value cannot be null")))
+				newSize++;
+		}
+		return new LongObjectMap<>(newKeys, newValues, newSize);
+	}
+
+	/**
+	 * Returns a copy of this map without the provided key.
+	 *
+	 * @param key the key to remove
+	 * @return modified copy
+	 */
+	public @NonNull LongObjectMap<V> without(long key) {
+		if (!containsKey(key))
+			return this;
+		if (size == 1)
+			return empty();
+		int capacity = capacity(size - 1);
+		long[] newKeys = new long[capacity];
+		Object[] newValues = new Object[capacity];
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null && keys[i] != key)
+				put(newKeys, newValues, keys[i], values[i]);
+		}
+		return new LongObjectMap<>(newKeys, newValues, size - 1);
+	}
+
+	/**
+	 * Performs an action for each entry in this map.
+	 *
+	 * @param action the action to perform
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(@NonNull Consumer<? super V> action) {
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null)
+				action.accept(keys[i], (V) values[i]);
+		}
+	}
+
+	private static int capacity(int size) {
+		// keep the load factor at or below 0.5
+		return Integer.highestOneBit(Math.max(1, size) * 2 - 1) << 1;
+	}
+
+	private static boolean put(long @NonNull [] keys, @Nullable Object @NonNull [] values, long key, @NonNull Object value) {
+		int mask = keys.length - 1;
+		for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+			if (values[i] == null) {
+				keys[i] = key;
+				values[i] = value;
+				return true;
+			}
+			if (keys[i] == key) {
+				values[i] = value;
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * An action performed on each entry of a {@link LongObjectMap}.
+	 *
+	 * @param <V> the value type
+	 */
+	@FunctionalInterface
+	public interface Consumer<V> {
+		/**
+		 * Performs this action on an entry.
+		 *
+		 * @param key   the key
+		 * @param value the value
+		 */
+		void accept(long key, @NonNull V value);
+	}
+}
@@ -8,6 +8,7 @@ package dev.qixils.quasicord.utils;
 
 import com.google.errorprone.annotations.CheckReturnValue;
 import dev.qixils.quasicord.TemporaryListener;
+import dev.qixils.quasicord.decorators.RequiresIntents;
 import lombok.experimental.UtilityClass;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
@@ -15,6 +16,7 @@ import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
 import net.dv8tion.jda.api.exceptions.ErrorResponseException;
 import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
@@ -44,6 +46,9 @@ public class MessageUtil {
 	 * reacting with one of the listed emojis.
 	 * <br>
 	 * You must set your own {@code callback} on the listener and may set your own {@code onTimeout} or {@code length}.
+	 * <p>
+	 * Reaction menus require the reaction intents, which must be declared when
+	 * {@link dev.qixils.quasicord.Quasicord.Builder#minimizeIntents(boolean) minimizing intents}.
 	 *
 	 * @param userID  user whose reactions are being listened for
 	 * @param message message to react on
@@ -51,6 +56,7 @@ public class MessageUtil {
 	 * @return a temporary listener builder
 	 */
 	@CheckReturnValue
+	@RequiresIntents({GatewayIntent.GUILD_MESSAGE_REACTIONS, GatewayIntent.DIRECT_MESSAGE_REACTIONS})
 	public static TemporaryListener.@NonNull Builder<MessageReactionAddEvent> setupReactionMenu(long userID,
 																								@NonNull Message message,
 																								@NonNull Collection<Emoji> emojis) {
@@ -66,11 +72,10 @@ public class MessageUtil {
 			});
 		}
 
-		final long messageID = message.getIdLong();
 		return new TemporaryListener.Builder<>(MessageReactionAddEvent.class)
-				.predicate(event -> event.getMessageIdLong() == messageID &&
-						event.getUserIdLong() == userID &&
-						emojis.contains(event.getEmoji()))
+				.messageId(message.getIdLong())
+				.userId(userID)
+				.predicate(event -> emojis.contains(event.getEmoji()))
 				.length(Duration.ofMinutes(1));
 	}
 
@@ -88,6 +93,7 @@ public class MessageUtil {
 	 */
 	@NonNull
 	@CheckReturnValue
+	@RequiresIntents({GatewayIntent.GUILD_MESSAGE_REACTIONS, GatewayIntent.DIRECT_MESSAGE_REACTIONS})
 	public static TemporaryListener<MessageReactionAddEvent> setupYesNoReactionMenu(long userID, @NonNull Message message, @NonNull Consumer<Boolean> callback) {
 		Objects.requireNonNull(message, "message cannot be null");
 		Objects.requireNonNull(callback, "callback cannot be null");
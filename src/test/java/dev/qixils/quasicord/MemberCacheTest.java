@@ -0,0 +1,62 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemberCacheTest {
+
+	/**
+	 * Gets the intents a bot which minimizes its intents starts with for a member cache.
+	 *
+	 * @param cache the member cache
+	 * @return minimized intents
+	 */
+	private static EnumSet<GatewayIntent> minimizedIntents(MemberCache cache) {
+		EnumSet<GatewayIntent> intents = EnumSet.of(GatewayIntent.GUILDS);
+		intents.addAll(cache.getRequiredIntents());
+		return intents;
+	}
+
+	@Test
+	public void policiesBuildWithMinimizedIntents() {
+		for (MemberCacheMode mode : MemberCacheMode.values()) {
+			MemberCache cache = new MemberCache(mode, 100, List::of);
+			EnumSet<GatewayIntent> intents = minimizedIntents(cache);
+			MemberCachePolicy policy = assertDoesNotThrow(() -> cache.createPolicy(intents), mode.name());
+			assertNotNull(policy, mode.name());
+			// mirrors the check JDABuilder#build performs before logging in
+			if (policy == MemberCachePolicy.ALL)
+				assertTrue(intents.contains(GatewayIntent.GUILD_MEMBERS), mode + " caches every member without GUILD_MEMBERS");
+		}
+	}
+
+	@Test
+	public void cachingModesRequireMemberEvents() {
+		for (MemberCacheMode mode : EnumSet.of(MemberCacheMode.ALL, MemberCacheMode.RECENT, MemberCacheMode.COMMAND_USERS)) {
+			MemberCache cache = new MemberCache(mode, 100, List::of);
+			assertTrue(cache.getRequiredIntents().contains(GatewayIntent.GUILD_MEMBERS), mode.name());
+		}
+		assertEquals(EnumSet.of(GatewayIntent.GUILD_PRESENCES), new MemberCache(MemberCacheMode.ONLINE, 100, List::of).getRequiredIntents());
+		assertTrue(new MemberCache(MemberCacheMode.NONE, 100, List::of).getRequiredIntents().isEmpty());
+	}
+
+	@Test
+	public void defaultModeFollowsMemberIntent() {
+		MemberCache cache = new MemberCache(MemberCacheMode.DEFAULT, 100, List::of);
+		assertTrue(cache.getRequiredIntents().isEmpty());
+		assertSame(MemberCachePolicy.DEFAULT, cache.createPolicy(EnumSet.of(GatewayIntent.GUILDS)));
+		assertSame(MemberCachePolicy.ALL, cache.createPolicy(EnumSet.of(GatewayIntent.GUILDS, GatewayIntent.GUILD_MEMBERS)));
+	}
+}
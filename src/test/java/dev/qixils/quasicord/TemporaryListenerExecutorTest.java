@@ -0,0 +1,126 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TemporaryListenerExecutorTest {
+	private static final long TICK = TimeUnit.MILLISECONDS.toNanos(100);
+	private final AtomicLong clock = new AtomicLong();
+	private TimingWheel wheel;
+	private TemporaryListenerExecutor executor;
+	private final AtomicInteger fired = new AtomicInteger();
+	private final AtomicInteger timedOut = new AtomicInteger();
+
+	public static class TestEvent implements GenericEvent {
+		@Override
+		public JDA getJDA() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public long getResponseNumber() {
+			return 0;
+		}
+
+		@Override
+		public DataObject getRawData() {
+			return null;
+		}
+	}
+
+	@BeforeEach
+	public void setUp() {
+		wheel = new TimingWheel(Duration.ofNanos(TICK), 8, clock::get);
+		executor = new TemporaryListenerExecutor(wheel);
+	}
+
+	private void register(long lengthMillis) {
+		executor.register(new TemporaryListener.Builder<>(TestEvent.class)
+			.callback(event -> fired.incrementAndGet())
+			.onTimeout(timedOut::incrementAndGet)
+			.length(lengthMillis)
+			.build());
+	}
+
+	private void elapse(long nanos) {
+		clock.addAndGet(nanos);
+		wheel.advance();
+	}
+
+	@Test
+	public void firedListenersDoNotTimeOut() {
+		register(250);
+		executor.onEvent(new TestEvent());
+		executor.onEvent(new TestEvent());
+		elapse(TICK * 10);
+		assertEquals(1, fired.get());
+		assertEquals(0, timedOut.get());
+	}
+
+	@Test
+	public void timedOutListenersDoNotFire() {
+		register(250);
+		elapse(TICK * 2);
+		assertEquals(0, timedOut.get(), "timed out before its length had elapsed");
+		elapse(TICK);
+		assertEquals(1, timedOut.get());
+		executor.onEvent(new TestEvent());
+		assertEquals(0, fired.get());
+	}
+
+	@Test
+	public void listenersExpireAfterMultipleRounds() {
+		// 25 ticks on a wheel of 8 slots
+		register(2_500);
+		for (int tick = 0; tick < 24; tick++)
+			elapse(TICK);
+		assertEquals(0, timedOut.get());
+		elapse(TICK);
+		assertEquals(1, timedOut.get());
+		executor.onEvent(new TestEvent());
+		assertEquals(0, fired.get());
+	}
+
+	@Test
+	public void firingAndTimingOutAreMutuallyExclusive() throws InterruptedException {
+		int listeners = 2_000;
+		for (int i = 0; i < listeners; i++) {
+			register(100);
+			clock.addAndGet(TICK);
+			CountDownLatch start = new CountDownLatch(1);
+			Thread expiry = Thread.ofPlatform().start(() -> {
+				awaitQuietly(start);
+				wheel.advance();
+			});
+			start.countDown();
+			executor.onEvent(new TestEvent());
+			expiry.join();
+		}
+		assertEquals(listeners, fired.get() + timedOut.get());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TimingWheelTest {
+	private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+	private final AtomicLong clock = new AtomicLong(1_000_000);
+	private TimingWheel wheel;
+
+	@BeforeEach
+	public void setUp() {
+		// four slots, so any delay over 40ms needs more than one round
+		wheel = new TimingWheel(Duration.ofNanos(TICK), 4, clock::get);
+	}
+
+	/**
+	 * Moves the clock forward and advances the wheel.
+	 *
+	 * @param nanos time to move forward by
+	 */
+	private void elapse(long nanos) {
+		clock.addAndGet(nanos);
+		wheel.advance();
+	}
+
+	@Test
+	public void deadlinesAreRoundedUpToTheNextTick() {
+		AtomicInteger runs = new AtomicInteger();
+		wheel.schedule(runs::incrementAndGet, 15, TimeUnit.MILLISECONDS);
+
+		elapse(TICK);
+		assertEquals(0, runs.get(), "ran before its delay had elapsed");
+		elapse(TICK - 1);
+		assertEquals(0, runs.get(), "ran before its delay had elapsed");
+		elapse(1);
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void exactDeadlinesRunOnTheirTick() {
+		AtomicInteger runs = new AtomicInteger();
+		wheel.schedule(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+		wheel.schedule(runs::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+
+		wheel.advance();
+		assertEquals(1, runs.get(), "zero delay did not run on the current tick");
+		elapse(TICK - 1);
+		assertEquals(1, runs.get());
+		elapse(1);
+		assertEquals(2, runs.get());
+	}
+
+	@Test
+	public void longDelaysWaitForTheirRounds() {
+		AtomicInteger runs = new AtomicInteger();
+		// 10 ticks on a wheel of 4 slots: the slot is passed twice before the task is due
+		wheel.schedule(runs::incrementAndGet, 95, TimeUnit.MILLISECONDS);
+
+		for (int tick = 1; tick < 10; tick++) {
+			elapse(TICK);
+			assertEquals(0, runs.get(), "ran early on tick " + tick);
+		}
+		elapse(TICK);
+		assertEquals(1, runs.get());
+		for (int tick = 0; tick < 8; tick++)
+			elapse(TICK);
+		assertEquals(1, runs.get(), "ran more than once");
+	}
+
+	@Test
+	public void tasksRunInDeadlineOrderAcrossRounds() {
+		List<Integer> order = new ArrayList<>();
+		for (int delay : new int[]{70, 10, 50, 30})
+			wheel.schedule(() -> order.add(delay), delay, TimeUnit.MILLISECONDS);
+
+		for (int tick = 0; tick < 8; tick++)
+			elapse(TICK);
+		assertEquals(List.of(10, 30, 50, 70), order);
+	}
+
+	@Test
+	public void lateAdvanceRunsEveryElapsedTick() {
+		AtomicInteger runs = new AtomicInteger();
+		wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+		wheel.schedule(runs::incrementAndGet, 130, TimeUnit.MILLISECONDS);
+
+		elapse(TICK * 100);
+		assertEquals(2, runs.get());
+	}
+
+	@Test
+	public void tasksScheduledLateRunOnTheNextAdvance() {
+		AtomicInteger runs = new AtomicInteger();
+		clock.addAndGet(TICK * 3);
+		wheel.schedule(runs::incrementAndGet, 0, TimeUnit.MILLISECONDS);
+		wheel.advance();
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void cancelledTasksDoNotRun() {
+		AtomicInteger runs = new AtomicInteger();
+		TimingWheel.Timeout pending = wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+		pending.cancel(); // before it is transferred into a slot
+		TimingWheel.Timeout slotted = wheel.schedule(runs::incrementAndGet, 60, TimeUnit.MILLISECONDS);
+		elapse(TICK);
+		slotted.cancel(); // after it is transferred into a slot
+
+		for (int tick = 0; tick < 10; tick++)
+			elapse(TICK);
+		assertEquals(0, runs.get());
+	}
+
+	@Test
+	public void failingTasksDoNotStopOthers() {
+		AtomicInteger runs = new AtomicInteger();
+		wheel.schedule(() -> {
+			throw new IllegalStateException("task failed");
+		}, 10, TimeUnit.MILLISECONDS);
+		wheel.schedule(runs::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+
+		elapse(TICK);
+		assertEquals(1, runs.get());
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import dev.qixils.quasicord.test.Microbenchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares invoking a command method reflectively with boxed arguments, as was done before {@link CommandInvoker},
+ * against a compiled invoker which receives its primitive arguments unboxed.
+ */
+@Tag(Microbenchmark.TAG)
+public class CommandInvokerBenchmark {
+	private static final int OPERATIONS = 1_000_000;
+
+	public static class Commands {
+		public String give(String item, long amount, int slot, boolean silent) {
+			return silent ? item : amount + slot > 0 ? item : null;
+		}
+	}
+
+	@Test
+	public void invoke() throws Throwable {
+		Commands commands = new Commands();
+		Method method = Commands.class.getMethod("give", String.class, long.class, int.class, boolean.class);
+		CommandInvoker compiled = CommandInvoker.compile(commands, method);
+		assertEquals("item", compiled.invoke(new Object[]{"item", null, null, null}, new long[]{0, 1000, 3, 0}));
+
+		Microbenchmark.measure("reflective (boxed)", OPERATIONS, i -> {
+			try {
+				return method.invoke(commands, "item", (long) i, i, false);
+			} catch (ReflectiveOperationException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		Microbenchmark.measure("compiled (unboxed)", OPERATIONS, i -> {
+			try {
+				return compiled.invoke(new Object[]{"item", null, null, null}, new long[]{0, i, i, 0});
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		});
+	}
+}
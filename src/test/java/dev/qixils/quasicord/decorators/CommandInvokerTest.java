@@ -0,0 +1,94 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.decorators;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommandInvokerTest {
+
+	public static class Commands {
+		public String primitives(byte b, short s, char c, int i, long l, float f, double d, boolean z) {
+			return b + "," + s + "," + c + "," + i + "," + l + "," + f + "," + d + "," + z;
+		}
+
+		public String mixed(String name, int amount, List<String> tags) {
+			return name + amount + tags;
+		}
+
+		public void nothing() {
+		}
+
+		public void fail() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+	private static CommandInvoker compile(String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Method method = Commands.class.getMethod(name, parameterTypes);
+		return CommandInvoker.compile(new Commands(), method);
+	}
+
+	@Test
+	public void primitivesAreDecoded() throws Throwable {
+		CommandInvoker invoker = compile("primitives", byte.class, short.class, char.class, int.class, long.class, float.class, double.class, boolean.class);
+		long[] primitives = {
+			CommandInvoker.toBits((byte) -3),
+			CommandInvoker.toBits((short) 300),
+			CommandInvoker.toBits('z'),
+			CommandInvoker.toBits(Integer.MIN_VALUE),
+			CommandInvoker.toBits(Long.MAX_VALUE),
+			CommandInvoker.toBits(1.5f),
+			CommandInvoker.toBits(-0.25),
+			CommandInvoker.toBits(true)
+		};
+		assertEquals("-3,300,z,-2147483648,9223372036854775807,1.5,-0.25,true", invoker.invoke(new Object[8], primitives));
+	}
+
+	@Test
+	public void omittedPrimitivesAreDefault() throws Throwable {
+		CommandInvoker invoker = compile("primitives", byte.class, short.class, char.class, int.class, long.class, float.class, double.class, boolean.class);
+		assertEquals("0,0,\0,0,0,0.0,0.0,false", invoker.invoke(new Object[8], new long[8]));
+	}
+
+	@Test
+	public void mixedArguments() throws Throwable {
+		CommandInvoker invoker = compile("mixed", String.class, int.class, List.class);
+		Object[] args = {"name", null, List.of("a")};
+		long[] primitives = {0, 42, 0};
+		assertEquals("name42[a]", invoker.invoke(args, primitives));
+	}
+
+	@Test
+	public void boxedArgumentsAreUnboxed() throws Throwable {
+		Class<?>[] parameterTypes = {String.class, int.class, List.class};
+		Object[] args = {"name", 7, List.of()};
+		assertArrayEquals(new long[]{0, 7, 0}, CommandInvoker.unbox(args, parameterTypes));
+		assertEquals("name7[]", compile("mixed", parameterTypes).invoke(args, CommandInvoker.unbox(args, parameterTypes)));
+	}
+
+	@Test
+	public void voidReturnsNull() throws Throwable {
+		assertNull(compile("nothing").invoke(new Object[0], new long[0]));
+	}
+
+	@Test
+	public void exceptionsAreNotWrapped() throws NoSuchMethodException {
+		CommandInvoker invoker = compile("fail");
+		assertThrows(IllegalStateException.class, () -> invoker.invoke(new Object[0], new long[0]));
+	}
+
+	@Test
+	public void toBitsRejectsReferences() {
+		assertEquals(0, CommandInvoker.toBits(null));
+		assertThrows(IllegalArgumentException.class, () -> CommandInvoker.toBits("1"));
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.events;
+
+import dev.qixils.quasicord.test.Microbenchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares dispatching to {@link EventListener} methods through reflection, as was done before listeners were
+ * compiled, against dispatching to the compiled listeners.
+ */
+@Tag(Microbenchmark.TAG)
+public class EventDispatcherBenchmark {
+	private static final int OPERATIONS = 1_000_000;
+
+	public static class Event {
+		private final int value;
+
+		public Event(int value) {
+			this.value = value;
+		}
+	}
+
+	public static class Listener {
+		private long total;
+
+		@EventListener
+		public void onEvent(Event event) {
+			total += event.value;
+		}
+	}
+
+	@Test
+	public void dispatch() throws NoSuchMethodException {
+		Method method = Listener.class.getMethod("onEvent", Event.class);
+		Listener reflectiveListener = new Listener();
+		EventDispatcher reflective = new EventDispatcher();
+		reflective.registerListener(Event.class, event -> {
+			try {
+				method.invoke(reflectiveListener, event);
+			} catch (Exception e) {
+				throw new RuntimeException("Failed to invoke event handler", e);
+			}
+		});
+
+		Listener compiledListener = new Listener();
+		EventDispatcher compiled = new EventDispatcher();
+		compiled.registerListeners(compiledListener);
+
+		Event event = new Event(1);
+		Microbenchmark.measure("reflective listener", OPERATIONS, i -> {
+			reflective.dispatch(event);
+			return null;
+		});
+		Microbenchmark.measure("compiled listener", OPERATIONS, i -> {
+			compiled.dispatch(event);
+			return null;
+		});
+		assertEquals(reflectiveListener.total, compiledListener.total);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class EventDispatcherTest {
+
+	public static class BaseEvent {
+	}
+
+	public static class ChildEvent extends BaseEvent {
+	}
+
+	public static class Listeners {
+		public final List<String> received = new ArrayList<>();
+
+		@EventListener
+		public void onBase(BaseEvent event) {
+			received.add("base");
+		}
+
+		@EventListener
+		public void onChild(ChildEvent event) {
+			received.add("child");
+		}
+
+		public void notAListener(ChildEvent event) {
+			received.add("ignored");
+		}
+	}
+
+	public static class ThrowingListeners {
+		@EventListener
+		public void onChild(ChildEvent event) {
+			throw new IllegalStateException("listener failed");
+		}
+
+		@EventListener
+		public void onBase(BaseEvent event) {
+			throw new AssertionError("listener failed");
+		}
+	}
+
+	@Test
+	public void dispatchesToSupertypeListeners() {
+		EventDispatcher dispatcher = new EventDispatcher();
+		Listeners listeners = new Listeners();
+		dispatcher.registerListeners(listeners);
+
+		dispatcher.dispatch(new BaseEvent());
+		assertEquals(List.of("base"), listeners.received);
+
+		listeners.received.clear();
+		dispatcher.dispatch(new ChildEvent());
+		listeners.received.sort(null);
+		assertEquals(List.of("base", "child"), listeners.received);
+	}
+
+	@Test
+	public void throwingListenerDoesNotAbortDelivery() {
+		EventDispatcher dispatcher = new EventDispatcher();
+		dispatcher.registerListeners(new ThrowingListeners());
+		Listeners listeners = new Listeners();
+		dispatcher.registerListeners(listeners);
+		List<Object> consumed = new ArrayList<>();
+		dispatcher.registerListener(ChildEvent.class, event -> {
+			throw new RuntimeException("consumer failed");
+		});
+		dispatcher.registerListener(ChildEvent.class, consumed::add);
+
+		ChildEvent event = new ChildEvent();
+		dispatcher.dispatch(event);
+		listeners.received.sort(null);
+		assertEquals(List.of("base", "child"), listeners.received);
+		assertEquals(List.of(event), consumed);
+	}
+
+	@Test
+	public void listenersRegisteredLaterReceiveEvents() {
+		EventDispatcher dispatcher = new EventDispatcher();
+		List<Object> consumed = new ArrayList<>();
+		dispatcher.dispatch(new ChildEvent());
+		dispatcher.registerListener(BaseEvent.class, consumed::add);
+
+		ChildEvent event = new ChildEvent();
+		dispatcher.dispatch(event);
+		assertEquals(List.of(event), consumed);
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale;
+
+import dev.qixils.quasicord.db.collection.LocaleConfig.EntryType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocaleCacheTest {
+	private final LocaleCache cache = new LocaleCache(2);
+
+	@Test
+	public void fillsMissingEntries() {
+		long stamp = cache.stamp();
+		cache.fill(EntryType.USER, 1, Locale.FRENCH, stamp);
+		cache.fill(EntryType.GUILD, 1, null, stamp);
+		assertEquals(Optional.of(Locale.FRENCH), cache.get(EntryType.USER, 1));
+		assertEquals(Optional.empty(), cache.get(EntryType.GUILD, 1));
+		assertNull(cache.get(EntryType.CHANNEL, 1));
+	}
+
+	@Test
+	public void staleReadDoesNotOverwriteUpdate() {
+		// a read begins, then the locale is updated before the read completes
+		long stamp = cache.stamp();
+		cache.put(EntryType.USER, 1, Locale.GERMAN);
+		cache.fill(EntryType.USER, 1, Locale.FRENCH, stamp);
+		assertEquals(Optional.of(Locale.GERMAN), cache.get(EntryType.USER, 1));
+	}
+
+	@Test
+	public void staleReadDoesNotRefillInvalidatedEntry() {
+		long stamp = cache.stamp();
+		cache.invalidate(EntryType.USER, 1);
+		cache.fill(EntryType.USER, 1, Locale.FRENCH, stamp);
+		assertNull(cache.get(EntryType.USER, 1));
+
+		stamp = cache.stamp();
+		cache.invalidateAll();
+		cache.fill(EntryType.USER, 1, Locale.FRENCH, stamp);
+		assertNull(cache.get(EntryType.USER, 1));
+	}
+
+	@Test
+	public void fillDoesNotReplaceCachedEntry() {
+		cache.put(EntryType.USER, 1, Locale.GERMAN);
+		cache.fill(EntryType.USER, 1, Locale.FRENCH, cache.stamp());
+		assertEquals(Optional.of(Locale.GERMAN), cache.get(EntryType.USER, 1));
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		cache.put(EntryType.USER, 1, Locale.FRENCH);
+		cache.put(EntryType.USER, 2, Locale.GERMAN);
+		cache.get(EntryType.USER, 1);
+		cache.put(EntryType.USER, 3, Locale.ITALIAN);
+		assertEquals(2, cache.size());
+		assertNull(cache.get(EntryType.USER, 2));
+		assertEquals(Optional.of(Locale.FRENCH), cache.get(EntryType.USER, 1));
+		assertEquals(1, cache.getEvictionCount());
+	}
+}
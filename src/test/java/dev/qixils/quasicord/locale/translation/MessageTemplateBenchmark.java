@@ -0,0 +1,48 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale.translation;
+
+import dev.qixils.quasicord.test.Microbenchmark;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the time taken and memory allocated by parsing a {@link MessageFormat} for every render,
+ * as was done before {@link MessageTemplate}, against rendering a precompiled template, for each of its render paths.
+ */
+@Tag(Microbenchmark.TAG)
+public class MessageTemplateBenchmark {
+	private static final int OPERATIONS = 200_000;
+
+	private static void compare(String path, String pattern, Object[] args) {
+		Locale locale = Locale.ENGLISH;
+		MessageTemplate template = MessageTemplate.compile(pattern, locale);
+		assertEquals(new MessageFormat(pattern, locale).format(args), template.format(args));
+		Microbenchmark.measure(path + ": parsed per render", OPERATIONS, i -> new MessageFormat(pattern, locale).format(args));
+		Microbenchmark.measure(path + ": template", OPERATIONS, i -> template.format(args));
+	}
+
+	@Test
+	public void literal() {
+		compare("literal", "You do not have permission to use this command.", new Object[0]);
+	}
+
+	@Test
+	public void sharedFormat() {
+		compare("shared", "{0} has set the language of {1} to {2}.", new Object[]{"alice", "this server", "English"});
+	}
+
+	@Test
+	public void clonedFormat() {
+		compare("cloned", "{0} has {1,number,integer} points.", new Object[]{"alice", 12345});
+	}
+}
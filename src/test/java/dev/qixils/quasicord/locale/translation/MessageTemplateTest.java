@@ -0,0 +1,93 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale.translation;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessageTemplateTest {
+
+	private static Object field(MessageTemplate template, String name) throws ReflectiveOperationException {
+		Field field = MessageTemplate.class.getDeclaredField(name);
+		field.setAccessible(true);
+		return field.get(template);
+	}
+
+	private static void assertRendersLikeMessageFormat(String pattern, Locale locale, Object... args) {
+		MessageTemplate template = MessageTemplate.compile(pattern, locale);
+		assertEquals(new MessageFormat(pattern, locale).format(args), template.format(args));
+	}
+
+	@Test
+	public void literalPatternsAreRenderedOnce() throws ReflectiveOperationException {
+		MessageTemplate plain = MessageTemplate.compile("Hello, world!", Locale.ENGLISH);
+		assertEquals("Hello, world!", field(plain, "literal"));
+		assertSame(plain.format(new Object[]{"ignored"}), plain.format(null));
+
+		// quotes are resolved when compiling
+		MessageTemplate quoted = MessageTemplate.compile("It''s '{literally}' this", Locale.ENGLISH);
+		assertEquals("It's {literally} this", field(quoted, "literal"));
+		assertEquals("It's {literally} this", quoted.format(null));
+	}
+
+	@Test
+	public void plainPlaceholdersShareTheirFormat() throws ReflectiveOperationException {
+		MessageTemplate template = MessageTemplate.compile("{0} gave {1} to {0}", Locale.ENGLISH);
+		assertNull(field(template, "literal"));
+		assertEquals(true, field(template, "shareable"));
+		assertEquals("alice gave bob to alice", template.format(new Object[]{"alice", "bob"}));
+		assertRendersLikeMessageFormat("{0} gave {1} to {0}", Locale.ENGLISH, "alice", "bob");
+		assertRendersLikeMessageFormat("'{0}' is {0}", Locale.ENGLISH, "quoted");
+	}
+
+	@Test
+	public void subformatsAreClonedPerRender() throws ReflectiveOperationException {
+		MessageTemplate template = MessageTemplate.compile("{0,number,integer} items", Locale.GERMAN);
+		assertNull(field(template, "literal"));
+		assertEquals(false, field(template, "shareable"));
+		assertEquals("1.234 items", template.format(new Object[]{1234}));
+		assertRendersLikeMessageFormat("{0,number,#.##} of {1}", Locale.FRENCH, 3.14159, "pi");
+		assertRendersLikeMessageFormat("{0,choice,0#none|1#one|1<{0,number,integer} many}", Locale.ENGLISH, 5);
+	}
+
+	@Test
+	public void templatesCanBeRenderedConcurrently() throws Exception {
+		MessageTemplate shared = MessageTemplate.compile("{0} and {1}", Locale.ENGLISH);
+		MessageTemplate cloned = MessageTemplate.compile("{0,number,integer} and {1,number,percent}", Locale.ENGLISH);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						assertEquals("a" + i + " and b" + i, shared.format(new Object[]{"a" + i, "b" + i}));
+						assertEquals(String.format(Locale.ENGLISH, "%,d and 50%%", i), cloned.format(new Object[]{i, 0.5}));
+					}
+				}));
+			}
+			for (Future<?> future : futures)
+				future.get();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void invalidPatternsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("{0", Locale.ENGLISH));
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale.translation.impl;
+
+import dev.qixils.quasicord.locale.translation.MessageTemplate;
+import dev.qixils.quasicord.test.Microbenchmark;
+import net.xyzsd.plurals.PluralCategory;
+import net.xyzsd.plurals.PluralRule;
+import net.xyzsd.plurals.PluralRuleType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares creating the plural rule and looking up the category in an {@link EnumMap} on every render,
+ * as was done before rules were cached, against the cached rules and category-indexed templates.
+ * The bundled language files have no plural keys, so synthetic patterns are used.
+ */
+@Tag(Microbenchmark.TAG)
+public class PluralTranslationBenchmark {
+	private static final int OPERATIONS = 200_000;
+
+	private static void compare(String name, Locale locale, PluralRuleType ruleType, Map<String, String> patterns) {
+		PluralTranslationImpl translation = PluralTranslationImpl.fromStringMap("benchmark", locale, locale, patterns);
+		Map<PluralCategory, MessageTemplate> templates = new EnumMap<>(PluralCategory.class);
+		patterns.forEach((category, pattern) ->
+			templates.put(PluralCategory.valueOf(category.toUpperCase(Locale.ROOT)), MessageTemplate.compile(pattern, locale)));
+		for (int quantity = 0; quantity < 100; quantity++) {
+			assertEquals(
+				templates.get(PluralRule.createOrDefault(locale, ruleType).select(quantity)).getPattern(),
+				translation.getTemplate(quantity, ruleType).getPattern()
+			);
+		}
+		Microbenchmark.measure(name + ": rule per render", OPERATIONS,
+			i -> templates.get(PluralRule.createOrDefault(locale, ruleType).select(i & 1023)));
+		Microbenchmark.measure(name + ": cached rule", OPERATIONS,
+			i -> translation.getTemplate(i & 1023, ruleType));
+	}
+
+	@Test
+	public void englishCardinal() {
+		compare("en cardinal", Locale.ENGLISH, PluralRuleType.CARDINAL, Map.of(
+			"one", "{0} has {1} point.",
+			"other", "{0} has {1} points."
+		));
+	}
+
+	@Test
+	public void englishOrdinal() {
+		compare("en ordinal", Locale.ENGLISH, PluralRuleType.ORDINAL, Map.of(
+			"one", "{0} came {1}st.",
+			"two", "{0} came {1}nd.",
+			"few", "{0} came {1}rd.",
+			"other", "{0} came {1}th."
+		));
+	}
+
+	@Test
+	public void russianCardinal() {
+		compare("ru cardinal", Locale.forLanguageTag("ru"), PluralRuleType.CARDINAL, Map.of(
+			"one", "{0} получил {1} очко.",
+			"few", "{0} получил {1} очка.",
+			"many", "{0} получил {1} очков.",
+			"other", "{0} получил {1} очка."
+		));
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.locale.translation.impl;
+
+import net.xyzsd.plurals.PluralRuleType;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PluralTranslationImplTest {
+	private static final Locale RUSSIAN = Locale.forLanguageTag("ru");
+	private static final Locale ARABIC = Locale.forLanguageTag("ar");
+
+	private static PluralTranslationImpl translation(Locale locale, Map<String, String> patterns) {
+		return PluralTranslationImpl.fromStringMap("test.key", locale, locale, patterns);
+	}
+
+	private static void assertSelects(PluralTranslationImpl translation, PluralRuleType ruleType, int quantity, String expected) {
+		assertEquals(expected, translation.get(quantity, ruleType), "string for " + quantity);
+		assertEquals(expected, translation.getTemplate(quantity, ruleType).getPattern(), "template for " + quantity);
+	}
+
+	@Test
+	public void englishCardinal() {
+		PluralTranslationImpl translation = translation(Locale.ENGLISH, Map.of("one", "{0} item", "other", "{0} items"));
+		assertSelects(translation, PluralRuleType.CARDINAL, 0, "{0} items");
+		assertSelects(translation, PluralRuleType.CARDINAL, 1, "{0} item");
+		assertSelects(translation, PluralRuleType.CARDINAL, 2, "{0} items");
+		assertSelects(translation, PluralRuleType.CARDINAL, 21, "{0} items");
+		assertEquals("1 item", translation.getTemplate(1, PluralRuleType.CARDINAL).format(new Object[]{1}));
+	}
+
+	@Test
+	public void englishOrdinal() {
+		PluralTranslationImpl translation = translation(Locale.ENGLISH, Map.of(
+			"one", "{0}st", "two", "{0}nd", "few", "{0}rd", "other", "{0}th"
+		));
+		assertSelects(translation, PluralRuleType.ORDINAL, 1, "{0}st");
+		assertSelects(translation, PluralRuleType.ORDINAL, 2, "{0}nd");
+		assertSelects(translation, PluralRuleType.ORDINAL, 3, "{0}rd");
+		assertSelects(translation, PluralRuleType.ORDINAL, 4, "{0}th");
+		assertSelects(translation, PluralRuleType.ORDINAL, 11, "{0}th");
+		assertSelects(translation, PluralRuleType.ORDINAL, 12, "{0}th");
+		assertSelects(translation, PluralRuleType.ORDINAL, 21, "{0}st");
+		assertSelects(translation, PluralRuleType.ORDINAL, 102, "{0}nd");
+		// the same translation also selects by cardinal rules
+		assertSelects(translation, PluralRuleType.CARDINAL, 2, "{0}th");
+	}
+
+	@Test
+	public void russianCardinal() {
+		PluralTranslationImpl translation = translation(RUSSIAN, Map.of(
+			"one", "one", "few", "few", "many", "many", "other", "other"
+		));
+		assertSelects(translation, PluralRuleType.CARDINAL, 1, "one");
+		assertSelects(translation, PluralRuleType.CARDINAL, 21, "one");
+		assertSelects(translation, PluralRuleType.CARDINAL, 2, "few");
+		assertSelects(translation, PluralRuleType.CARDINAL, 24, "few");
+		assertSelects(translation, PluralRuleType.CARDINAL, 5, "many");
+		assertSelects(translation, PluralRuleType.CARDINAL, 11, "many");
+		assertSelects(translation, PluralRuleType.CARDINAL, 12, "many");
+	}
+
+	@Test
+	public void arabicCardinal() {
+		PluralTranslationImpl translation = translation(ARABIC, Map.of(
+			"zero", "zero", "one", "one", "two", "two", "few", "few", "many", "many", "other", "other"
+		));
+		assertSelects(translation, PluralRuleType.CARDINAL, 0, "zero");
+		assertSelects(translation, PluralRuleType.CARDINAL, 1, "one");
+		assertSelects(translation, PluralRuleType.CARDINAL, 2, "two");
+		assertSelects(translation, PluralRuleType.CARDINAL, 3, "few");
+		assertSelects(translation, PluralRuleType.CARDINAL, 11, "many");
+		assertSelects(translation, PluralRuleType.CARDINAL, 100, "other");
+	}
+
+	@Test
+	public void missingCategoryFallsBackToOther() {
+		PluralTranslationImpl translation = translation(RUSSIAN, Map.of("one", "one", "other", "other"));
+		assertSelects(translation, PluralRuleType.CARDINAL, 1, "one");
+		assertSelects(translation, PluralRuleType.CARDINAL, 2, "other");
+		assertSelects(translation, PluralRuleType.CARDINAL, 5, "other");
+		assertSame(translation.getTemplate(2, PluralRuleType.CARDINAL), translation.getTemplate(5, PluralRuleType.CARDINAL));
+	}
+
+	@Test
+	public void templatesAreCompiledOnce() {
+		PluralTranslationImpl translation = translation(Locale.ENGLISH, Map.of("one", "{0} item", "other", "{0} items"));
+		assertSame(translation.getTemplate(2, PluralRuleType.CARDINAL), translation.getTemplate(3, PluralRuleType.CARDINAL));
+		// views for other requested locales share the compiled templates
+		PluralTranslationImpl view = translation.withRequestedLocale(Locale.UK);
+		assertEquals(Locale.UK, view.getRequestedLocale());
+		assertEquals(Locale.ENGLISH, view.getLocale());
+		assertSame(translation.getTemplate(2, PluralRuleType.CARDINAL), view.getTemplate(2, PluralRuleType.CARDINAL));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void rulesAreCachedPerLocaleAndType() throws ReflectiveOperationException {
+		Field field = PluralTranslationImpl.class.getDeclaredField("RULES");
+		field.setAccessible(true);
+		Map<PluralRuleType, Map<Locale, ?>> rules = (Map<PluralRuleType, Map<Locale, ?>>) field.get(null);
+
+		Locale locale = Locale.forLanguageTag("pl");
+		PluralTranslationImpl first = translation(locale, Map.of("one", "one", "other", "other"));
+		PluralTranslationImpl second = translation(locale, Map.of("one", "jeden", "other", "inne"));
+		first.get(1, PluralRuleType.CARDINAL);
+		Object rule = rules.get(PluralRuleType.CARDINAL).get(locale);
+		assertNotNull(rule);
+		second.get(5, PluralRuleType.CARDINAL);
+		assertSame(rule, rules.get(PluralRuleType.CARDINAL).get(locale));
+		assertFalse(rules.get(PluralRuleType.ORDINAL).containsKey(locale));
+		second.get(5, PluralRuleType.ORDINAL);
+		assertNotSame(rule, rules.get(PluralRuleType.ORDINAL).get(locale));
+	}
+}
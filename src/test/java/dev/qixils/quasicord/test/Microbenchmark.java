@@ -0,0 +1,74 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.test;
+
+import com.sun.management.ThreadMXBean;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * A minimal harness for the microbenchmarks tagged {@value #TAG}, which are run by the {@code benchmark} Gradle task
+ * rather than with the regular tests.
+ * <p>
+ * Each operation is warmed up before being timed over several rounds, and the fastest round is reported
+ * along with the fewest bytes allocated per operation by any round.
+ * The results of every operation are consumed so that the JIT cannot eliminate them.
+ */
+public final class Microbenchmark {
+	/**
+	 * The JUnit tag of benchmarks.
+	 */
+	public static final @NonNull String TAG = "benchmark";
+	private static final int WARMUP_ROUNDS = 10;
+	private static final int ROUNDS = 10;
+	private static final @NonNull ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+	@SuppressWarnings("unused")
+	private static volatile int sink;
+
+	private Microbenchmark() {
+	}
+
+	/**
+	 * Measures the average time taken and memory allocated by an operation.
+	 *
+	 * @param name       the name of the operation
+	 * @param operations the number of operations per round
+	 * @param operation  the operation, which is passed the index of the operation within its round
+	 * @return nanoseconds per operation in the fastest round
+	 */
+	public static double measure(@NonNull String name, int operations, @NonNull IntFunction<?> operation) {
+		for (int round = 0; round < WARMUP_ROUNDS; round++)
+			run(operations, operation);
+		long bestTime = Long.MAX_VALUE;
+		long bestAllocated = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long allocated = THREADS.getCurrentThreadAllocatedBytes();
+			long time = run(operations, operation);
+			allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+			bestTime = Math.min(bestTime, time);
+			bestAllocated = Math.min(bestAllocated, allocated);
+		}
+		double nanosPerOp = (double) bestTime / operations;
+		double bytesPerOp = (double) bestAllocated / operations;
+		System.out.printf(Locale.ROOT, "%-40s %10.1f ns/op %10.1f B/op%n", name, nanosPerOp, bytesPerOp);
+		return nanosPerOp;
+	}
+
+	private static long run(int operations, @NonNull IntFunction<?> operation) {
+		int consumed = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < operations; i++)
+			consumed += Objects.hashCode(operation.apply(i));
+		long elapsed = System.nanoTime() - start;
+		sink = consumed;
+		return elapsed;
+	}
+}
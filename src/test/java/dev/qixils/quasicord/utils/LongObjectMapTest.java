@@ -0,0 +1,176 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+
+package dev.qixils.quasicord.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+	/**
+	 * Finds keys which hash to the same slot of a map with the provided capacity.
+	 *
+	 * @param capacity the capacity of the map
+	 * @param count    the number of keys to find
+	 * @return colliding keys
+	 */
+	private static long[] collidingKeys(int capacity, int count) throws ReflectiveOperationException {
+		Method slot = LongObjectMap.class.getDeclaredMethod("slot", long.class, int.class);
+		slot.setAccessible(true);
+		long[] keys = new long[count];
+		int found = 0;
+		for (long key = 1; found < count; key++) {
+			if ((int) slot.invoke(null, key, capacity - 1) == 0)
+				keys[found++] = key;
+		}
+		return keys;
+	}
+
+	private static int capacity(LongObjectMap<?> map) throws ReflectiveOperationException {
+		var keys = LongObjectMap.class.getDeclaredField("keys");
+		keys.setAccessible(true);
+		return ((long[]) keys.get(map)).length;
+	}
+
+	private static Map<Long, String> toMap(LongObjectMap<String> map) {
+		Map<Long, String> entries = new HashMap<>();
+		map.forEach((key, value) -> assertNull(entries.put(key, value), "duplicate key " + key));
+		return entries;
+	}
+
+	@Test
+	public void emptyMap() {
+		LongObjectMap<String> map = LongObjectMap.empty();
+		assertTrue(map.isEmpty());
+		assertEquals(0, map.size());
+		assertNull(map.get(0));
+		assertNull(map.get(42));
+		assertSame(map, map.without(42));
+		assertSame(map, map.withAll(Map.of()));
+	}
+
+	@Test
+	public void updatesReturnCopies() {
+		LongObjectMap<String> empty = LongObjectMap.empty();
+		LongObjectMap<String> one = empty.with(1, "one");
+		LongObjectMap<String> replaced = one.with(1, "uno");
+		assertNull(empty.get(1));
+		assertEquals("one", one.get(1));
+		assertEquals("uno", replaced.get(1));
+		assertEquals(1, replaced.size());
+		assertSame(LongObjectMap.empty(), replaced.without(1));
+	}
+
+	@Test
+	public void zeroAndNegativeKeys() {
+		LongObjectMap<String> map = LongObjectMap.<String>empty()
+			.with(0, "zero")
+			.with(-1, "minus one")
+			.with(Long.MIN_VALUE, "min");
+		assertEquals("zero", map.get(0));
+		assertEquals("minus one", map.get(-1));
+		assertEquals("min", map.get(Long.MIN_VALUE));
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	public void collidingKeys() throws ReflectiveOperationException {
+		// 3 entries are stored in 8 slots
+		long[] keys = collidingKeys(8, 3);
+		LongObjectMap<String> map = LongObjectMap.empty();
+		for (long key : keys)
+			map = map.with(key, "v" + key);
+		assertEquals(8, capacity(map));
+		for (long key : keys)
+			assertEquals("v" + key, map.get(key));
+
+		// replacing a key later in the probe sequence does not add an entry
+		map = map.with(keys[2], "replaced");
+		assertEquals(3, map.size());
+		assertEquals("replaced", map.get(keys[2]));
+
+		// removing the head of the probe sequence must not hide the keys after it
+		LongObjectMap<String> removed = map.without(keys[0]);
+		assertNull(removed.get(keys[0]));
+		assertEquals("v" + keys[1], removed.get(keys[1]));
+		assertEquals("replaced", removed.get(keys[2]));
+		assertEquals(2, removed.size());
+
+		// a key which shares a slot with mapped keys but is not itself mapped
+		long absent = collidingKeys(8, 4)[3];
+		assertNull(map.get(absent));
+		assertSame(map, map.without(absent));
+	}
+
+	@Test
+	public void withAllReplacesExistingKeys() throws ReflectiveOperationException {
+		long[] keys = collidingKeys(8, 3);
+		LongObjectMap<String> map = LongObjectMap.<String>empty().with(keys[0], "a").with(keys[1], "b");
+		map = map.withAll(Map.of(keys[1], "B", keys[2], "C"));
+		assertEquals(Map.of(keys[0], "a", keys[1], "B", keys[2], "C"), toMap(map));
+		assertEquals(3, map.size());
+	}
+
+	@Test
+	public void capacityGrowsAndShrinks() throws ReflectiveOperationException {
+		LongObjectMap<String> map = LongObjectMap.empty();
+		for (int size = 1; size <= 100; size++) {
+			map = map.with(size, "v" + size);
+			int capacity = capacity(map);
+			assertEquals(size, map.size());
+			assertTrue(capacity >= size * 2, "load factor above 0.5 at size " + size);
+			assertEquals(0, capacity & (capacity - 1), "capacity is not a power of two");
+		}
+		for (int size = 99; size >= 1; size--) {
+			// rehashed with the capacity for the remaining entries
+			map = map.without(size + 1);
+			assertEquals(size, map.size());
+			assertTrue(capacity(map) >= size * 2, "load factor above 0.5 at size " + size);
+			assertTrue(capacity(map) <= size * 4, "capacity was not reduced at size " + size);
+			for (long key = 1; key <= size; key++)
+				assertEquals("v" + key, map.get(key));
+		}
+	}
+
+	@Test
+	public void matchesHashMap() {
+		Random random = new Random(0x5EED);
+		Map<Long, String> expected = new HashMap<>();
+		LongObjectMap<String> map = LongObjectMap.empty();
+		// snowflake-like keys, which share their high bits
+		long base = 1_200_000_000_000_000_000L;
+		for (int i = 0; i < 5_000; i++) {
+			long key = base + random.nextInt(512);
+			switch (random.nextInt(3)) {
+				case 0, 1 -> {
+					String value = "v" + i;
+					expected.put(key, value);
+					map = map.with(key, value);
+				}
+				default -> {
+					expected.remove(key);
+					map = map.without(key);
+				}
+			}
+			assertEquals(expected.size(), map.size());
+		}
+		assertEquals(expected, toMap(map));
+		for (long key = base; key < base + 512; key++)
+			assertEquals(expected.get(key), map.get(key));
+	}
+
+	@Test
+	public void nullValuesAreRejected() {
+		Map<Long, String> entries = new HashMap<>();
+		entries.put(1L, null);
+		assertThrows(NullPointerException.class, () -> LongObjectMap.<String>empty().withAll(entries));
+	}
+}